@@ -0,0 +1,73 @@
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import javax.swing.Timer;
+
+/**
+ * Lowers the render quality of a SlideViewerComponent during bursts of
+ * input and restores it when the input stops.
+ * A burst is input that follows the previous input within the idle time,
+ * such as a held navigation key or dragging the window edge; a single key
+ * press or resize keeps full quality. During a burst the view renders with
+ * RenderQuality.FAST and, while resizing, stretches the slide it has
+ * already rendered at the old scale instead of laying it out again. Once
+ * input has been idle for the idle time the view renders at RenderQuality.HIGH again.
+ */
+public class AdaptiveQualityController {
+
+    public static final int DEFAULT_IDLE_MILLIS = 250;
+
+    private final SlideViewerComponent view;
+    private final long idleNanos;
+    private final Timer idleTimer;
+    private long lastInputNanos;
+    private boolean bursting;
+
+    public AdaptiveQualityController(SlideViewerComponent view) {
+        this(view, DEFAULT_IDLE_MILLIS);
+    }
+
+    public AdaptiveQualityController(SlideViewerComponent view, int idleMillis) {
+        this.view = view;
+        this.idleNanos = idleMillis * 1_000_000L;
+        this.idleTimer = new Timer(idleMillis, e -> settle());
+        idleTimer.setRepeats(false);
+        view.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                onInput();
+            }
+        });
+    }
+
+    /**
+     * Reports navigation or resize input. Call on the EDT.
+     */
+    public void onInput() {
+        onInput(System.nanoTime());
+    }
+
+    void onInput(long nowNanos) {
+        if (lastInputNanos != 0 && nowNanos - lastInputNanos < idleNanos && !bursting) {
+            bursting = true;
+            view.setRenderQuality(RenderQuality.FAST);
+        }
+        lastInputNanos = nowNanos;
+        if (bursting) {
+            idleTimer.restart();
+        }
+    }
+
+    // Input has been idle long enough: render at full quality again
+    void settle() {
+        idleTimer.stop();
+        lastInputNanos = 0;
+        if (bursting) {
+            bursting = false;
+            view.setRenderQuality(RenderQuality.HIGH);
+        }
+    }
+
+    public boolean isBursting() {
+        return bursting;
+    }
+}
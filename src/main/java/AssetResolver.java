@@ -0,0 +1,36 @@
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Finds the files of the assets, such as images, that a deck refers to by name.
+ * BitmapItem asks a resolver for the file of its image.
+ */
+public interface AssetResolver {
+
+    /**
+     * Finds the file of an asset.
+     *
+     * @param name The name of the asset as it appears in the deck.
+     * @return The file, or null if the asset cannot be found.
+     */
+    Path resolve(String name);
+
+    /**
+     * Finds the files of all assets of a deck at once, so an implementation
+     * can share the work between them (see SearchPathAssetResolver).
+     *
+     * @return The file for each name that was found.
+     */
+    default Map<String, Path> resolveAll(Collection<String> names) {
+        Map<String, Path> files = new LinkedHashMap<>();
+        for (String name : names) {
+            Path file = resolve(name);
+            if (file != null) {
+                files.put(name, file);
+            }
+        }
+        return files;
+    }
+}
@@ -0,0 +1,154 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.Timer;
+
+/**
+ * Saves the presentation to an autosave file at a fixed interval, so that
+ * unsaved work survives a crash.
+ * On the EDT a tick only takes a snapshot of the presentation (see
+ * Presentation.snapshot), which shares all slides that did not change; the
+ * snapshot is written on a background thread. Autosaves are incremental,
+ * like normal saves, because unchanged slides keep their snapshot.
+ * The autosave file is removed when the changes have been saved normally and
+ * when the application exits, so a file found at startup means a crash
+ * (see hasRecovery).
+ */
+public class AutosaveManager {
+
+    public static final int DEFAULT_INTERVAL_MILLIS = 30_000;
+
+    private final Presentation presentation;
+    private final Path file;
+    private final PresentationWriter writer;
+    private final Timer timer;
+    private final ExecutorService saver = Executors.newSingleThreadExecutor(
+            BackgroundTasks.daemonThreadFactory("jabberpoint-autosave"));
+    private final AtomicBoolean saving = new AtomicBoolean();
+    private volatile Presentation lastSnapshot; // the last snapshot that was written
+    private volatile SaveIndex saveIndex; // where the slides are in the autosave file
+    private Thread shutdownHook;
+
+    public AutosaveManager(Presentation presentation) {
+        this(presentation, getDefaultFile(), new XMLPresentationWriter(), DEFAULT_INTERVAL_MILLIS);
+    }
+
+    public AutosaveManager(Presentation presentation, Path file, PresentationWriter writer, int intervalMillis) {
+        this.presentation = presentation;
+        this.file = file;
+        this.writer = writer;
+        this.timer = new Timer(intervalMillis, e -> autosave());
+        timer.setCoalesce(true);
+    }
+
+    /**
+     * The autosave file in the user's home directory.
+     */
+    public static Path getDefaultFile() {
+        return Paths.get(System.getProperty("user.home"), ".jabberpoint", "autosave.xml");
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Starts autosaving. Call after a recovery file has been dealt with,
+     * as the first autosave replaces it.
+     */
+    public void start() {
+        if (shutdownHook == null) {
+            shutdownHook = new Thread(this::deleteFile, "jabberpoint-autosave-cleanup");
+            Runtime.getRuntime().addShutdownHook(shutdownHook); // a crash leaves the file behind
+        }
+        timer.start();
+    }
+
+    public void stop() {
+        timer.stop();
+        if (shutdownHook != null) {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            shutdownHook = null;
+        }
+    }
+
+    /**
+     * Tells if an autosave file was left behind, e.g. by a crash.
+     */
+    public boolean hasRecovery() {
+        return Files.isRegularFile(file);
+    }
+
+    /**
+     * Removes a left behind autosave file the user does not want back.
+     */
+    public void discardRecovery() {
+        deleteFile();
+    }
+
+    /**
+     * Takes a snapshot and writes it in the background, unless nothing changed
+     * since the last autosave or a save is still running. Call on the EDT.
+     *
+     * @return The background save, or null if there was nothing to do.
+     */
+    Future<?> autosave() {
+        if (!presentation.isModified()) {
+            if (lastSnapshot != null) { // saved normally since, the autosave is outdated
+                lastSnapshot = null;
+                return saver.submit(this::deleteFile);
+            }
+            return null;
+        }
+        Presentation snapshot = presentation.snapshot();
+        if (isSame(snapshot, lastSnapshot) || !saving.compareAndSet(false, true)) {
+            return null;
+        }
+        return saver.submit(() -> write(snapshot));
+    }
+
+    private void write(Presentation snapshot) {
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(file.getParent());
+            snapshot.setSaveIndex(saveIndex);
+            writer.save(snapshot, file.toString());
+            saveIndex = snapshot.getSaveIndex();
+            lastSnapshot = snapshot;
+            System.out.printf("Autosaved %d slides in %d ms%n", snapshot.getSize(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException ex) {
+            System.err.println("Autosave to " + file + " failed: " + ex.getMessage());
+        } finally {
+            saving.set(false);
+        }
+    }
+
+    // the same title and the same slide snapshots means the same content
+    private static boolean isSame(Presentation snapshot, Presentation last) {
+        if (last == null || snapshot.getSize() != last.getSize()
+                || !String.valueOf(snapshot.getTitle()).equals(String.valueOf(last.getTitle()))) {
+            return false;
+        }
+        for (int number = 0; number < snapshot.getSize(); number++) {
+            if (snapshot.getSlide(number) != last.getSlide(number)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void deleteFile() {
+        try {
+            Files.deleteIfExists(file);
+            saveIndex = null;
+        } catch (IOException ex) {
+            System.err.println("Could not remove autosave file " + file + ": " + ex.getMessage());
+        }
+    }
+}
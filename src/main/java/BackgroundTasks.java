@@ -0,0 +1,49 @@
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared worker pool for work that must stay off the Event Dispatch Thread
+ * (warm-ups, deck loading, background rendering).
+ * The threads are daemons, so an idle pool never keeps the JVM alive.
+ */
+public final class BackgroundTasks {
+
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors()),
+            daemonThreadFactory("jabberpoint-worker"));
+
+    private BackgroundTasks() {
+        // Utility class, no instances.
+    }
+
+    /**
+     * Gives the shared executor, e.g. for use with CompletableFuture.
+     */
+    public static ExecutorService executor() {
+        return EXECUTOR;
+    }
+
+    /**
+     * Runs the task on the shared worker pool.
+     */
+    public static void execute(Runnable task) {
+        EXECUTOR.execute(task);
+    }
+
+    /**
+     * Creates a factory for named daemon threads.
+     *
+     * @param prefix The prefix for the thread names, a sequence number is appended.
+     * @return A ThreadFactory producing daemon threads.
+     */
+    public static ThreadFactory daemonThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -2,9 +2,14 @@ import java.awt.Rectangle;
 import java.awt.Graphics;
 import java.awt.image.BufferedImage;
 import java.awt.image.ImageObserver;
-import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import javax.imageio.ImageIO;
+import javax.imageio.stream.MemoryCacheImageInputStream;
 
 import java.io.IOException;
 
@@ -21,14 +26,28 @@ import java.io.IOException;
 */
 
 public class BitmapItem extends SlideItem {
-  private BufferedImage bufferedImage;
+  private volatile BufferedImage bufferedImage; // set by a worker when an ImagePreloader decodes it
   private String imageName;
+  private volatile Path source; // where the image was read from, null if it was not found
+  private CompletableFuture<?> pending; // the decode by an ImagePreloader, null if read directly
   
   protected static final String FILE = "File ";
   protected static final String NOTFOUND = " not found";
 
-// level is equal to item-level; name is the name of the file with the Image
+// level is equal to item-level; name is the name of the file with the Image,
+// searched in the working directory and its "resources" directories
 	public BitmapItem(int level, String name) {
+		this(level, name, SearchPathAssetResolver.forWorkingDirectory());
+	}
+
+// level is equal to item-level; the resolver finds the file with the Image by its name
+	public BitmapItem(int level, String name, AssetResolver resolver) {
+		this(level, name, resolver, null);
+	}
+
+// as above, but the preloader decodes the image in the background (null: read it now);
+// the item is complete when awaitImage returns
+	public BitmapItem(int level, String name, AssetResolver resolver, ImagePreloader preloader) {
 		super(level);
 		if (name == null) {
 			System.err.println("ERROR: Attempted to create BitmapItem with null image name. Level: " + level);
@@ -37,32 +56,64 @@ public class BitmapItem extends SlideItem {
 			return; // Stop constructor execution here
 		}
 		imageName = name;
-		
-		// First try to load from current directory (relative path)
-        try {
-            File imageFile = new File(imageName);
-            if (imageFile.exists()) {
-                bufferedImage = ImageIO.read(imageFile);
-            } else {
-                // If not found, try in the project's base directory
-                File projectBaseFile = new File("resources", imageName);
-                if (projectBaseFile.exists()) {
-                    bufferedImage = ImageIO.read(projectBaseFile);
-                } else {
-                    // If still not found, try an alternative location
-                    File alternativeFile = new File("src/main/resources", imageName);
-                    if (alternativeFile.exists()) {
-                        bufferedImage = ImageIO.read(alternativeFile);
-                    } else {
-                        System.err.println("Tried multiple paths, but couldn't find: " + imageName);
-                        System.err.println("Searched in: ., ./resources, ./src/main/resources");
-                        throw new IOException("Image file not found in any standard location");
-                    }
-                }
-            }
-        } catch (IOException e) {
-            System.err.println(FILE + imageName + NOTFOUND + ": " + e.getMessage());
-        }
+		Path file = resolver.resolve(name);
+		if (file == null) {
+			System.err.println(FILE + imageName + NOTFOUND + ", " + resolver);
+			return;
+		}
+		if (preloader == null) {
+			read(file);
+		} else {
+			pending = preloader.load(file).whenComplete((image, error) -> {
+				if (error != null) {
+					System.err.println(FILE + imageName + NOTFOUND + ": " + error.getMessage());
+				} else {
+					bufferedImage = image;
+					source = file;
+				}
+			});
+		}
+	}
+
+// level is equal to item-level; the image is streamed from source, which can be
+// in any file system, e.g. an entry of a bundle (see BundlePresentationReader)
+	public BitmapItem(int level, String name, Path source) {
+		super(level);
+		imageName = name;
+		read(source);
+	}
+
+	private void read(Path file) {
+		try {
+			bufferedImage = ImageStore.shared().load(file, BitmapItem::decode); // shared with equal images
+			source = file;
+		} catch (IOException e) {
+			System.err.println(FILE + imageName + NOTFOUND + ": " + e.getMessage());
+		}
+	}
+
+	private static BufferedImage decode(Path file) throws IOException {
+		// cache in memory, ImageIO would otherwise copy the stream to a temporary file
+		try (InputStream in = Files.newInputStream(file)) {
+			// ImageIO.read closes the image stream; normalized once, before the image is shared
+			return ImageNormalizer.normalize(ImageIO.read(new MemoryCacheImageInputStream(in)));
+		}
+	}
+
+// wait until an image that is decoded in the background is there (or has failed)
+	public void awaitImage() {
+		if (pending != null) {
+			try {
+				pending.join();
+			} catch (CompletionException e) {
+				// reported when the decode failed, the item shows "not found"
+			}
+		}
+	}
+
+// tell if the image is still being decoded in the background
+	public boolean isLoading() {
+		return pending != null && !pending.isDone();
 	}
 
 // give the filename of the image
@@ -70,6 +121,16 @@ public class BitmapItem extends SlideItem {
 		return imageName;
 	}
 
+// give the decoded image, null if it was not found
+	BufferedImage getImage() {
+		return bufferedImage;
+	}
+
+// give the file the image was read from, or null if it was not found
+	public Path getSource() {
+		return source;
+	}
+
 // give the  bounding box of the image
 	public Rectangle getBoundingBox(Graphics g, ImageObserver observer, float scale, Style myStyle) {
 		if (bufferedImage == null) {
@@ -84,6 +145,20 @@ public class BitmapItem extends SlideItem {
 				(int) (bufferedImage.getHeight(observer) * scale));
 	}
 
+// give the bounding box in result, without allocating
+	public Rectangle getBoundingBox(RenderContext context, Style myStyle, Rectangle result) {
+		float scale = context.getScale();
+		if (bufferedImage == null) {
+			result.setBounds(0, 0, (int) (myStyle.indent * scale), (int) (myStyle.leading * scale));
+		} else {
+			result.setBounds((int) (myStyle.indent * scale), 0,
+					(int) (bufferedImage.getWidth(context.getObserver()) * scale),
+					((int) (myStyle.leading * scale)) +
+					(int) (bufferedImage.getHeight(context.getObserver()) * scale));
+		}
+		return result;
+	}
+
 // draw the image
 	public void draw(int x, int y, float scale, Graphics g, Style myStyle, ImageObserver observer) {
 		if (bufferedImage == null) {
@@ -98,6 +173,16 @@ public class BitmapItem extends SlideItem {
                 (int) (bufferedImage.getHeight(observer)*scale), observer);
 	}
 
+// record the image into a display list at scale 1
+	int record(DisplayList list, int x, int y, Style myStyle) {
+		if (bufferedImage == null) {
+			return super.record(list, x, y, myStyle); // replays the "not found" message
+		}
+		list.addImage(bufferedImage, x + myStyle.indent, y + myStyle.leading,
+				bufferedImage.getWidth(), bufferedImage.getHeight());
+		return myStyle.leading + bufferedImage.getHeight();
+	}
+
 	public String toString() {
 		return "BitmapItem[" + getLevel() + "," + imageName + "]";
 	}
@@ -1,13 +1,67 @@
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * A concrete factory implementing SlideItemFactory to create BitmapItem objects.
  */
 public class BitmapItemFactory implements SlideItemFactory {
 
+    private final AssetResolver resolver;
+    private final ImagePreloader preloader; // null: items read their image when they are created
+    private final List<BitmapItem> loading = new ArrayList<>(); // items waiting for the preloader
+
     /**
-     * Default constructor.
+     * Default constructor, the images are searched relative to the working directory.
      */
     public BitmapItemFactory() {
-        // No specific initialization needed for this factory.
+        this(SearchPathAssetResolver.forWorkingDirectory());
+    }
+
+    /**
+     * Creates a factory that reads the images relative to the given directory,
+     * which can be in any file system, e.g. the root of a bundle. The images
+     * are decoded by the shared ImagePreloader.
+     */
+    public BitmapItemFactory(Path baseDirectory) {
+        this(new SearchPathAssetResolver(List.of(baseDirectory)), ImagePreloader.shared());
+    }
+
+    /**
+     * Creates a factory whose items find their images with the given resolver.
+     */
+    public BitmapItemFactory(AssetResolver resolver) {
+        this(resolver, null);
+    }
+
+    /**
+     * Creates a factory whose items find their images with the given resolver
+     * and have them decoded by the preloader; call awaitImages when the deck
+     * is complete.
+     */
+    public BitmapItemFactory(AssetResolver resolver, ImagePreloader preloader) {
+        this.resolver = resolver;
+        this.preloader = preloader;
+    }
+
+    /**
+     * Resolves the image names of a whole deck in one go, before its items
+     * are created, so the resolver can batch the lookups.
+     */
+    public void resolveAll(Collection<String> imageNames) {
+        resolver.resolveAll(imageNames);
+    }
+
+    /**
+     * Waits until the preloader has decoded the images of all items created
+     * so far.
+     */
+    public void awaitImages() {
+        for (BitmapItem item : loading) {
+            item.awaitImage();
+        }
+        loading.clear();
     }
 
     /**
@@ -20,6 +74,10 @@ public class BitmapItemFactory implements SlideItemFactory {
     @Override
     public SlideItem createSlideItem(int level, String imageNameData) {
         // The data string is interpreted as the image filename here.
-        return new BitmapItem(level, imageNameData);
+        BitmapItem item = new BitmapItem(level, imageNameData, resolver, preloader);
+        if (item.isLoading()) {
+            loading.add(item);
+        }
+        return item;
     }
 }
@@ -0,0 +1,56 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Reads a presentation from a bundle: a single ZIP file with the XML of the
+ * deck and the images it uses (see BundlePresentationWriter).
+ * The bundle is opened as a file system with FileSystems.newFileSystem, and
+ * each image is streamed straight from its entry when its item is created;
+ * nothing is extracted to disk. Images are stored uncompressed in the bundle,
+ * so reading them costs no more than reading a loose file.
+ */
+public class BundlePresentationReader implements PresentationReader {
+
+    public static final String EXTENSION = ".jpz";
+    public static final String DECK_ENTRY = "deck.xml"; // the XML of the deck, at the root
+
+    /**
+     * Tells if the file name is that of a bundle, by its extension.
+     */
+    public static boolean isBundle(String filename) {
+        return filename != null && filename.toLowerCase().endsWith(EXTENSION);
+    }
+
+    /**
+     * Gives the reader for the file: a bundle reader for bundles, an XML
+     * reader otherwise.
+     */
+    public static PresentationReader forFile(String filename) {
+        return isBundle(filename) ? new BundlePresentationReader() : new XMLPresentationReader();
+    }
+
+    @Override
+    public void load(Presentation presentation, String filename) throws IOException {
+        Path bundle = Paths.get(filename).toAbsolutePath();
+        if (!Files.isRegularFile(bundle)) {
+            System.err.println("Bundle not found: " + bundle);
+            throw new IOException("Cannot find file: " + filename);
+        }
+        System.out.println("Loading bundle from: " + bundle);
+        try (FileSystem zip = FileSystems.newFileSystem(bundle, (ClassLoader) null)) {
+            Path root = zip.getPath("/");
+            XMLPresentationReader reader = new XMLPresentationReader(new BitmapItemFactory(root));
+            try (InputStream in = Files.newInputStream(root.resolve(DECK_ENTRY))) {
+                reader.load(presentation, in, filename + "!/" + DECK_ENTRY);
+            } catch (NoSuchFileException ex) {
+                throw new IOException("Not a presentation bundle, " + DECK_ENTRY + " is missing: " + filename, ex);
+            }
+        }
+    }
+}
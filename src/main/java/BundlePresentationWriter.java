@@ -0,0 +1,151 @@
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Packages a presentation and its images into a bundle: one ZIP file that
+ * can be shipped and opened anywhere (see BundlePresentationReader).
+ * The XML is compressed; images are compressed already, so they are stored
+ * as they are, which lets the reader stream them without inflating.
+ * Images are copied from the files they were read from. Relative image
+ * names are kept; other names (absolute paths, "..") are given an entry under
+ * "images/" and the XML in the bundle refers to that entry.
+ * Like XMLPresentationWriter, the bundle is written to a temporary file that
+ * then replaces the destination.
+ */
+public class BundlePresentationWriter implements PresentationWriter {
+
+    static final String IMAGES = "images/"; // entries for images without a usable relative name
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    @Override
+    public void save(Presentation presentation, String filename) throws IOException {
+        Path destination = Paths.get(filename).toAbsolutePath();
+        Path temp = destination.resolveSibling(destination.getFileName() + ".tmp");
+        Map<String, BitmapItem> images = collectImages(presentation);
+        Map<String, String> entries = entryNames(images.keySet());
+        int stored = 0;
+        boolean moved = false;
+        try {
+            try (ZipOutputStream zip = new ZipOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp), BUFFER_SIZE))) {
+                zip.putNextEntry(new ZipEntry(BundlePresentationReader.DECK_ENTRY)); // deflated
+                new XMLPresentationWriter(name -> entries.getOrDefault(name, name)).write(presentation, zip);
+                zip.closeEntry();
+                for (Map.Entry<String, BitmapItem> image : images.entrySet()) {
+                    Path source = image.getValue().getSource();
+                    if (source == null) {
+                        System.err.println("Not bundling missing image " + image.getKey());
+                        continue;
+                    }
+                    storeEntry(zip, entries.get(image.getKey()), source);
+                    stored++;
+                }
+            }
+            XMLPresentationWriter.replace(temp, destination);
+            moved = true;
+        } finally {
+            if (!moved) {
+                Files.deleteIfExists(temp);
+            }
+        }
+        System.out.println("Bundled " + presentation.getSize() + " slides and " + stored + " images into "
+                + destination);
+    }
+
+    // the first item of each image name, in deck order
+    private static Map<String, BitmapItem> collectImages(Presentation presentation) {
+        Map<String, BitmapItem> images = new LinkedHashMap<>();
+        for (int number = 0; number < presentation.getSize(); number++) {
+            Slide slide = presentation.getSlide(number);
+            for (int item = 0; item < slide.getSize(); item++) {
+                SlideItem slideItem = slide.getSlideItem(item);
+                while (slideItem instanceof SlideItemDecorator) {
+                    slideItem = ((SlideItemDecorator) slideItem).decoratedItem;
+                }
+                if (slideItem instanceof BitmapItem) {
+                    images.putIfAbsent(((BitmapItem) slideItem).getName(), (BitmapItem) slideItem);
+                }
+            }
+        }
+        return images;
+    }
+
+    /**
+     * Gives the entry of each image name: the name itself when it is a plain
+     * relative path, otherwise a unique name under IMAGES.
+     */
+    static Map<String, String> entryNames(Set<String> names) {
+        Map<String, String> entries = new LinkedHashMap<>();
+        Set<String> taken = new HashSet<>();
+        taken.add(BundlePresentationReader.DECK_ENTRY);
+        for (String name : names) {
+            String entry = name.replace('\\', '/');
+            if (!isPlainRelative(entry) || !taken.add(entry)) {
+                String fileName = entry.substring(entry.lastIndexOf('/') + 1);
+                entry = IMAGES + fileName;
+                for (int copy = 2; !taken.add(entry); copy++) {
+                    entry = IMAGES + copy + "-" + fileName;
+                }
+            }
+            entries.put(name, entry);
+        }
+        return entries;
+    }
+
+    private static boolean isPlainRelative(String name) {
+        if (name.isEmpty() || name.startsWith("/") || name.contains(":")) {
+            return false;
+        }
+        for (String part : name.split("/")) {
+            if (part.isEmpty() || part.equals(".") || part.equals("..")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // A stored entry needs its size and CRC up front: one pass to compute them, one to copy
+    private static void storeEntry(ZipOutputStream zip, String name, Path source) throws IOException {
+        if (!source.getFileSystem().isOpen()) { // read from a bundle that was loaded and closed
+            String uri = source.toUri().toString();
+            Path bundle = Paths.get(URI.create(uri.substring("jar:".length(), uri.lastIndexOf("!/"))));
+            try (FileSystem reopened = FileSystems.newFileSystem(bundle, (ClassLoader) null)) {
+                storeEntry(zip, name, reopened.getPath(source.toString()));
+            }
+            return;
+        }
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long size = 0;
+        try (InputStream in = Files.newInputStream(source)) {
+            for (int read; (read = in.read(buffer)) >= 0; ) {
+                crc.update(buffer, 0, read);
+                size += read;
+            }
+        }
+        ZipEntry entry = new ZipEntry(name);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(size);
+        entry.setCompressedSize(size);
+        entry.setCrc(crc.getValue());
+        zip.putNextEntry(entry);
+        try (InputStream in = Files.newInputStream(source)) {
+            in.transferTo(zip);
+        }
+        zip.closeEntry();
+    }
+}
@@ -0,0 +1,72 @@
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import javax.swing.Timer;
+
+/**
+ * Overlay that shows the time elapsed since it was added (or reset), in the
+ * top right corner of the view. It repaints only its own area once a second.
+ */
+public class ClockOverlay implements Overlay {
+    private static final int MARGIN = 10;
+
+    private final Font font = new Font("Dialog", Font.BOLD, 14);
+    private final Color color = Color.DARK_GRAY;
+    private Timer timer;
+    private long startMillis = System.currentTimeMillis();
+
+    @Override
+    public void paint(Graphics2D g2d, SlideViewerComponent view) {
+        Rectangle bounds = getBounds(view);
+        g2d.setFont(font);
+        g2d.setColor(color);
+        g2d.drawString(getElapsedText(), bounds.x, bounds.y + view.getFontMetrics(font).getAscent());
+    }
+
+    @Override
+    public Rectangle getBounds(SlideViewerComponent view) {
+        FontMetrics metrics = view.getFontMetrics(font);
+        int width = metrics.stringWidth("00:00:00");
+        return new Rectangle(view.getWidth() - width - MARGIN, MARGIN, width,
+                metrics.getAscent() + metrics.getDescent());
+    }
+
+    @Override
+    public void attach(SlideViewerComponent view) {
+        reset();
+        timer = new Timer(1000, e -> view.repaintOverlay(this));
+        timer.start();
+    }
+
+    @Override
+    public void detach(SlideViewerComponent view) {
+        if (timer != null) {
+            timer.stop();
+            timer = null;
+        }
+    }
+
+    /**
+     * Restarts the elapsed time at zero.
+     */
+    public void reset() {
+        startMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Gives the elapsed time as h:mm:ss.
+     */
+    public String getElapsedText() {
+        return formatElapsed(System.currentTimeMillis() - startMillis);
+    }
+
+    /**
+     * Formats a duration as h:mm:ss.
+     */
+    public static String formatElapsed(long millis) {
+        long seconds = millis / 1000;
+        return String.format("%d:%02d:%02d", seconds / 3600, (seconds / 60) % 60, seconds % 60);
+    }
+}
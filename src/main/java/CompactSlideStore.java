@@ -0,0 +1,242 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+
+/**
+ * Compact storage for the content of large decks.
+ * Every distinct string (titles, item texts) is kept once in a pool, and
+ * the items of all slides are packed into three primitive arrays: the pool
+ * index of the text, the level and the style flags. The slides of the store
+ * hold no SlideItem objects; getSlideItem builds a TextItem view when the
+ * item is drawn, searched or saved.
+ * Items that cannot be packed (images, inline style runs, custom items)
+ * are kept as they are, and items appended later are kept in the slide.
+ * A slide whose packed items are replaced, e.g. by Slide.addStyle, keeps
+ * all its items itself from then on.
+ */
+public class CompactSlideStore {
+
+    // Decks with at least this many items are compacted when they are loaded
+    public static final int THRESHOLD = 5_000;
+
+    // Item flags, BOLD and UNDERLINE match the whole-item styling of StyledTextItem
+    private static final byte BOLD = 1;
+    private static final byte UNDERLINE = 2;
+    private static final byte OBJECT = 4; // texts[i] indexes objects instead of the pool
+
+    private final List<String> pool = new ArrayList<>();
+    private Map<String, Integer> poolIndex = new HashMap<>(); // null after trim, rebuilt on demand
+    private final List<SlideItem> objects = new ArrayList<>();
+    private int[] texts = new int[64];
+    private byte[] levels = new byte[64];
+    private byte[] flags = new byte[64];
+    private int itemCount;
+
+    /**
+     * Replaces every slide of the presentation by a compact copy in a new
+     * store, when the deck has at least THRESHOLD items.
+     *
+     * @return The store, or null if the deck is too small to be worth it.
+     */
+    public static CompactSlideStore compactIfLarge(Presentation presentation) {
+        int items = 0;
+        for (int number = 0; number < presentation.getSize(); number++) {
+            items += presentation.getSlide(number).getSize();
+        }
+        if (items < THRESHOLD) {
+            return null;
+        }
+        boolean modified = presentation.isModified();
+        SaveIndex saveIndex = presentation.getSaveIndex();
+        CompactSlideStore store = new CompactSlideStore();
+        for (int number = 0; number < presentation.getSize(); number++) {
+            Slide slide = presentation.getSlide(number);
+            Slide compact = store.add(slide);
+            presentation.replaceSlide(number, compact);
+            if (saveIndex != null) {
+                saveIndex.rename(slide, compact); // same content, same place in the file
+            }
+        }
+        store.trim();
+        if (!modified) {
+            presentation.markSaved(); // a compact copy is not a change
+        }
+        return store;
+    }
+
+    /**
+     * Packs the title and items of the slide into the store.
+     *
+     * @return A slide with the same content that keeps it in this store.
+     */
+    public Slide add(Slide slide) {
+        int first = itemCount;
+        for (int number = 0; number < slide.getSize(); number++) {
+            pack(slide.getSlideItem(number));
+        }
+        Slide compact = new CompactSlide(this, intern(slide.getTitle()), first, itemCount - first);
+        if (!slide.isModified()) {
+            compact.markSaved();
+        }
+        return compact;
+    }
+
+    /**
+     * Shrinks the arrays to their content and drops the lookup table of the
+     * string pool. Call when the deck is complete; a later add still works.
+     */
+    public void trim() {
+        texts = Arrays.copyOf(texts, itemCount);
+        levels = Arrays.copyOf(levels, itemCount);
+        flags = Arrays.copyOf(flags, itemCount);
+        poolIndex = null;
+    }
+
+    // give the number of packed items
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    // give the number of distinct strings in the pool
+    public int getPoolSize() {
+        return pool.size();
+    }
+
+    // give the number of items that are kept as objects
+    public int getObjectCount() {
+        return objects.size();
+    }
+
+    private void pack(SlideItem item) {
+        if (itemCount == texts.length) {
+            int capacity = Math.max(64, itemCount * 2);
+            texts = Arrays.copyOf(texts, capacity);
+            levels = Arrays.copyOf(levels, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+        }
+        int level = item.getLevel();
+        if (isPackable(item) && level >= Byte.MIN_VALUE && level <= Byte.MAX_VALUE) {
+            TextItem text = (TextItem) item;
+            byte itemFlags = 0;
+            if (item instanceof StyledTextItem) {
+                StyledTextItem styled = (StyledTextItem) item;
+                itemFlags = (byte) ((styled.isBold() ? BOLD : 0) | (styled.isUnderlined() ? UNDERLINE : 0));
+            }
+            texts[itemCount] = intern(text.getText());
+            levels[itemCount] = (byte) level;
+            flags[itemCount] = itemFlags;
+        } else {
+            texts[itemCount] = objects.size();
+            flags[itemCount] = OBJECT;
+            objects.add(item);
+        }
+        itemCount++;
+    }
+
+    // only the exact text classes can be rebuilt from text, level and flags
+    private static boolean isPackable(SlideItem item) {
+        return (item.getClass() == TextItem.class || item.getClass() == StyledTextItem.class)
+                && !((TextItem) item).hasInlineStyles();
+    }
+
+    private int intern(String text) {
+        if (text == null) {
+            return -1;
+        }
+        if (poolIndex == null) {
+            poolIndex = new HashMap<>();
+            for (int index = 0; index < pool.size(); index++) {
+                poolIndex.put(pool.get(index), index);
+            }
+        }
+        Integer index = poolIndex.get(text);
+        if (index == null) {
+            index = pool.size();
+            pool.add(text);
+            poolIndex.put(text, index);
+        }
+        return index;
+    }
+
+    private String getString(int index) {
+        return index < 0 ? null : pool.get(index);
+    }
+
+    // build the item view for a packed item
+    SlideItem getItem(int index) {
+        byte itemFlags = flags[index];
+        if ((itemFlags & OBJECT) != 0) {
+            return objects.get(texts[index]);
+        }
+        String text = pool.get(texts[index]);
+        if (itemFlags == 0) {
+            return new TextItem(levels[index], text);
+        }
+        return new StyledTextItem(levels[index], text, (itemFlags & BOLD) != 0, (itemFlags & UNDERLINE) != 0);
+    }
+
+    /**
+     * A slide whose first items live in a CompactSlideStore. Items appended
+     * afterwards are kept in the Vector of the slide, as usual.
+     */
+    static final class CompactSlide extends Slide {
+        private final CompactSlideStore store;
+        private final int first;
+        private int count; // 0 once the packed items were moved into the slide
+
+        CompactSlide(CompactSlideStore store, int title, int first, int count) {
+            super(new Vector<SlideItem>(0));
+            this.store = store;
+            this.first = first;
+            this.count = count;
+            this.title = store.getString(title);
+        }
+
+        // shares the packed items, copies the appended ones
+        @Override
+        protected Slide createSnapshot() {
+            CompactSlide copy = new CompactSlide(store, -1, first, count);
+            copy.items.addAll(items);
+            return copy;
+        }
+
+        @Override
+        public SlideItem getSlideItem(int number) {
+            if (number < 0 || number >= getSize()) {
+                throw new ArrayIndexOutOfBoundsException(number + " >= " + getSize());
+            }
+            return number < count ? store.getItem(first + number) : items.elementAt(number - count);
+        }
+
+        // moves the packed items into the slide before one of them is replaced
+        @Override
+        protected void setSlideItem(int number, SlideItem anItem) {
+            if (number < count) {
+                Vector<SlideItem> packed = new Vector<SlideItem>(count);
+                for (int index = 0; index < count; index++) {
+                    packed.addElement(store.getItem(first + index));
+                }
+                items.addAll(0, packed);
+                count = 0;
+            }
+            super.setSlideItem(number, anItem);
+        }
+
+        @Override
+        public Vector<SlideItem> getSlideItems() {
+            Vector<SlideItem> all = new Vector<SlideItem>(getSize());
+            for (int number = 0; number < getSize(); number++) {
+                all.addElement(getSlideItem(number));
+            }
+            return all;
+        }
+
+        @Override
+        public int getSize() {
+            return count + items.size();
+        }
+    }
+}
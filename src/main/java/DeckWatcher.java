@@ -0,0 +1,325 @@
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.swing.SwingUtilities;
+
+/**
+ * Reloads the presentation when its XML file changes, e.g. while it is
+ * being edited in a text editor.
+ * A background thread waits for changes with a WatchService, re-parses the
+ * file once the editor has stopped writing, and compares the result with
+ * the presentation slide by slide. Slides with the same content keep their
+ * Slide objects, so their layouts, display lists and thumbnails stay cached;
+ * in changed slides, items that did not change (e.g. images) are kept too.
+ * The current slide stays on screen, also when slides were added before it.
+ * Images that were already in the deck are not resolved or read again.
+ */
+public class DeckWatcher {
+
+    // Editors write in several steps; reload when the file has been quiet this long
+    static final long QUIET_MILLIS = 200;
+
+    private final Presentation presentation;
+    private final Path file;
+    private WatchService watchService;
+    private Thread thread;
+
+    public DeckWatcher(Presentation presentation, Path file) {
+        this.presentation = presentation;
+        this.file = file.toAbsolutePath();
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Starts watching the directory of the file.
+     */
+    public void start() throws IOException {
+        watchService = FileSystems.getDefault().newWatchService();
+        // Editors that save through a temporary file and a rename create the file anew
+        file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_CREATE);
+        thread = BackgroundTasks.daemonThreadFactory("jabberpoint-watch").newThread(this::watch);
+        thread.start();
+        System.out.println("Watching " + file + " for changes");
+    }
+
+    public void stop() {
+        if (watchService != null) {
+            try {
+                watchService.close(); // ends the watch thread
+            } catch (IOException ex) {
+                System.err.println("Could not stop watching " + file + ": " + ex.getMessage());
+            }
+            watchService = null;
+        }
+    }
+
+    private void watch() {
+        WatchService service = watchService;
+        try {
+            while (true) {
+                if (!isForFile(service.take())) {
+                    continue;
+                }
+                WatchKey more; // wait until the editor is done
+                while ((more = service.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    isForFile(more);
+                }
+                reload();
+            }
+        } catch (ClosedWatchServiceException | InterruptedException ex) {
+            // stopped
+        }
+    }
+
+    // tell if the events of the key are about our file, and reset the key
+    private boolean isForFile(WatchKey key) {
+        boolean forFile = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            forFile |= event.context() instanceof Path && file.getFileName().equals(event.context());
+        }
+        key.reset();
+        return forFile;
+    }
+
+    /**
+     * Re-parses the file and hands the result to the EDT. Runs on the watch
+     * thread; a file that cannot be parsed (e.g. half written) is skipped.
+     */
+    void reload() throws InterruptedException {
+        long start = System.nanoTime();
+        Presentation[] before = new Presentation[1];
+        try {
+            SwingUtilities.invokeAndWait(() -> before[0] = presentation.snapshot());
+        } catch (InvocationTargetException ex) {
+            System.err.println("Could not reload " + file + ": " + ex.getCause());
+            return;
+        }
+        Presentation parsed = new Presentation(presentation.getTitle());
+        try {
+            new XMLPresentationReader(new ReusingBitmapItemFactory(before[0], file)).load(parsed, file.toString());
+        } catch (IOException ex) {
+            System.err.println("Not reloading " + file + ": " + ex.getMessage());
+            return;
+        }
+        int[] reuse = diff(before[0], parsed);
+        SwingUtilities.invokeLater(() -> apply(before[0], parsed, reuse, start));
+    }
+
+    /**
+     * Matches the parsed slides with the slides of the snapshot by content.
+     * Changed slides take over unchanged items of the old deck.
+     *
+     * @return Per parsed slide the number of the old slide with the same
+     *         content, or -1 for a new or changed slide.
+     */
+    static int[] diff(Presentation before, Presentation parsed) {
+        Map<String, List<Integer>> oldSlides = new HashMap<>();
+        Map<String, SlideItem> oldItems = new HashMap<>();
+        for (int number = 0; number < before.getSize(); number++) {
+            Slide slide = before.getSlide(number);
+            String key = slideKey(slide);
+            if (key != null) {
+                oldSlides.computeIfAbsent(key, k -> new ArrayList<>()).add(number);
+            }
+            for (int item = 0; item < slide.getSize(); item++) {
+                SlideItem slideItem = slide.getSlideItem(item);
+                String itemKey = itemKey(slideItem);
+                if (itemKey != null) {
+                    oldItems.putIfAbsent(itemKey, slideItem);
+                }
+            }
+        }
+        int[] reuse = new int[parsed.getSize()];
+        for (int number = 0; number < parsed.getSize(); number++) {
+            Slide slide = parsed.getSlide(number);
+            String key = slideKey(slide);
+            List<Integer> candidates = (key == null) ? null : oldSlides.get(key);
+            if (candidates != null && !candidates.isEmpty()) {
+                reuse[number] = nearest(candidates, number);
+            } else {
+                reuse[number] = -1;
+                Slide previous = (number < before.getSize()) ? before.getSlide(number) : null;
+                parsed.replaceSlide(number, reuseItems(slide, previous, oldItems, parsed.getSaveIndex()));
+            }
+        }
+        return reuse;
+    }
+
+    // take the old slide closest to the new position, so duplicates keep their order
+    private static int nearest(List<Integer> candidates, int number) {
+        int best = 0;
+        for (int i = 1; i < candidates.size(); i++) {
+            if (Math.abs(candidates.get(i) - number) < Math.abs(candidates.get(best) - number)) {
+                best = i;
+            }
+        }
+        return candidates.remove(best);
+    }
+
+    // a copy of the slide that uses the old items with the same content,
+    // preferably those of the old slide at the same position
+    private static Slide reuseItems(Slide slide, Slide previous, Map<String, SlideItem> oldItems, SaveIndex index) {
+        Map<String, SlideItem> previousItems = new HashMap<>();
+        for (int number = 0; previous != null && number < previous.getSize(); number++) {
+            SlideItem item = previous.getSlideItem(number);
+            String key = itemKey(item);
+            if (key != null) {
+                previousItems.putIfAbsent(key, item);
+            }
+        }
+        Slide copy = new Slide();
+        copy.setTitle(slide.getTitle());
+        boolean reused = false;
+        for (int number = 0; number < slide.getSize(); number++) {
+            SlideItem item = slide.getSlideItem(number);
+            String key = itemKey(item);
+            SlideItem old = (key == null) ? null : previousItems.getOrDefault(key, oldItems.get(key));
+            reused |= (old != null);
+            copy.append(old != null ? old : item);
+        }
+        if (!reused) {
+            return slide;
+        }
+        if (index != null) {
+            index.rename(slide, copy);
+        }
+        copy.markSaved();
+        return copy;
+    }
+
+    // Applies the new slides on the EDT, keeping old slides that were not changed meanwhile
+    private void apply(Presentation before, Presentation parsed, int[] reuse, long start) {
+        SaveIndex index = parsed.getSaveIndex();
+        int current = presentation.getSlideNumber();
+        int newCurrent = current;
+        int kept = 0;
+        List<Slide> slides = new ArrayList<>(parsed.getSize());
+        for (int number = 0; number < parsed.getSize(); number++) {
+            Slide slide = parsed.getSlide(number);
+            int old = reuse[number];
+            if (old >= 0 && old < presentation.getSize()
+                    && presentation.getSlide(old).snapshot() == before.getSlide(old)) { // unchanged since
+                Slide oldSlide = presentation.getSlide(old);
+                if (index != null) {
+                    index.rename(slide, oldSlide);
+                }
+                slide = oldSlide;
+                kept++;
+                if (old == current) {
+                    newCurrent = number;
+                }
+            }
+            slides.add(slide);
+        }
+        presentation.setTitle(parsed.getTitle());
+        presentation.setSlides(slides, newCurrent);
+        presentation.setSaveIndex(index);
+        presentation.setFileName(parsed.getFileName());
+        presentation.markSaved(); // the same as the file now
+        System.out.printf("Reloaded %s: %d of %d slides unchanged, %d ms%n", file.getFileName(), kept,
+                slides.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Creates the image items of a re-parsed deck. An image with a name and
+     * level that the deck already has gets the existing BitmapItem; only new
+     * names are resolved and decoded.
+     */
+    static final class ReusingBitmapItemFactory extends BitmapItemFactory {
+        private final Map<String, BitmapItem> existing = new HashMap<>();
+        private final Set<String> existingNames = new HashSet<>();
+
+        ReusingBitmapItemFactory(Presentation before, Path file) {
+            super(SearchPathAssetResolver.forDeck(file), ImagePreloader.shared());
+            for (int number = 0; number < before.getSize(); number++) {
+                Slide slide = before.getSlide(number);
+                for (int item = 0; item < slide.getSize(); item++) {
+                    SlideItem slideItem = slide.getSlideItem(item);
+                    if (slideItem instanceof BitmapItem) {
+                        BitmapItem bitmap = (BitmapItem) slideItem;
+                        existing.putIfAbsent(bitmap.getLevel() + "|" + bitmap.getName(), bitmap);
+                        existingNames.add(bitmap.getName());
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void resolveAll(Collection<String> imageNames) {
+            List<String> newNames = new ArrayList<>();
+            for (String name : imageNames) {
+                if (!existingNames.contains(name)) {
+                    newNames.add(name);
+                }
+            }
+            super.resolveAll(newNames);
+        }
+
+        @Override
+        public SlideItem createSlideItem(int level, String imageNameData) {
+            BitmapItem item = existing.get(level + "|" + imageNameData);
+            return (item != null) ? item : super.createSlideItem(level, imageNameData);
+        }
+    }
+
+    // the content of a slide as a string, or null if it has items that cannot be compared
+    static String slideKey(Slide slide) {
+        StringBuilder key = new StringBuilder();
+        key.append(slide.getTitle());
+        for (int number = 0; number < slide.getSize(); number++) {
+            String itemKey = itemKey(slide.getSlideItem(number));
+            if (itemKey == null) {
+                return null;
+            }
+            key.append('\u0000').append(itemKey);
+        }
+        return key.toString();
+    }
+
+    // the content of an item as saved in XML, or null for unknown items
+    static String itemKey(SlideItem item) {
+        int level = item.getLevel();
+        boolean bold = false;
+        boolean underlined = false;
+        while (item instanceof SlideItemDecorator) {
+            bold |= item instanceof BoldTextDecorator;
+            underlined |= item instanceof UnderlineTextDecorator;
+            item = ((SlideItemDecorator) item).decoratedItem;
+        }
+        if (item instanceof StyledTextItem) {
+            bold |= ((StyledTextItem) item).isBold();
+            underlined |= ((StyledTextItem) item).isUnderlined();
+        }
+        if (item instanceof TextItem) {
+            TextItem text = (TextItem) item;
+            StringBuilder key = new StringBuilder("T").append(level)
+                    .append(bold ? 'b' : '-').append(underlined ? 'u' : '-');
+            for (int run = 0; text.hasInlineStyles() && run < text.getRunCount(); run++) {
+                key.append(text.getRunStart(run)).append(':').append(text.getRunFlags(run)).append(',');
+            }
+            return key.append('|').append(text.getText()).toString();
+        }
+        if (item instanceof BitmapItem) {
+            return "I" + level + "|" + ((BitmapItem) item).getName();
+        }
+        return null;
+    }
+}
@@ -46,14 +46,14 @@ public class DemoPresentationReader implements PresentationReader {
         slide.append(1, "This is standard level 1 text.");
         TextItem boldItem = new TextItem(2, "This level 2 text is BOLD.");
         SlideItem decoratedBold = new BoldTextDecorator(boldItem);
-        slide.append(decoratedBold);
+        slide.append(SlideItemCompiler.compile(decoratedBold));
         TextItem underlineItem = new TextItem(2, "This level 2 text is UNDERLINED.");
         SlideItem decoratedUnderline = new UnderlineTextDecorator(underlineItem);
-        slide.append(decoratedUnderline);
+        slide.append(SlideItemCompiler.compile(decoratedUnderline));
         TextItem boldAndUnderlineItem = new TextItem(3, "This level 3 text is BOLD and UNDERLINED.");
         SlideItem decoratedWithBold = new BoldTextDecorator(boldAndUnderlineItem);
         SlideItem decoratedWithBoth = new UnderlineTextDecorator(decoratedWithBold);
-        slide.append(decoratedWithBoth);
+        slide.append(SlideItemCompiler.compile(decoratedWithBoth));
         presentation.addSlide(slide);
 
         // Slide 4: Original End Slide
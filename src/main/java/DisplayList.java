@@ -0,0 +1,121 @@
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.font.TextLayout;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A recorded, resolution independent drawing of a slide.
+ * The slide is laid out once at scale 1 (line breaking, font derivation)
+ * and its drawing operations are kept as positioned text lines, images
+ * and, for unknown items, replayable draw calls. Replaying at any size is
+ * then a single scale transform, which makes it suitable for thumbnails
+ * and for views whose size changes all the time.
+ * Use Slide.getDisplayList() to get the (cached) list of a slide.
+ */
+public class DisplayList {
+
+    /**
+     * One recorded drawing operation, in slide coordinates (scale 1).
+     */
+    interface Operation {
+        void replay(Graphics2D g2d);
+    }
+
+    private final List<Operation> operations = new ArrayList<>();
+    private final Graphics2D measureGraphics; // only used while recording
+
+    private DisplayList() {
+        BufferedImage scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        measureGraphics = scratch.createGraphics();
+        // Fractional metrics keep line breaks and advances independent of the replay scale
+        measureGraphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        measureGraphics.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+    }
+
+    /**
+     * Records the slide, laid out like Slide.draw does at scale 1.
+     */
+    static DisplayList record(Slide slide) {
+        DisplayList list = new DisplayList();
+        try {
+            int y = 0;
+            SlideItem title = slide.getTitleItem();
+            y += title.record(list, 0, y, Style.getStyle(title.getLevel()));
+            for (int number = 0; number < slide.getSize(); number++) {
+                SlideItem slideItem = slide.getSlideItem(number);
+                y += slideItem.record(list, 0, y, Style.getStyle(slideItem.getLevel()));
+            }
+        } finally {
+            list.measureGraphics.dispose();
+        }
+        return list;
+    }
+
+    /**
+     * Replays the recorded operations scaled to fit the area, the same way
+     * Slide.draw would fit the slide.
+     */
+    public void replay(Graphics g, Rectangle area) {
+        float scale = Slide.getScale(area);
+        Graphics2D g2d = (Graphics2D) g.create();
+        try {
+            g2d.translate(area.x, area.y);
+            g2d.scale(scale, scale);
+            for (Operation operation : operations) {
+                operation.replay(g2d);
+            }
+        } finally {
+            g2d.dispose();
+        }
+    }
+
+    /**
+     * Renders the slide into a new image of the given size, e.g. for a thumbnail.
+     */
+    public BufferedImage toImage(int width, int height, Color background) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        try {
+            g2d.setColor(background);
+            g2d.fillRect(0, 0, width, height);
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            replay(g2d, new Rectangle(0, 0, width, height));
+        } finally {
+            g2d.dispose();
+        }
+        return image;
+    }
+
+    public int getOperationCount() {
+        return operations.size();
+    }
+
+    // --- Used by SlideItem.record ---
+
+    void add(Operation operation) {
+        operations.add(operation);
+    }
+
+    void addText(TextLayout layout, float x, float y, Color color) {
+        operations.add(g2d -> {
+            g2d.setColor(color);
+            layout.draw(g2d, x, y);
+        });
+    }
+
+    void addImage(BufferedImage image, int x, int y, int width, int height) {
+        operations.add(g2d -> g2d.drawImage(image, x, y, width, height, null));
+    }
+
+    // A Graphics2D with the reference render context, for measuring items
+    Graphics2D getMeasureGraphics() {
+        return measureGraphics;
+    }
+}
@@ -0,0 +1,99 @@
+import java.util.Arrays;
+
+/**
+ * Collects frame times of a render loop, for tuning and for reporting
+ * frame pacing. Keeps the most recent frames in a ring buffer, so it can
+ * stay enabled during a whole presentation. Safe to use from several threads.
+ */
+public class FrameStats {
+
+    private static final int DEFAULT_CAPACITY = 600; // 10 seconds at 60 fps
+
+    private final String name;
+    private final long[] frameNanos;
+    private int next;      // index of the slot for the next frame
+    private int stored;    // number of valid slots
+    private long frames;   // all frames since the last reset
+    private long dropped;  // frames skipped because the loop was behind
+
+    public FrameStats(String name) {
+        this(name, DEFAULT_CAPACITY);
+    }
+
+    public FrameStats(String name, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.name = name;
+        this.frameNanos = new long[capacity];
+    }
+
+    /**
+     * Records the time one frame took, in nanoseconds.
+     */
+    public synchronized void recordFrame(long nanos) {
+        frameNanos[next] = nanos;
+        next = (next + 1) % frameNanos.length;
+        stored = Math.min(stored + 1, frameNanos.length);
+        frames++;
+    }
+
+    /**
+     * Records that a frame was skipped to catch up with the schedule.
+     */
+    public synchronized void recordDroppedFrame() {
+        dropped++;
+    }
+
+    public synchronized long getFrameCount() {
+        return frames;
+    }
+
+    public synchronized long getDroppedFrameCount() {
+        return dropped;
+    }
+
+    /**
+     * Gives the average frame time of the recent frames in milliseconds, 0 without frames.
+     */
+    public synchronized double getAverageMillis() {
+        if (stored == 0) {
+            return 0;
+        }
+        long total = 0;
+        for (int i = 0; i < stored; i++) {
+            total += frameNanos[i];
+        }
+        return total / (stored * 1_000_000.0);
+    }
+
+    /**
+     * Gives a percentile (0-100) of the recent frame times in milliseconds, 0 without frames.
+     */
+    public synchronized double getPercentileMillis(double percentile) {
+        if (stored == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(frameNanos, stored);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * stored) - 1;
+        return sorted[Math.max(0, Math.min(stored - 1, index))] / 1_000_000.0;
+    }
+
+    public synchronized double getMaxMillis() {
+        return getPercentileMillis(100);
+    }
+
+    public synchronized void reset() {
+        next = 0;
+        stored = 0;
+        frames = 0;
+        dropped = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s: %d frames, %d dropped, avg %.2f ms, p95 %.2f ms, max %.2f ms",
+                name, frames, dropped, getAverageMillis(), getPercentileMillis(95), getMaxMillis());
+    }
+}
@@ -0,0 +1,229 @@
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Frame;
+import java.awt.Graphics2D;
+import java.awt.GraphicsDevice;
+import java.awt.GraphicsEnvironment;
+import java.awt.Rectangle;
+import java.awt.Toolkit;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.awt.image.BufferStrategy;
+
+/**
+ * Shows the presentation in full-screen exclusive mode with active rendering.
+ * Instead of Swing's repaint manager, a render thread draws each frame into
+ * a BufferStrategy, which flips pages when the hardware supports it, so
+ * slides change without tearing. The loop only renders when the
+ * Presentation notifies a change, the window is activated again, or the
+ * buffer contents were lost.
+ * The loop never reads the Presentation: on the EDT, update() takes a
+ * snapshot of the current slide with its number and the slide count, and
+ * hands that to the loop.
+ * Escape (or F5 again) leaves full-screen mode; the navigation keys work as
+ * in the window. The keys of the window's overlays (laser pointer, clock,
+ * transitions) are not available in full screen.
+ * Frame times are collected in getFrameStats() and printed when it stops.
+ */
+public class FullScreenPresenter implements Observer {
+
+    private static final int BUFFERS = 2;
+    private static final int LABEL_X = 50;
+    private static final int LABEL_Y = 50;
+    private static final long LOST_CHECK_MILLIS = 250; // how often an idle loop checks for a lost buffer
+
+    private final Presentation presentation;
+    private final GraphicsDevice device;
+    private final FrameStats frameStats = new FrameStats("Full screen");
+    private final Font labelFont = new Font("Dialog", Font.BOLD, 10);
+    private Frame window;
+    private Thread renderThread;
+    private volatile boolean running;
+    private boolean renderRequested; // guarded by this
+    private volatile FrameContent content; // what the next frame shows, set on the EDT
+
+    public FullScreenPresenter(Presentation presentation) {
+        this(presentation, GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice());
+    }
+
+    public FullScreenPresenter(Presentation presentation, GraphicsDevice device) {
+        this.presentation = presentation;
+        this.device = device;
+    }
+
+    /**
+     * Switches the screen to full-screen mode and starts the render loop. Call on the EDT.
+     */
+    public void start() {
+        if (running) {
+            return;
+        }
+        window = new Frame(device.getDefaultConfiguration());
+        window.setUndecorated(true);
+        window.setIgnoreRepaint(true); // all drawing is done by the render loop
+        window.setBackground(Color.WHITE);
+        KeyController keys = new KeyController(presentation);
+        window.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                int code = e.getKeyCode();
+                if (code == KeyEvent.VK_ESCAPE || code == KeyEvent.VK_F5) {
+                    stop();
+                } else if (code != KeyEvent.VK_L && code != KeyEvent.VK_T && code != KeyEvent.VK_X) {
+                    keys.keyPressed(e); // the overlay keys would only change the hidden window
+                }
+            }
+        });
+        window.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                requestRender();
+            }
+        });
+        window.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowActivated(WindowEvent e) { // back from another window, which may have covered it
+                requestRender();
+            }
+        });
+        window.addWindowFocusListener(new WindowAdapter() {
+            @Override
+            public void windowGainedFocus(WindowEvent e) {
+                requestRender();
+            }
+        });
+        if (device.isFullScreenSupported()) {
+            device.setFullScreenWindow(window);
+        } else { // Simulated: a maximized undecorated window
+            System.err.println("Full-screen exclusive mode not supported, using a maximized window");
+            window.setBounds(device.getDefaultConfiguration().getBounds());
+            window.setVisible(true);
+        }
+        window.createBufferStrategy(BUFFERS);
+        BufferStrategy strategy = window.getBufferStrategy();
+        System.out.println("Full screen: page flipping " +
+                (strategy.getCapabilities().isPageFlipping() ? "enabled" : "not available, using blits"));
+        window.requestFocus();
+
+        presentation.addObserver(this);
+        running = true;
+        update();
+        renderThread = new Thread(() -> renderLoop(strategy), "jabberpoint-fullscreen");
+        renderThread.setDaemon(true);
+        renderThread.start();
+    }
+
+    /**
+     * Stops the render loop and leaves full-screen mode. Call on the EDT.
+     */
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        presentation.removeObserver(this);
+        synchronized (this) {
+            notifyAll();
+        }
+        try {
+            renderThread.join(1000);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (device.getFullScreenWindow() == window) {
+            device.setFullScreenWindow(null);
+        }
+        window.dispose();
+        System.out.println(frameStats);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public FrameStats getFrameStats() {
+        return frameStats;
+    }
+
+    // Called by Presentation.notifyObservers(), on the EDT: hand the loop what it is to show
+    @Override
+    public void update() {
+        Slide slide = presentation.getCurrentSlide();
+        content = new FrameContent(slide == null ? null : slide.snapshot(), presentation.getSlideNumber(),
+                presentation.getSize());
+        requestRender();
+    }
+
+    private synchronized void requestRender() {
+        renderRequested = true;
+        notifyAll();
+    }
+
+    // Waits for a change, then renders a frame; also renders again when the buffer was lost
+    private void renderLoop(BufferStrategy strategy) {
+        while (running) {
+            synchronized (this) {
+                while (running && !renderRequested) {
+                    try {
+                        wait(LOST_CHECK_MILLIS);
+                    } catch (InterruptedException ex) {
+                        return;
+                    }
+                    renderRequested |= strategy.contentsLost(); // e.g. after a display mode change
+                }
+                renderRequested = false;
+            }
+            if (!running) {
+                return;
+            }
+            long start = System.nanoTime();
+            do {
+                do {
+                    Graphics2D g2d = (Graphics2D) strategy.getDrawGraphics();
+                    try {
+                        renderFrame(g2d, window.getWidth(), window.getHeight());
+                    } finally {
+                        g2d.dispose();
+                    }
+                } while (strategy.contentsRestored());
+                strategy.show();
+                Toolkit.getDefaultToolkit().sync();
+            } while (strategy.contentsLost());
+            frameStats.recordFrame(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Draws one complete frame: background, slide counter and the current slide.
+     */
+    void renderFrame(Graphics2D g2d, int width, int height) {
+        g2d.setColor(Color.WHITE);
+        g2d.fillRect(0, 0, width, height);
+        FrameContent frame = content;
+        if (frame == null || frame.slide == null) {
+            return;
+        }
+        RenderQuality.HIGH.apply(g2d); // the same text hints as the window, so the layout caches are shared
+        g2d.setFont(labelFont);
+        g2d.setColor(Color.BLACK);
+        g2d.drawString("Slide " + (1 + frame.number) + " of " + frame.count, LABEL_X, LABEL_Y);
+        frame.slide.draw(g2d, new Rectangle(0, LABEL_Y, width, height - LABEL_Y), null);
+    }
+
+    // The slide to show, an unchangeable snapshot, with its number and the slide count
+    private static final class FrameContent {
+        private final Slide slide;
+        private final int number;
+        private final int count;
+
+        FrameContent(Slide slide, int number, int count) {
+            this.slide = slide;
+            this.number = number;
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Pre-rasterizes the glyphs used by a presentation, so that the first
+ * time a slide is shown it renders as fast as the second time.
+ * Java2D loads font files and rasterizes glyphs lazily, per font, size
+ * and device transform. This class collects the characters of the deck per
+ * style level (plain and bold, as used by BoldTextDecorator and StyledTextItem)
+ * and draws them once into an off-screen image with the screen's default transform
+ * and the text hints of RenderQuality.
+ */
+public class GlyphWarmup {
+
+    // Characters that are drawn for every deck, e.g. by the "Slide x of y" label
+    private static final String ALWAYS = "0123456789 ";
+
+    private GlyphWarmup() {
+        // Utility class, no instances.
+    }
+
+    /**
+     * Collects the characters of the presentation on the calling thread and
+     * rasterizes them on the background pool. Call on the EDT right after load.
+     *
+     * @param presentation The loaded presentation.
+     * @param scale        The scale at which the slides will be drawn.
+     */
+    public static void warmUpAsync(Presentation presentation, float scale) {
+        Map<Integer, BitSet> characters = collectCharacters(presentation);
+        BackgroundTasks.execute(() -> {
+            long start = System.nanoTime();
+            int glyphs = warmUp(characters, scale);
+            System.out.printf("Glyph warm-up: %d glyphs in %d ms%n", glyphs,
+                    (System.nanoTime() - start) / 1_000_000);
+        });
+    }
+
+    /**
+     * Collects the characters used per style, keyed by styleKey(level, bold).
+     */
+    static Map<Integer, BitSet> collectCharacters(Presentation presentation) {
+        Map<Integer, BitSet> characters = new TreeMap<>();
+        for (int slideNumber = 0; slideNumber < presentation.getSize(); slideNumber++) {
+            Slide slide = presentation.getSlide(slideNumber);
+            String title = slide.getTitle();
+            if (title != null) {
+                addCharacters(characters, styleKey(0, false), title, 0, title.length());
+            }
+            for (int itemNumber = 0; itemNumber < slide.getSize(); itemNumber++) {
+                SlideItem item = slide.getSlideItem(itemNumber);
+                boolean bold = false;
+                while (item instanceof SlideItemDecorator) {
+                    bold |= item instanceof BoldTextDecorator;
+                    item = ((SlideItemDecorator) item).decoratedItem;
+                }
+                if (item instanceof StyledTextItem) {
+                    bold |= ((StyledTextItem) item).isBold();
+                }
+                if (item instanceof TextItem) {
+                    int level = Math.min(item.getLevel(), Style.getStyleCount() - 1);
+                    TextItem textItem = (TextItem) item;
+                    for (int run = 0; run < textItem.getRunCount(); run++) { // inline bold runs
+                        boolean runBold = bold || (textItem.getRunFlags(run) & TextItem.BOLD) != 0;
+                        addCharacters(characters, styleKey(level, runBold), textItem.getText(),
+                                textItem.getRunStart(run), textItem.getRunLimit(run));
+                    }
+                }
+            }
+        }
+        return characters;
+    }
+
+    /**
+     * Draws the collected characters once per style, which loads the fonts
+     * and fills the glyph caches. Safe to call off the EDT.
+     *
+     * @return The number of glyphs that were drawn.
+     */
+    static int warmUp(Map<Integer, BitSet> characters, float scale) {
+        BufferedImage target = createTarget();
+        Graphics2D g2d = target.createGraphics();
+        int glyphs = 0;
+        try {
+            g2d.setTransform(screenTransform());
+            RenderQuality.HIGH.apply(g2d); // the text hints the slides are drawn with
+            for (Map.Entry<Integer, BitSet> entry : characters.entrySet()) {
+                int level = entry.getKey() >> 1;
+                boolean bold = (entry.getKey() & 1) != 0;
+                Font font = Style.getStyle(level).getFont(scale);
+                if (bold) {
+                    font = font.deriveFont(font.getStyle() | Font.BOLD);
+                }
+                String text = toString(entry.getValue()) + ALWAYS;
+                g2d.setFont(font);
+                g2d.drawString(text, 0, font.getSize());
+                glyphs += text.length();
+            }
+        } finally {
+            g2d.dispose();
+        }
+        return glyphs;
+    }
+
+    static int styleKey(int level, boolean bold) {
+        return (level << 1) | (bold ? 1 : 0);
+    }
+
+    private static void addCharacters(Map<Integer, BitSet> characters, int key, String text, int start, int end) {
+        if (start >= end) {
+            return;
+        }
+        BitSet set = characters.computeIfAbsent(key, k -> new BitSet(128));
+        for (int i = start; i < end; i++) {
+            set.set(text.charAt(i));
+        }
+    }
+
+    private static String toString(BitSet set) {
+        StringBuilder builder = new StringBuilder(set.cardinality());
+        for (int c = set.nextSetBit(0); c >= 0; c = set.nextSetBit(c + 1)) {
+            builder.append((char) c);
+        }
+        return builder.toString();
+    }
+
+    // An image of the screen's pixel format, so the same glyph cache entries are used.
+    private static BufferedImage createTarget() {
+        if (!GraphicsEnvironment.isHeadless()) {
+            GraphicsConfiguration config = defaultConfiguration();
+            return config.createCompatibleImage(64, 64);
+        }
+        return new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
+    }
+
+    // The device transform of the screen, e.g. 2x on a HiDPI display.
+    private static AffineTransform screenTransform() {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new AffineTransform();
+        }
+        return defaultConfiguration().getDefaultTransform();
+    }
+
+    private static GraphicsConfiguration defaultConfiguration() {
+        return GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDefaultConfiguration();
+    }
+}
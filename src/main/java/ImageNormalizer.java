@@ -0,0 +1,74 @@
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/**
+ * Converts decoded images to a pixel format that Java2D can blit fast.
+ * ImageIO gives whatever raster the codec produces, e.g. TYPE_3BYTE_BGR for
+ * JPEG or custom types for indexed and grey images, and drawing those goes
+ * through slow general-purpose loops on every paint. After normalization an
+ * opaque image has the format of the screen (createCompatibleImage, or
+ * TYPE_INT_RGB when there is no screen) and an image with alpha is
+ * premultiplied ARGB. The images are marked for acceleration, so Java2D may
+ * keep a copy in video memory.
+ * Normalization happens once per decoded image, before it is shared (see
+ * ImageStore); it can be switched off with -Djabberpoint.normalizeImages=false.
+ */
+public final class ImageNormalizer {
+
+    public static final String ENABLED_PROPERTY = "jabberpoint.normalizeImages";
+
+    private ImageNormalizer() {
+        // Utility class, no instances.
+    }
+
+    public static boolean isEnabled() {
+        return !"false".equalsIgnoreCase(System.getProperty(ENABLED_PROPERTY));
+    }
+
+    /**
+     * Gives the image in the fast format, the image itself if it has that
+     * format already or normalization is switched off.
+     */
+    public static BufferedImage normalize(BufferedImage image) {
+        if (image == null || !isEnabled()) {
+            return image;
+        }
+        boolean opaque = image.getColorModel().getTransparency() == Transparency.OPAQUE;
+        GraphicsConfiguration screen = opaque ? getScreen() : null;
+        BufferedImage target;
+        if (screen != null) {
+            if (image.getColorModel().equals(screen.getColorModel(Transparency.OPAQUE))
+                    && image.getType() != BufferedImage.TYPE_CUSTOM) {
+                return image;
+            }
+            target = screen.createCompatibleImage(image.getWidth(), image.getHeight(), Transparency.OPAQUE);
+        } else {
+            int type = opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE;
+            if (image.getType() == type) {
+                return image;
+            }
+            target = new BufferedImage(image.getWidth(), image.getHeight(), type);
+        }
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.Src); // copy the pixels, alpha included
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        target.setAccelerationPriority(1.0f);
+        return target;
+    }
+
+    // the configuration of the default screen, null when headless
+    private static GraphicsConfiguration getScreen() {
+        if (GraphicsEnvironment.isHeadless()) {
+            return null;
+        }
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+    }
+}
@@ -0,0 +1,124 @@
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+
+/**
+ * Decodes images on a pool of worker threads while a deck is being parsed.
+ * The parser hands each image file to the preloader as soon as it meets the
+ * item (see BitmapItemFactory), the item gets its image when the decode
+ * finishes, and the reader waits for the remaining images at the end.
+ * A byte budget caps the memory of the images being decoded at the same
+ * time: a worker reads the size of its image from the header and waits
+ * until the decoded pixels fit in the budget. An image larger than the
+ * whole budget is decoded alone.
+ * Decoded images are normalized to a fast pixel format (see
+ * ImageNormalizer) by the worker too.
+ * Images go through the shared ImageStore, so content that is already
+ * decoded, under any name, is not decoded again.
+ * The pool is separate from BackgroundTasks, because the deck itself is
+ * loaded there and waits for the images.
+ */
+public class ImagePreloader {
+
+    public static final int DEFAULT_THREADS = Runtime.getRuntime().availableProcessors();
+    public static final long DEFAULT_BUDGET_BYTES = 256L << 20;
+
+    private static final int BYTES_PER_PERMIT = 1 << 10; // the budget is counted in KiB
+    private static final int BYTES_PER_PIXEL = 8; // the decoded and the normalized image
+
+    private static ImagePreloader shared;
+
+    private final ExecutorService workers;
+    private final Semaphore budget;
+    private final int budgetPermits;
+
+    public ImagePreloader(int threads, long budgetBytes) {
+        this.workers = Executors.newFixedThreadPool(Math.max(1, threads),
+                BackgroundTasks.daemonThreadFactory("jabberpoint-image"));
+        this.budgetPermits = (int) Math.min(Integer.MAX_VALUE, Math.max(1, budgetBytes / BYTES_PER_PERMIT));
+        this.budget = new Semaphore(budgetPermits, true); // first come, first served
+    }
+
+    /**
+     * Gives the preloader that all deck loads share, with DEFAULT_THREADS
+     * workers and a budget of DEFAULT_BUDGET_BYTES.
+     */
+    public static synchronized ImagePreloader shared() {
+        if (shared == null) {
+            shared = new ImagePreloader(DEFAULT_THREADS, DEFAULT_BUDGET_BYTES);
+        }
+        return shared;
+    }
+
+    /**
+     * Decodes the image in the background.
+     *
+     * @return The image, or an IOException if it cannot be read or decoded.
+     */
+    public CompletableFuture<BufferedImage> load(Path file) {
+        CompletableFuture<BufferedImage> image = new CompletableFuture<>();
+        workers.execute(() -> {
+            try {
+                image.complete(ImageStore.shared().load(file, this::decode)); // decodes new content only
+            } catch (IOException | RuntimeException ex) {
+                image.completeExceptionally(ex);
+            }
+        });
+        return image;
+    }
+
+    /**
+     * Stops the workers, e.g. of a preloader made for a test or benchmark.
+     */
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private BufferedImage decode(Path file) throws IOException {
+        // cache in memory, ImageIO would otherwise copy the stream to a temporary file
+        try (InputStream in = Files.newInputStream(file);
+             ImageInputStream stream = new MemoryCacheImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
+            if (!readers.hasNext()) {
+                throw new IOException("no reader for this image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(stream, true, true);
+                int permits = permitsFor((long) reader.getWidth(0) * reader.getHeight(0) * BYTES_PER_PIXEL);
+                budget.acquire(permits);
+                try {
+                    return ImageNormalizer.normalize(reader.read(0)); // before it is shared
+                } finally {
+                    budget.release(permits);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting to decode " + file);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private int permitsFor(long bytes) {
+        return (int) Math.min(budgetPermits, Math.max(1, bytes / BYTES_PER_PERMIT));
+    }
+
+    // give the part of the budget that is free now, for tests
+    long getAvailableBytes() {
+        return (long) budget.availablePermits() * BYTES_PER_PERMIT;
+    }
+}
@@ -0,0 +1,193 @@
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Content-addressed store of decoded images, shared by all decks in the JVM.
+ * An image file is identified by the SHA-256 hash of its bytes, which are
+ * streamed through the digest without being buffered as a whole. Each
+ * distinct hash is decoded once, and every BitmapItem with the same bytes,
+ * under whatever file name and in whatever deck, shares the decoded pixels.
+ * When several threads ask for the same new image at once, one decodes and
+ * the others wait for it.
+ * The store holds its images weakly: an image stays shared as long as an
+ * item uses it, and is collected with the last deck that does.
+ */
+public class ImageStore {
+
+    /**
+     * Decodes the image file, for a hash that is not in the store yet.
+     */
+    public interface Decoder {
+        BufferedImage decode(Path file) throws IOException;
+    }
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final ImageStore SHARED = new ImageStore();
+
+    private final Map<String, ImageReference> images = new HashMap<>();
+    private final Map<String, CompletableFuture<BufferedImage>> decoding = new HashMap<>();
+    private final ReferenceQueue<BufferedImage> collected = new ReferenceQueue<>();
+    private long requests;
+    private long decodes;
+    private long hits;
+    private long hashedBytes;
+    private long sharedBytes;
+
+    /**
+     * Gives the store that all decks share.
+     */
+    public static ImageStore shared() {
+        return SHARED;
+    }
+
+    /**
+     * Gives the decoded image with the content of the file: the shared one
+     * if the same bytes were decoded before, otherwise the decoder's.
+     */
+    public BufferedImage load(Path file, Decoder decoder) throws IOException {
+        String hash = hash(file);
+        CompletableFuture<BufferedImage> pending;
+        CompletableFuture<BufferedImage> mine = null;
+        synchronized (this) {
+            requests++;
+            expunge();
+            ImageReference reference = images.get(hash);
+            BufferedImage image = (reference == null) ? null : reference.get();
+            if (image != null) {
+                return shared(image);
+            }
+            pending = decoding.get(hash);
+            if (pending == null) {
+                mine = new CompletableFuture<>();
+                decoding.put(hash, mine);
+            }
+        }
+        if (mine == null) { // someone else is decoding the same bytes
+            try {
+                BufferedImage image = pending.join();
+                synchronized (this) {
+                    return shared(image);
+                }
+            } catch (CompletionException ex) {
+                throw (ex.getCause() instanceof IOException) ? (IOException) ex.getCause()
+                        : new IOException(ex.getCause().getMessage(), ex.getCause());
+            }
+        }
+        try {
+            BufferedImage image = decoder.decode(file);
+            if (image == null) {
+                throw new IOException("no reader for this image format");
+            }
+            synchronized (this) {
+                decodes++;
+                images.put(hash, new ImageReference(hash, image, collected));
+                decoding.remove(hash);
+            }
+            mine.complete(image);
+            return image;
+        } catch (IOException | RuntimeException ex) {
+            synchronized (this) {
+                decoding.remove(hash);
+            }
+            mine.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    // count a request that was answered without decoding
+    private BufferedImage shared(BufferedImage image) {
+        hits++;
+        sharedBytes += (long) image.getWidth() * image.getHeight() * 4;
+        return image;
+    }
+
+    private String hash(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is required on every Java platform", ex);
+        }
+        long bytes = 0;
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            for (int read; (read = in.read(buffer)) >= 0; ) {
+                digest.update(buffer, 0, read);
+                bytes += read;
+            }
+        }
+        synchronized (this) {
+            hashedBytes += bytes;
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // drop the entries of images that no deck uses anymore
+    private void expunge() {
+        for (ImageReference reference; (reference = (ImageReference) collected.poll()) != null; ) {
+            if (images.get(reference.hash) == reference) {
+                images.remove(reference.hash);
+            }
+        }
+    }
+
+    // --- Statistics ---
+
+    // give the number of images asked for
+    public synchronized long getRequestCount() {
+        return requests;
+    }
+
+    // give the number of images that were decoded, one per distinct content
+    public synchronized long getDecodeCount() {
+        return decodes;
+    }
+
+    // give the number of images that were shared instead of decoded
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    // give the number of file bytes that were hashed
+    public synchronized long getHashedBytes() {
+        return hashedBytes;
+    }
+
+    // give the pixel memory that sharing saved, at 4 bytes per pixel
+    public synchronized long getSharedBytes() {
+        return sharedBytes;
+    }
+
+    // give the number of distinct images in use
+    public synchronized int getImageCount() {
+        expunge();
+        return images.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d images requested, %d decoded, %d shared (%.1f MB of pixels saved), %d in use",
+                requests, decodes, hits, sharedBytes / 1e6, getImageCount());
+    }
+
+    private static final class ImageReference extends WeakReference<BufferedImage> {
+        private final String hash;
+
+        ImageReference(String hash, BufferedImage image, ReferenceQueue<BufferedImage> queue) {
+            super(image, queue);
+            this.hash = hash;
+        }
+    }
+}
@@ -23,6 +23,10 @@ public class KeyController extends KeyAdapter {
      * It checks which key you pressed and takes the appropriate action:
      * - PageDown/Down/Enter/+ moves to the next slide
      * - PageUp/Up/- moves to the previous slide
+     * - l or L switches the laser pointer on or off
+     * - t or T switches the elapsed time clock on or off
+     * - x or X switches to the next kind of slide transition
+     * - F5 shows the presentation full screen (Escape returns)
      * - q or Q exits the program
      */
     public void keyPressed(KeyEvent keyEvent) {
@@ -34,6 +38,7 @@ public class KeyController extends KeyAdapter {
             ((keyEvent.getModifiersEx() & InputEvent.CTRL_DOWN_MASK) != 0)) {
             System.out.println("KeyController: Next slide requested using Ctrl+N. Current: " +
                     (beforeSlide + 1) + " of " + presentation.getSize());
+            reportNavigation();
             presentation.nextSlide();
             System.out.println("KeyController: After nextSlide(). Now at: " +
                     (presentation.getSlideNumber() + 1));
@@ -45,6 +50,7 @@ public class KeyController extends KeyAdapter {
             ((keyEvent.getModifiersEx() & InputEvent.CTRL_DOWN_MASK) != 0)) {
             System.out.println("KeyController: Previous slide requested using Ctrl+P. Current: " +
                     (beforeSlide + 1) + " of " + presentation.getSize());
+            reportNavigation();
             presentation.prevSlide();
             System.out.println("KeyController: After prevSlide(). Now at: " +
                     (presentation.getSlideNumber() + 1));
@@ -56,6 +62,7 @@ public class KeyController extends KeyAdapter {
             case KeyEvent.VK_DOWN:
             case KeyEvent.VK_ENTER:
             case '+':
+                reportNavigation();
                 System.out.println("KeyController: Next slide requested. Current: " +
                         (beforeSlide + 1) + " of " + presentation.getSize() +
                         " | Last slide? " + wasLastSlide);
@@ -66,6 +73,7 @@ public class KeyController extends KeyAdapter {
             case KeyEvent.VK_PAGE_UP:
             case KeyEvent.VK_UP:
             case '-':
+                reportNavigation();
                 System.out.println("KeyController: Previous slide requested. Current: " +
                         (beforeSlide + 1) + " of " + presentation.getSize() +
                         " | First slide? " + presentation.isFirstSlide());
@@ -73,6 +81,24 @@ public class KeyController extends KeyAdapter {
                 System.out.println("KeyController: After prevSlide(). Now at: " +
                         (presentation.getSlideNumber() + 1));
                 break;
+            case KeyEvent.VK_L:
+                if (presentation.getShowView() != null) {
+                    presentation.getShowView().toggleLaserPointer();
+                }
+                break;
+            case KeyEvent.VK_T:
+                if (presentation.getShowView() != null) {
+                    presentation.getShowView().toggleClock();
+                }
+                break;
+            case KeyEvent.VK_X:
+                if (presentation.getShowView() != null) {
+                    presentation.getShowView().cycleTransition();
+                }
+                break;
+            case KeyEvent.VK_F5:
+                new FullScreenPresenter(presentation).start();
+                break;
             case 'q':
             case 'Q':
                 //Delegate to Presentation's exit logic
@@ -82,4 +108,11 @@ public class KeyController extends KeyAdapter {
                 break;
         }
     }
+
+    // Lets the view lower its render quality while a navigation key is held down
+    private void reportNavigation() {
+        if (presentation.getShowView() != null) {
+            presentation.getShowView().getQualityController().onInput();
+        }
+    }
 }
\ No newline at end of file
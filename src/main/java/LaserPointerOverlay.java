@@ -0,0 +1,79 @@
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+
+/**
+ * Overlay that draws a red dot at the mouse position, like a laser pointer.
+ * Every mouse move repaints only the old and the new dot, so following the
+ * pointer does not render the slide again.
+ */
+public class LaserPointerOverlay extends MouseAdapter implements Overlay {
+    private static final int RADIUS = 8;
+    private static final Color COLOR = new Color(255, 0, 0, 200);
+
+    private SlideViewerComponent view;
+    private Point position; // null while the mouse is outside the view
+
+    @Override
+    public void paint(Graphics2D g2d, SlideViewerComponent view) {
+        if (position == null) {
+            return;
+        }
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setColor(COLOR);
+        g2d.fillOval(position.x - RADIUS, position.y - RADIUS, 2 * RADIUS, 2 * RADIUS);
+    }
+
+    @Override
+    public Rectangle getBounds(SlideViewerComponent view) {
+        if (position == null) {
+            return new Rectangle();
+        }
+        return new Rectangle(position.x - RADIUS - 1, position.y - RADIUS - 1, 2 * RADIUS + 2, 2 * RADIUS + 2);
+    }
+
+    @Override
+    public void attach(SlideViewerComponent view) {
+        this.view = view;
+        view.addMouseMotionListener(this);
+        view.addMouseListener(this);
+    }
+
+    @Override
+    public void detach(SlideViewerComponent view) {
+        view.removeMouseMotionListener(this);
+        view.removeMouseListener(this);
+        moveTo(null);
+        this.view = null;
+    }
+
+    @Override
+    public void mouseMoved(MouseEvent e) {
+        moveTo(e.getPoint());
+    }
+
+    @Override
+    public void mouseDragged(MouseEvent e) {
+        moveTo(e.getPoint());
+    }
+
+    @Override
+    public void mouseExited(MouseEvent e) {
+        moveTo(null);
+    }
+
+    // Repaints the old and the new position only
+    void moveTo(Point newPosition) {
+        if (view == null) {
+            position = newPosition;
+            return;
+        }
+        view.repaintOverlay(this);
+        position = newPosition;
+        view.repaintOverlay(this);
+    }
+}
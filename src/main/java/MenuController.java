@@ -1,3 +1,4 @@
+import java.awt.CheckboxMenuItem;
 import java.awt.MenuBar;
 import java.awt.Frame;
 import java.awt.Menu;
@@ -5,11 +6,13 @@ import java.awt.MenuItem;
 import java.awt.MenuShortcut;
 import java.awt.event.ActionListener;
 import java.awt.event.ActionEvent;
+import java.awt.event.ItemEvent;
 import java.io.IOException;
 import javax.swing.JOptionPane;
 import javax.swing.JFileChooser;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.io.File;
+import java.nio.file.Paths;
 
 // No longer need to import XMLAccessor
 
@@ -27,13 +30,22 @@ public class MenuController extends MenuBar implements Observer {
     private MenuItem nextMenuItem;
     private MenuItem prevMenuItem;
     private MenuItem saveMenuItem;
+    private MenuItem exportMenuItem;
     private MenuItem gotoMenuItem; // Added for consistent reference
+    private MenuItem overviewMenuItem;
+    private MenuItem presenterMenuItem;
+    private MenuItem findMenuItem;
+    private CheckboxMenuItem watchMenuItem;
+    private DeckWatcher watcher; // reloads the file on changes while Watch File is checked
+    private JFileChooser fileChooser; // Created once, reused by Open and Save
+    private final ThumbnailCache thumbnails = new ThumbnailCache(); // kept between overviews
+    private final SearchIndex searchIndex; // kept in sync with the presentation
 
     // --- Factories/Readers/Writers (Instantiated here for simplicity) ---
     // In a larger app, these might be injected (Dependency Injection)
     // Mark as transient to satisfy SpotBugs SE_BAD_FIELD_STORE
-    private transient final PresentationReader xmlReader = new XMLPresentationReader();
     private transient final PresentationWriter xmlWriter = new XMLPresentationWriter();
+    private transient final PresentationWriter bundleWriter = new BundlePresentationWriter();
     // ---
 
     /**
@@ -41,8 +53,17 @@ public class MenuController extends MenuBar implements Observer {
      * This sets up all the menus and connects them to the right actions.
      */
     public MenuController(Frame frame, Presentation pres) {
+        this(frame, pres, new SearchIndex());
+    }
+
+    /**
+     * Creates a MenuController whose Find searches the given index, e.g. one
+     * that was filled while the deck loaded.
+     */
+    public MenuController(Frame frame, Presentation pres, SearchIndex index) {
         parent = frame;
         presentation = pres;
+        searchIndex = index;
         presentation.addObserver(this);
         setupMenus();
     }
@@ -50,8 +71,8 @@ public class MenuController extends MenuBar implements Observer {
     /**
      * This creates all the menus and menu items with their actions.
      * We create three main menus:
-     * - File menu (Open, New, Save, Exit)
-     * - View menu (Next, Prev, Go to)
+     * - File menu (Open, New, Save, Export Bundle, Watch File, Exit)
+     * - View menu (Next, Prev, Go to, Find, Overview, Presenter View)
      * - Help menu (About)
      */
     private void setupMenus() {
@@ -62,9 +83,8 @@ public class MenuController extends MenuBar implements Observer {
         MenuItem openItem = new MenuItem("Open", new MenuShortcut('O'));
         openItem.addActionListener(new ActionListener() {
             public void actionPerformed(ActionEvent e) {
-                JFileChooser fileChooser = new JFileChooser();
-                FileNameExtensionFilter filter = new FileNameExtensionFilter("XML Files", "xml");
-                fileChooser.setFileFilter(filter);
+                JFileChooser fileChooser = getFileChooser();
+                fileChooser.setSelectedFile(null);
 
                 try { // Set preferred directory
                     String userHome = System.getProperty("user.home");
@@ -88,6 +108,8 @@ public class MenuController extends MenuBar implements Observer {
         MenuItem newItem = new MenuItem("New", new MenuShortcut('N'));
         newItem.addActionListener(e -> {
             presentation.clear();
+            thumbnails.clear();
+            setWatching(false); // no file anymore
             parent.repaint(); // Repaint to show empty state
             updateMenuState(); // Update menus immediately after clear
         });
@@ -99,9 +121,7 @@ public class MenuController extends MenuBar implements Observer {
             public void actionPerformed(ActionEvent e) {
                 if (presentation.getSize() <= 0) return; // Nothing to save
 
-                JFileChooser fileChooser = new JFileChooser();
-                FileNameExtensionFilter filter = new FileNameExtensionFilter("XML Files", "xml");
-                fileChooser.setFileFilter(filter);
+                JFileChooser fileChooser = getFileChooser();
                 fileChooser.setSelectedFile(new File(presentation.getTitle() + ".xml")); // Suggest name
 
                 int returnVal = fileChooser.showSaveDialog(parent);
@@ -112,6 +132,24 @@ public class MenuController extends MenuBar implements Observer {
         });
         fileMenu.add(saveMenuItem);
 
+        // --- Export Bundle ---
+        exportMenuItem = new MenuItem("Export Bundle");
+        exportMenuItem.addActionListener(e -> {
+            if (presentation.getSize() <= 0) return; // Nothing to export
+
+            JFileChooser fileChooser = getFileChooser();
+            fileChooser.setSelectedFile(new File(presentation.getTitle() + BundlePresentationReader.EXTENSION));
+            if (fileChooser.showSaveDialog(parent) == JFileChooser.APPROVE_OPTION) {
+                exportBundle(fileChooser.getSelectedFile());
+            }
+        });
+        fileMenu.add(exportMenuItem);
+
+        // --- Watch File ---
+        watchMenuItem = new CheckboxMenuItem("Watch File");
+        watchMenuItem.addItemListener(e -> setWatching(e.getStateChange() == ItemEvent.SELECTED));
+        fileMenu.add(watchMenuItem);
+
         // --- Separator and Exit ---
         fileMenu.addSeparator();
         MenuItem exitItem = new MenuItem("Exit", new MenuShortcut('E'));
@@ -159,6 +197,21 @@ public class MenuController extends MenuBar implements Observer {
         });
         viewMenu.add(gotoMenuItem);
 
+        // --- Find ---
+        findMenuItem = new MenuItem("Find", new MenuShortcut('F'));
+        findMenuItem.addActionListener(e -> new SearchDialog(parent, presentation, searchIndex).setVisible(true));
+        viewMenu.add(findMenuItem);
+
+        // --- Overview ---
+        overviewMenuItem = new MenuItem("Overview", new MenuShortcut('T'));
+        overviewMenuItem.addActionListener(e -> new SlideSorter(parent, presentation, thumbnails).setVisible(true));
+        viewMenu.add(overviewMenuItem);
+
+        // --- Presenter View ---
+        presenterMenuItem = new MenuItem("Presenter View", new MenuShortcut('R'));
+        presenterMenuItem.addActionListener(e -> new PresenterViewFrame(parent, presentation).open());
+        viewMenu.add(presenterMenuItem);
+
         add(viewMenu); // Add View menu to the menu bar
 
         // === Help Menu ===
@@ -173,9 +226,22 @@ public class MenuController extends MenuBar implements Observer {
         updateMenuState(); // Set initial enabled/disabled state
     }
 
+    // --- Helper method for the file chooser ---
+    // The first call takes the chooser that StartupPipeline built in the background,
+    // so the user does not pay for JFileChooser construction on the first Open.
+    private JFileChooser getFileChooser() {
+        if (fileChooser == null) {
+            fileChooser = StartupPipeline.fileChooser();
+            fileChooser.setFileFilter(new FileNameExtensionFilter("Presentations (XML, bundles)", "xml",
+                    BundlePresentationReader.EXTENSION.substring(1)));
+        }
+        return fileChooser;
+    }
+
     // --- Helper method for loading ---
     private void loadFile(File file) {
         presentation.clear(); // Clear existing presentation
+        thumbnails.clear();
         try {
             if (!file.exists()) {
                 JOptionPane.showMessageDialog(parent,
@@ -183,10 +249,15 @@ public class MenuController extends MenuBar implements Observer {
                         "Load Error", JOptionPane.ERROR_MESSAGE);
                 return;
             }
-            xmlReader.load(presentation, file.getAbsolutePath());
+            BundlePresentationReader.forFile(file.getName()).load(presentation, file.getAbsolutePath());
+            CompactSlideStore.compactIfLarge(presentation); // Large decks keep their text packed
             presentation.setSlideNumber(0); // Go to first slide after load
+            if (presentation.getShowView() != null) { // Prepare glyphs before the user navigates
+                GlyphWarmup.warmUpAsync(presentation, presentation.getShowView().getSlideScale());
+            }
             // Update frame title after loading new presentation
             parent.setTitle("Jabberpoint - " + presentation.getTitle());
+            setWatching(watchMenuItem.getState()); // watch the new file instead
         } catch (IOException exc) {
             System.err.println("ERROR loading file: " + exc.getMessage());
             JOptionPane.showMessageDialog(parent,
@@ -198,6 +269,27 @@ public class MenuController extends MenuBar implements Observer {
         }
     }
 
+    // --- Helper method for watching the file ---
+    // Starts or stops reloading the presentation when its file changes.
+    private void setWatching(boolean watch) {
+        if (watcher != null) {
+            watcher.stop();
+            watcher = null;
+        }
+        String fileName = presentation.getFileName();
+        if (!watch || fileName == null) {
+            return;
+        }
+        try {
+            watcher = new DeckWatcher(presentation, Paths.get(fileName));
+            watcher.start();
+        } catch (IOException exc) {
+            System.err.println("ERROR watching file: " + exc.getMessage());
+            watchMenuItem.setState(false);
+            watcher = null;
+        }
+    }
+
     // --- Helper method for saving ---
     private void saveFile(File file) {
         try {
@@ -216,6 +308,22 @@ public class MenuController extends MenuBar implements Observer {
         }
     }
 
+    // --- Helper method for exporting a bundle ---
+    private void exportBundle(File file) {
+        try {
+            String path = file.getAbsolutePath();
+            if (!BundlePresentationReader.isBundle(path)) {
+                path += BundlePresentationReader.EXTENSION;
+            }
+            bundleWriter.save(presentation, path);
+            JOptionPane.showMessageDialog(parent, "Presentation bundled to:\n" + path,
+                                       "Export Successful", JOptionPane.INFORMATION_MESSAGE);
+        } catch (IOException exc) {
+            System.err.println("ERROR exporting bundle: " + exc.getMessage());
+            JOptionPane.showMessageDialog(parent, "Could not export bundle:\n" + exc.getMessage(),
+                    "Export Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
 
     /**
      * Updates the enabled state of menu items based on the current presentation state.
@@ -232,7 +340,12 @@ public class MenuController extends MenuBar implements Observer {
         nextMenuItem.setEnabled(canGoNext);
         prevMenuItem.setEnabled(canGoPrev);
         saveMenuItem.setEnabled(hasSlides);
+        exportMenuItem.setEnabled(hasSlides);
         gotoMenuItem.setEnabled(hasSlides); // Can only go to if there are slides
+        findMenuItem.setEnabled(hasSlides);
+        overviewMenuItem.setEnabled(hasSlides);
+        presenterMenuItem.setEnabled(hasSlides);
+        watchMenuItem.setEnabled(presentation.getFileName() != null);
 
         // Debugging output (optional)
         System.out.printf("Menu State Update: Slide %d/%d, Next:%b, Prev:%b, Save:%b, GoTo:%b%n",
@@ -245,5 +358,6 @@ public class MenuController extends MenuBar implements Observer {
     @Override
     public void update() {
         updateMenuState();
+        searchIndex.sync(presentation); // only indexes slides that are new since the last sync
     }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+
+/**
+ * A dynamic layer painted by SlideViewerComponent on top of the cached
+ * slide layer, e.g. the slide counter, a clock or a laser pointer.
+ * Changing an overlay only needs view.repaintOverlay(overlay): the slide
+ * itself is not rendered again, its cached image is copied under the overlay.
+ */
+public interface Overlay {
+
+    /**
+     * Paints the overlay. Called on the EDT for every repaint of the view.
+     */
+    void paint(Graphics2D g2d, SlideViewerComponent view);
+
+    /**
+     * Gives the area the overlay currently paints in, used for targeted repaints.
+     */
+    Rectangle getBounds(SlideViewerComponent view);
+
+    /**
+     * Called when the overlay is added to a view, e.g. to start a timer.
+     */
+    default void attach(SlideViewerComponent view) {
+    }
+
+    /**
+     * Called when the overlay is removed from a view.
+     */
+    default void detach(SlideViewerComponent view) {
+    }
+}
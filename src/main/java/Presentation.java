@@ -7,6 +7,10 @@ public class Presentation {
 	private int currentSlideNumber;     // the current slide number
 	private final List<Observer> observers;   // list of observers
 	private SlideViewerComponent showView; // the view component
+	private boolean modified;           // slides added, replaced or removed, or title changed since last save
+	private SaveIndex saveIndex;        // where the slides are in the file last loaded or saved, or null
+	private String fileName;            // the file last loaded or saved, or null
+	private int generation;             // incremented when all slides are replaced at once
 
 	public Presentation(String title) {
 		this.title = title;
@@ -51,6 +55,69 @@ public class Presentation {
 
 	public void setTitle(String title) {
 		this.title = title;
+		modified = true;
+	}
+
+	/**
+	 * Tells if the presentation or any of its slides changed since it was
+	 * last loaded or saved.
+	 */
+	public boolean isModified() {
+		if (modified) {
+			return true;
+		}
+		for (Slide slide : slides) {
+			if (slide.isModified()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Notes that the presentation and all its slides are the same as in the
+	 * file they were loaded from or saved to.
+	 */
+	public void markSaved() {
+		modified = false;
+		for (Slide slide : slides) {
+			slide.markSaved();
+		}
+	}
+
+	/**
+	 * Gives a copy of the presentation with snapshots of its slides, for
+	 * saving in the background while the presentation is being edited.
+	 * Unchanged slides share their snapshot with the previous call, so
+	 * this is cheap even for very large decks. Call on the EDT.
+	 */
+	public Presentation snapshot() {
+		Presentation copy = new Presentation(title);
+		copy.slides = new ArrayList<>(slides.size());
+		for (Slide slide : slides) {
+			copy.slides.add(slide.snapshot());
+		}
+		copy.currentSlideNumber = currentSlideNumber;
+		copy.modified = modified;
+		return copy;
+	}
+
+	// the slide positions in the last loaded or saved file, used by incremental saves
+	SaveIndex getSaveIndex() {
+		return saveIndex;
+	}
+
+	void setSaveIndex(SaveIndex saveIndex) {
+		this.saveIndex = saveIndex;
+	}
+
+	// give the file the presentation was last loaded from or saved to, or null
+	public String getFileName() {
+		return fileName;
+	}
+
+	public void setFileName(String fileName) {
+		this.fileName = fileName;
 	}
 
 	public int getSlideNumber() {
@@ -94,14 +161,48 @@ public class Presentation {
 		return slides.size() > 0 && currentSlideNumber == slides.size() - 1;
 	}
 
+	// give the number of times all slides were replaced (clear, setSlides), so a deck
+	// that was loaded in the background can tell if it is still wanted
+	public int getGeneration() {
+		return generation;
+	}
+
 	public void clear() {
+		generation++;
 		slides = new ArrayList<>();
 		currentSlideNumber = 0;
+		modified = false; // nothing to save
+		saveIndex = null;
+		fileName = null;
 		notifyObservers();
 	}
 
 	public void addSlide(Slide slide) {
 		slides.add(slide);
+		modified = true;
+	}
+
+	// replace a slide, e.g. by a compact copy (see CompactSlideStore)
+	public void replaceSlide(int number, Slide slide) {
+		if (number < 0 || number >= getSize()) {
+			throw new IndexOutOfBoundsException("Invalid slide number " + number);
+		}
+		slides.set(number, slide);
+		modified = true;
+	}
+
+	/**
+	 * Replaces all slides at once, e.g. after the file was reloaded, and
+	 * notifies the observers once.
+	 * @param newSlides   The new slides, which may include slides of this presentation.
+	 * @param slideNumber The slide to show, clamped to the new size.
+	 */
+	public void setSlides(List<Slide> newSlides, int slideNumber) {
+		generation++;
+		slides = new ArrayList<>(newSlides);
+		currentSlideNumber = Math.max(0, Math.min(slideNumber, slides.size() - 1));
+		modified = true;
+		notifyObservers();
 	}
 
 	public Slide getSlide(int number) {
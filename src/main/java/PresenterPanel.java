@@ -0,0 +1,99 @@
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.GridLayout;
+import javax.swing.BorderFactory;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.Timer;
+
+/**
+ * The content of the presenter view: the current slide, the next slide,
+ * the slide counter and the time elapsed since the view was opened.
+ * It is an Observer of the Presentation, so it follows the same
+ * notifications as the audience SlideViewerComponent.
+ */
+public class PresenterPanel extends JPanel implements Observer {
+    private static final long serialVersionUID = 1L;
+
+    private final transient Presentation presentation;
+    private final SlidePreview current = new SlidePreview();
+    private final SlidePreview next = new SlidePreview();
+    private final JLabel counter = new JLabel();
+    private final JLabel elapsed = new JLabel();
+    private final Timer clock;
+    private long startMillis = System.currentTimeMillis();
+
+    public PresenterPanel(Presentation presentation) {
+        super(new BorderLayout(8, 8));
+        this.presentation = presentation;
+        setBackground(Color.BLACK);
+        setBorder(BorderFactory.createEmptyBorder(8, 8, 8, 8));
+        next.setEmptyText("End of presentation");
+
+        JPanel slides = new JPanel(new GridLayout(1, 2, 8, 8));
+        slides.setOpaque(false);
+        slides.add(current);
+        slides.add(next);
+        add(slides, BorderLayout.CENTER);
+
+        JPanel status = new JPanel(new BorderLayout());
+        status.setOpaque(false);
+        Font statusFont = new Font("Dialog", Font.BOLD, 24);
+        counter.setFont(statusFont);
+        counter.setForeground(Color.WHITE);
+        elapsed.setFont(statusFont);
+        elapsed.setForeground(Color.WHITE);
+        status.add(counter, BorderLayout.WEST);
+        status.add(elapsed, BorderLayout.EAST);
+        add(status, BorderLayout.SOUTH);
+
+        clock = new Timer(1000, e -> updateElapsed());
+        presentation.addObserver(this);
+        update();
+        updateElapsed();
+    }
+
+    // Called by Presentation.notifyObservers(), like the audience view
+    @Override
+    public void update() {
+        current.setSlide(presentation.getCurrentSlide());
+        int nextNumber = presentation.getSlideNumber() + 1;
+        next.setSlide(nextNumber < presentation.getSize() ? presentation.getSlide(nextNumber) : null);
+        counter.setText(presentation.getSize() == 0 ? ""
+                : "Slide " + (presentation.getSlideNumber() + 1) + " of " + presentation.getSize());
+    }
+
+    /**
+     * Starts the elapsed time at zero and keeps it running.
+     */
+    public void start() {
+        startMillis = System.currentTimeMillis();
+        updateElapsed();
+        clock.start();
+    }
+
+    /**
+     * Stops the clock and the observation of the presentation.
+     */
+    public void stop() {
+        clock.stop();
+        presentation.removeObserver(this);
+    }
+
+    private void updateElapsed() {
+        elapsed.setText(ClockOverlay.formatElapsed(System.currentTimeMillis() - startMillis));
+    }
+
+    SlidePreview getCurrentPreview() {
+        return current;
+    }
+
+    SlidePreview getNextPreview() {
+        return next;
+    }
+
+    String getCounterText() {
+        return counter.getText();
+    }
+}
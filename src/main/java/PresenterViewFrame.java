@@ -0,0 +1,70 @@
+import java.awt.Dimension;
+import java.awt.Frame;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsDevice;
+import java.awt.GraphicsEnvironment;
+import java.awt.Rectangle;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import javax.swing.JFrame;
+
+/**
+ * Window for the presenter, shown next to the audience SlideViewerFrame.
+ * It opens on another screen than the audience window when there is one.
+ * Keys navigate as in the audience window; closing it leaves the
+ * presentation running.
+ * While it is open the audience view also draws from the slides' display
+ * lists, so both windows share one recording per slide: the next slide
+ * recorded for the presenter is ready when the audience view gets to it.
+ */
+public class PresenterViewFrame extends JFrame {
+    private static final long serialVersionUID = 1L;
+
+    private final PresenterPanel panel;
+    private final SlideViewerComponent audienceView;
+    private final boolean audienceWasScalable;
+
+    public PresenterViewFrame(Frame audience, Presentation presentation) {
+        super("Presenter - " + presentation.getTitle(), otherScreen(audience));
+        panel = new PresenterPanel(presentation);
+        audienceView = presentation.getShowView();
+        audienceWasScalable = audienceView != null && audienceView.isScalableRendering();
+        getContentPane().add(panel);
+        addKeyListener(new KeyController(presentation));
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                panel.stop();
+                if (audienceView != null) {
+                    audienceView.setScalableRendering(audienceWasScalable);
+                }
+            }
+        });
+        Rectangle screen = getGraphicsConfiguration().getBounds();
+        setSize(new Dimension(Math.min(screen.width, 1200), Math.min(screen.height, 700)));
+        setLocation(screen.x + (screen.width - getWidth()) / 2, screen.y + (screen.height - getHeight()) / 2);
+    }
+
+    /**
+     * Shows the window and starts the clock.
+     */
+    public void open() {
+        if (audienceView != null) {
+            audienceView.setScalableRendering(true); // share the display lists with the previews
+        }
+        setVisible(true);
+        panel.start();
+    }
+
+    // A screen other than the one the audience window is on, if there is one
+    private static GraphicsConfiguration otherScreen(Frame audience) {
+        GraphicsConfiguration audienceScreen = audience.getGraphicsConfiguration();
+        for (GraphicsDevice device : GraphicsEnvironment.getLocalGraphicsEnvironment().getScreenDevices()) {
+            if (audienceScreen == null || device != audienceScreen.getDevice()) {
+                return device.getDefaultConfiguration();
+            }
+        }
+        return audienceScreen;
+    }
+}
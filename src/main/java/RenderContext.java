@@ -0,0 +1,81 @@
+import java.awt.Graphics;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.image.ImageObserver;
+
+/**
+ * The state of one drawing pass over a slide, handed to
+ * SlideItem.draw(int, int, RenderContext, Style) and
+ * SlideItem.getBoundingBox(RenderContext, Style, Rectangle).
+ * Besides the Graphics, observer and scale it holds mutable geometry that
+ * items reuse instead of allocating, so that drawing a slide that has
+ * already been laid out allocates nothing. Each thread has its own
+ * context (see get()); it is only valid during one Slide.draw call.
+ */
+public final class RenderContext {
+
+    private static final ThreadLocal<RenderContext> CURRENT = ThreadLocal.withInitial(RenderContext::new);
+
+    private Graphics graphics;
+    private ImageObserver observer;
+    private float scale = 1.0f;
+    private final Rectangle bounds = new Rectangle(); // scratch for bounding boxes
+    private final Point pen = new Point();            // scratch for drawing positions
+
+    private RenderContext() {
+    }
+
+    /**
+     * Gives the context of the calling thread.
+     */
+    public static RenderContext get() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Starts a drawing pass with the given graphics, observer and scale.
+     *
+     * @return This context.
+     */
+    public RenderContext begin(Graphics g, ImageObserver view, float newScale) {
+        graphics = g;
+        observer = view;
+        scale = newScale;
+        return this;
+    }
+
+    /**
+     * Ends the drawing pass, so the context does not keep the Graphics alive.
+     */
+    public void end() {
+        graphics = null;
+        observer = null;
+    }
+
+    public Graphics getGraphics() {
+        return graphics;
+    }
+
+    public ImageObserver getObserver() {
+        return observer;
+    }
+
+    public float getScale() {
+        return scale;
+    }
+
+    /**
+     * Gives a scratch rectangle for bounding boxes. Its content is only
+     * valid until the next call that uses it.
+     */
+    public Rectangle getBounds() {
+        return bounds;
+    }
+
+    /**
+     * Gives a scratch point, e.g. for the pen position while drawing.
+     */
+    public Point getPen() {
+        return pen;
+    }
+}
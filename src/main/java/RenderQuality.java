@@ -0,0 +1,50 @@
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+
+/**
+ * Render quality profiles, each a set of RenderingHints.
+ * HIGH is used normally; FAST is used by AdaptiveQualityController while
+ * the user navigates or resizes faster than HIGH can keep up with.
+ * Both profiles anti-alias text with fractional metrics: those hints are part
+ * of the FontRenderContext, and TextItem caches its layout per context, so a
+ * profile with other text hints would lay every slide out a second time.
+ */
+public enum RenderQuality {
+
+    /** Anti-aliased shapes, smooth image scaling. */
+    HIGH(RenderingHints.VALUE_ANTIALIAS_ON, RenderingHints.VALUE_RENDER_QUALITY,
+            RenderingHints.VALUE_INTERPOLATION_BILINEAR, RenderingHints.VALUE_ALPHA_INTERPOLATION_QUALITY,
+            RenderingHints.VALUE_COLOR_RENDER_QUALITY),
+
+    /** No anti-aliasing of shapes, nearest-neighbour image scaling. */
+    FAST(RenderingHints.VALUE_ANTIALIAS_OFF, RenderingHints.VALUE_RENDER_SPEED,
+            RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR, RenderingHints.VALUE_ALPHA_INTERPOLATION_SPEED,
+            RenderingHints.VALUE_COLOR_RENDER_SPEED);
+
+    private final RenderingHints hints;
+
+    RenderQuality(Object antialias, Object rendering, Object interpolation, Object alphaInterpolation,
+            Object colorRendering) {
+        hints = new RenderingHints(RenderingHints.KEY_ANTIALIASING, antialias);
+        hints.put(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        hints.put(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+        hints.put(RenderingHints.KEY_RENDERING, rendering);
+        hints.put(RenderingHints.KEY_INTERPOLATION, interpolation);
+        hints.put(RenderingHints.KEY_ALPHA_INTERPOLATION, alphaInterpolation);
+        hints.put(RenderingHints.KEY_COLOR_RENDERING, colorRendering);
+    }
+
+    /**
+     * Gives a copy of the hints of this profile.
+     */
+    public RenderingHints getHints() {
+        return (RenderingHints) hints.clone();
+    }
+
+    /**
+     * Sets the hints of this profile on the graphics.
+     */
+    public void apply(Graphics2D g2d) {
+        g2d.addRenderingHints(hints);
+    }
+}
@@ -0,0 +1,79 @@
+import java.awt.Rectangle;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import javax.swing.Timer;
+
+/**
+ * Keeps resizing a SlideViewerComponent cheap.
+ * Slides are laid out at a scale rounded down to a bucket (1/32 steps),
+ * so small size changes reuse the line breaks of every TextItem. When a
+ * resize moves into another bucket the view shows its last frame
+ * stretched to the new size, and lays the slide out only once, when no
+ * resize event has arrived for the settle time.
+ */
+public class ResizeDebouncer {
+
+    public static final int SCALE_BUCKETS = 32; // buckets per unit of scale
+    public static final int SETTLE_MILLIS = 150;
+
+    private final SlideViewerComponent view;
+    private final Timer settleTimer;
+    private float bucket = -1; // the scale bucket of the last settled size
+    private boolean resizing;
+
+    public ResizeDebouncer(SlideViewerComponent view) {
+        this.view = view;
+        this.settleTimer = new Timer(SETTLE_MILLIS, e -> settle());
+        settleTimer.setRepeats(false);
+        view.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                onResize();
+            }
+        });
+    }
+
+    /**
+     * Gives the scale rounded down to its bucket, at least one bucket.
+     */
+    public static float quantize(float scale) {
+        return Math.max(1, (int) (scale * SCALE_BUCKETS)) / (float) SCALE_BUCKETS;
+    }
+
+    /**
+     * Gives the part of the area in which a slide is drawn at the quantized scale,
+     * at the same position. Areas in the same bucket give equal rectangles.
+     */
+    public static Rectangle quantize(Rectangle area) {
+        float scale = quantize(Slide.getScale(area));
+        return new Rectangle(area.x, area.y, Math.round(scale * Slide.WIDTH), Math.round(scale * Slide.HEIGHT));
+    }
+
+    /**
+     * Tells if the view is being resized into another bucket, and should stretch its last frame.
+     */
+    public boolean isResizing() {
+        return resizing;
+    }
+
+    // Called for every resize event, on the EDT
+    void onResize() {
+        float newBucket = quantize(view.getExactSlideScale());
+        if (bucket < 0) {
+            bucket = newBucket; // first layout of the view, nothing to stretch yet
+        } else if (resizing || newBucket != bucket) {
+            resizing = true;
+            settleTimer.restart();
+        }
+    }
+
+    // No resize events for the settle time: lay the slide out once at the new size
+    void settle() {
+        settleTimer.stop();
+        bucket = quantize(view.getExactSlideScale());
+        if (resizing) {
+            resizing = false;
+            view.resizeSettled();
+        }
+    }
+}
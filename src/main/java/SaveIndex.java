@@ -0,0 +1,171 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Where each slide of a presentation is in the XML file it was last loaded
+ * from or saved to, as byte ranges from "<slide>" up to and including "</slide>".
+ * XMLPresentationWriter copies the ranges of unmodified slides from the old
+ * file instead of writing them again. The index is only used while the file
+ * has the size and modification time it had when the index was made.
+ */
+class SaveIndex {
+
+    private static final byte[] SLIDE_START = "<slide>".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SLIDE_END = "</slide>".getBytes(StandardCharsets.US_ASCII);
+    // Markup in which "<slide>" could appear without being an element
+    private static final byte[][] UNSAFE = {
+            "<!--".getBytes(StandardCharsets.US_ASCII), "<![CDATA[".getBytes(StandardCharsets.US_ASCII) };
+
+    private static final byte[] XML_DECLARATION = "<?xml".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DECLARATION_END = "?>".getBytes(StandardCharsets.US_ASCII);
+    private static final Pattern ENCODING = Pattern.compile("encoding\\s*=\\s*[\"']([A-Za-z0-9._:-]+)[\"']");
+
+    private final Path file;
+    private final Map<Slide, long[]> ranges = new IdentityHashMap<>();
+    private long size = -1;
+    private FileTime lastModified;
+
+    SaveIndex(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Finds the slide elements of a file that was just loaded into the
+     * presentation. Gives null when the file cannot be indexed reliably,
+     * e.g. when it has comments or CDATA, or the number of slides differs,
+     * and when it is not in UTF-8 (or its subset US-ASCII): the writer copies
+     * the slide bytes as they are into a UTF-8 file.
+     * The file is read, not mapped, so it can be replaced right after, also on Windows.
+     */
+    static SaveIndex scan(Path file, Presentation presentation) throws IOException {
+        byte[] bytes;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                return null;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // read the whole file
+            }
+            bytes = buffer.array();
+        }
+        if (!isUtf8(bytes)) {
+            return null;
+        }
+        for (byte[] unsafe : UNSAFE) {
+            if (indexOf(bytes, unsafe, 0) >= 0) {
+                return null;
+            }
+        }
+        SaveIndex index = new SaveIndex(file);
+        int position = 0;
+        for (int number = 0; number < presentation.getSize(); number++) {
+            int start = indexOf(bytes, SLIDE_START, position);
+            int end = (start < 0) ? -1 : indexOf(bytes, SLIDE_END, start);
+            if (end < 0) {
+                return null;
+            }
+            position = end + SLIDE_END.length;
+            index.put(presentation.getSlide(number), start, position);
+        }
+        if (indexOf(bytes, SLIDE_START, position) >= 0) {
+            return null;
+        }
+        index.seal();
+        return index;
+    }
+
+    // tell if the XML declaration (or its absence) makes the file UTF-8 or US-ASCII;
+    // UTF-16 and UTF-32 files do not start with a '<' byte, or a UTF-8 byte order mark
+    static boolean isUtf8(byte[] bytes) {
+        int offset = (bytes.length >= 3 && (bytes[0] & 0xff) == 0xef && (bytes[1] & 0xff) == 0xbb
+                && (bytes[2] & 0xff) == 0xbf) ? 3 : 0;
+        if (bytes.length > offset && bytes[offset] != '<') {
+            return false;
+        }
+        if (indexOf(bytes, XML_DECLARATION, offset) != offset) {
+            return true; // no declaration: UTF-8
+        }
+        int end = indexOf(bytes, DECLARATION_END, offset);
+        if (end < 0) {
+            return false;
+        }
+        Matcher encoding = ENCODING.matcher(new String(bytes, offset, end - offset, StandardCharsets.US_ASCII));
+        if (!encoding.find()) {
+            return true;
+        }
+        String name = encoding.group(1);
+        return name.equalsIgnoreCase("UTF-8") || name.equalsIgnoreCase("US-ASCII");
+    }
+
+    // record the byte range of a slide
+    void put(Slide slide, long start, long end) {
+        ranges.put(slide, new long[] {start, end});
+    }
+
+    // give the byte range {start, end} of the slide, or null if it is not in the file
+    long[] get(Slide slide) {
+        return ranges.get(slide);
+    }
+
+    // let a copy of a slide take over its range, e.g. a compact copy (see CompactSlideStore)
+    void rename(Slide from, Slide to) {
+        long[] range = ranges.remove(from);
+        if (range != null) {
+            ranges.put(to, range);
+        }
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    // remember the size and time of the file, call once it is complete
+    void seal() throws IOException {
+        size = Files.size(file);
+        lastModified = Files.getLastModifiedTime(file);
+    }
+
+    /**
+     * Tells if the ranges can be copied from the file that is about to be
+     * replaced: the same file, unchanged since it was indexed.
+     */
+    boolean isValidFor(Path destination) {
+        if (!file.equals(destination) || lastModified == null) {
+            return false;
+        }
+        try {
+            return Files.size(file) == size && Files.getLastModifiedTime(file).equals(lastModified);
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    private static int indexOf(byte[] bytes, byte[] pattern, int from) {
+        int last = bytes.length - pattern.length;
+        byte first = pattern[0];
+        for (int i = from; i <= last; i++) {
+            if (bytes[i] != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < pattern.length && bytes[i + j] == pattern[j]) {
+                j++;
+            }
+            if (j == pattern.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
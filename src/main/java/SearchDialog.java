@@ -0,0 +1,108 @@
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.Frame;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import javax.swing.BorderFactory;
+import javax.swing.DefaultListModel;
+import javax.swing.JDialog;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.ListSelectionModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+/**
+ * Dialog to find slides by their text. Results are updated while typing;
+ * Enter or a double click jumps to the selected slide.
+ * See SearchIndex for the query syntax (words, prefix*, "a phrase").
+ */
+public class SearchDialog extends JDialog {
+    private static final long serialVersionUID = 1L;
+    private static final int MAX_RESULTS = 500;
+
+    private final transient Presentation presentation;
+    private final transient SearchIndex index;
+    private final JTextField queryField = new JTextField(30);
+    private final DefaultListModel<String> resultModel = new DefaultListModel<>();
+    private final JList<String> resultList = new JList<>(resultModel);
+    private final JLabel status = new JLabel(" ");
+    private int[] results = new int[0];
+
+    public SearchDialog(Frame owner, Presentation presentation, SearchIndex index) {
+        super(owner, "Find", false);
+        this.presentation = presentation;
+        this.index = index;
+
+        resultList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        queryField.getDocument().addDocumentListener(new DocumentListener() {
+            public void insertUpdate(DocumentEvent e) { runQuery(); }
+            public void removeUpdate(DocumentEvent e) { runQuery(); }
+            public void changedUpdate(DocumentEvent e) { runQuery(); }
+        });
+        queryField.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                int selected = resultList.getSelectedIndex();
+                if (e.getKeyCode() == KeyEvent.VK_DOWN && selected < resultModel.size() - 1) {
+                    resultList.setSelectedIndex(selected + 1);
+                    resultList.ensureIndexIsVisible(selected + 1);
+                } else if (e.getKeyCode() == KeyEvent.VK_UP && selected > 0) {
+                    resultList.setSelectedIndex(selected - 1);
+                    resultList.ensureIndexIsVisible(selected - 1);
+                } else if (e.getKeyCode() == KeyEvent.VK_ENTER) {
+                    goToSelectedSlide();
+                } else if (e.getKeyCode() == KeyEvent.VK_ESCAPE) {
+                    dispose();
+                }
+            }
+        });
+        resultList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    goToSelectedSlide();
+                }
+            }
+        });
+
+        queryField.setBorder(BorderFactory.createCompoundBorder(queryField.getBorder(),
+                BorderFactory.createEmptyBorder(4, 4, 4, 4)));
+        getContentPane().add(queryField, BorderLayout.NORTH);
+        getContentPane().add(new JScrollPane(resultList), BorderLayout.CENTER);
+        getContentPane().add(status, BorderLayout.SOUTH);
+        setSize(new Dimension(450, 400));
+        setLocationRelativeTo(owner);
+    }
+
+    private void runQuery() {
+        String query = queryField.getText();
+        long start = System.nanoTime();
+        results = index.search(query);
+        long micros = (System.nanoTime() - start) / 1000;
+        resultModel.clear();
+        for (int i = 0; i < results.length && i < MAX_RESULTS; i++) {
+            int number = results[i];
+            String title = (number < presentation.getSize()) ? presentation.getSlide(number).getTitle() : null;
+            resultModel.addElement((number + 1) + ": " + (title != null ? title : ""));
+        }
+        if (!resultModel.isEmpty()) {
+            resultList.setSelectedIndex(0);
+        }
+        String indexing = index.getIndexedSlideCount() < presentation.getSize()
+                ? " (indexing, " + index.getIndexedSlideCount() + " of " + presentation.getSize() + " slides)" : "";
+        status.setText(query.trim().isEmpty() ? " "
+                : results.length + " slides in " + (micros / 1000.0) + " ms" + indexing);
+    }
+
+    private void goToSelectedSlide() {
+        int selected = resultList.getSelectedIndex();
+        if (selected >= 0 && selected < results.length && results[selected] < presentation.getSize()) {
+            presentation.setSlideNumber(results[selected]);
+        }
+    }
+}
@@ -0,0 +1,295 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Full-text index over the titles and text items of a presentation.
+ * An inverted index maps every word (lower case) to its postings: the
+ * slide number and the word's position on the slide. Words are kept
+ * sorted, so prefix queries are a range scan, and positions make phrase
+ * queries a lookup per following word.
+ * The index is built on its own background thread; sync(Presentation)
+ * only indexes the slides that were added since the last sync (a slide
+ * that was edited or replaced makes it start over), and
+ * queries can run while it builds (they see the slides indexed so far).
+ * A deck that is loaded in the background can be synced by the loading
+ * thread (see StartupPipeline); when the same slides are installed in the
+ * shown presentation, its sync finds nothing to do.
+ *
+ * Query syntax: words separated by spaces must all occur on the slide;
+ * a word ending in * matches every word with that prefix; words between
+ * double quotes must occur as a phrase within one title or item.
+ */
+public class SearchIndex {
+
+    private static final int ITEM_GAP = 2; // position gap between title and items, so phrases don't span them
+
+    private final ExecutorService indexer = Executors.newSingleThreadExecutor(
+            BackgroundTasks.daemonThreadFactory("jabberpoint-search"));
+
+    // --- Guarded by this ---
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private int indexedSlides;   // slides 0 .. indexedSlides-1 are in the index
+    private int generation;      // incremented when the index is rebuilt, stale tasks then stop
+    private List<Slide> syncedSlides = new ArrayList<>();
+    private int[] syncedVersions = new int[0]; // Slide.getVersion() of each synced slide
+
+    /**
+     * Brings the index up to date with the slides of the presentation, in the background.
+     * When slides were only appended since the last sync, only those are indexed;
+     * a slide that was edited in place is noticed by its version.
+     * Call on the thread that changes the presentation: the EDT, or the thread
+     * that loads a presentation no one else sees yet.
+     */
+    public synchronized void sync(Presentation presentation) {
+        List<Slide> slides = new ArrayList<>(presentation.getSize());
+        int[] versions = new int[presentation.getSize()];
+        for (int number = 0; number < presentation.getSize(); number++) {
+            Slide slide = presentation.getSlide(number);
+            slides.add(slide);
+            versions[number] = slide.getVersion();
+        }
+        int unchanged = 0;
+        while (unchanged < slides.size() && unchanged < syncedSlides.size()
+                && slides.get(unchanged) == syncedSlides.get(unchanged)
+                && versions[unchanged] == syncedVersions[unchanged]) {
+            unchanged++;
+        }
+        if (unchanged == slides.size() && unchanged == syncedSlides.size()) {
+            return; // nothing changed
+        }
+        int first = unchanged;
+        if (unchanged < syncedSlides.size()) { // slides were replaced or removed: start over
+            terms.clear();
+            indexedSlides = 0;
+            generation++;
+            first = 0;
+        }
+        int taskGeneration = generation;
+        syncedSlides = slides;
+        syncedVersions = versions;
+        List<Slide> snapshots = new ArrayList<>(slides.size()); // the indexer reads these, not the live slides
+        for (Slide slide : slides) {
+            snapshots.add(slide.snapshot());
+        }
+        int from = first;
+        indexer.execute(() -> {
+            long start = System.nanoTime();
+            for (int number = from; number < snapshots.size(); number++) {
+                if (!addSlide(number, snapshots.get(number), taskGeneration)) {
+                    return; // a newer sync rebuilds the index
+                }
+            }
+            System.out.printf("Search index: %d slides indexed in %d ms%n", snapshots.size() - from,
+                    (System.nanoTime() - start) / 1_000_000);
+        });
+    }
+
+    // Waits until the index tasks queued so far are done, gives false on timeout
+    boolean awaitIdle(long timeoutMillis) {
+        try {
+            indexer.submit(() -> { }).get(timeoutMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Gives the number of slides in the index so far.
+     */
+    public synchronized int getIndexedSlideCount() {
+        return indexedSlides;
+    }
+
+    public synchronized int getTermCount() {
+        return terms.size();
+    }
+
+    /**
+     * Gives the numbers (0-based, ascending) of the slides that match the query.
+     */
+    public synchronized int[] search(String query) {
+        BitSet result = null;
+        for (String clause : parse(query)) {
+            BitSet matches;
+            if (clause.startsWith("\"")) {
+                matches = phrase(tokenize(clause));
+            } else if (clause.endsWith("*")) {
+                matches = prefix(clause.substring(0, clause.length() - 1));
+            } else {
+                matches = term(clause);
+            }
+            if (result == null) {
+                result = matches;
+            } else {
+                result.and(matches);
+            }
+        }
+        return (result == null) ? new int[0] : result.stream().toArray();
+    }
+
+    // --- Indexing ---
+
+    private synchronized boolean addSlide(int number, Slide slide, int taskGeneration) {
+        if (taskGeneration != generation) {
+            return false;
+        }
+        int position = addText(number, slide.getTitle(), 0);
+        for (int itemNumber = 0; itemNumber < slide.getSize(); itemNumber++) {
+            SlideItem item = slide.getSlideItem(itemNumber);
+            while (item instanceof SlideItemDecorator) {
+                item = ((SlideItemDecorator) item).decoratedItem;
+            }
+            if (item instanceof TextItem) {
+                position = addText(number, ((TextItem) item).getText(), position + ITEM_GAP);
+            }
+        }
+        indexedSlides = number + 1;
+        return true;
+    }
+
+    // Adds the words of the text from the given position on, gives the next position
+    private int addText(int slideNumber, String text, int position) {
+        for (String word : tokenize(text)) {
+            terms.computeIfAbsent(word, w -> new Postings()).add(slideNumber, position++);
+        }
+        return position;
+    }
+
+    // --- Queries ---
+
+    private BitSet term(String word) {
+        BitSet slides = new BitSet();
+        Postings postings = terms.get(word);
+        if (postings != null) {
+            postings.addSlidesTo(slides);
+        }
+        return slides;
+    }
+
+    private BitSet prefix(String prefix) {
+        BitSet slides = new BitSet();
+        if (prefix.isEmpty()) {
+            return slides;
+        }
+        for (Postings postings : terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            postings.addSlidesTo(slides);
+        }
+        return slides;
+    }
+
+    private BitSet phrase(List<String> words) {
+        BitSet slides = new BitSet();
+        if (words.isEmpty()) {
+            return slides;
+        }
+        Postings[] lists = new Postings[words.size()];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = terms.get(words.get(i));
+            if (lists[i] == null) {
+                return slides;
+            }
+        }
+        Postings first = lists[0];
+        for (int p = 0; p < first.size; p++) {
+            long posting = first.postings[p];
+            int slide = (int) (posting >>> 32);
+            if (slides.get(slide)) {
+                continue;
+            }
+            boolean match = true;
+            for (int i = 1; i < lists.length && match; i++) {
+                match = lists[i].contains(posting + i);
+            }
+            if (match) {
+                slides.set(slide);
+            }
+        }
+        return slides;
+    }
+
+    // Splits the query into clauses: quoted phrases (with their opening quote) and single words
+    static List<String> parse(String query) {
+        List<String> clauses = new ArrayList<>();
+        int i = 0;
+        while (i < query.length()) {
+            char c = query.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '"') {
+                int end = query.indexOf('"', i + 1);
+                end = (end < 0) ? query.length() : end;
+                clauses.add(query.substring(i, end));
+                i = end + 1;
+            } else {
+                int end = i;
+                while (end < query.length() && !Character.isWhitespace(query.charAt(end)) && query.charAt(end) != '"') {
+                    end++;
+                }
+                String word = query.substring(i, end);
+                boolean isPrefix = word.endsWith("*");
+                List<String> tokens = tokenize(word);
+                if (tokens.size() == 1) {
+                    clauses.add(isPrefix ? tokens.get(0) + "*" : tokens.get(0));
+                } else if (tokens.size() > 1) {
+                    clauses.add("\"" + word); // e.g. drag-and-drop: its words as a phrase
+                }
+                i = end;
+            }
+        }
+        return clauses;
+    }
+
+    // The words of a text in lower case: runs of letters and digits
+    static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean letter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                words.add(text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    // Postings of one word, each (slide number << 32 | position), ascending because slides are indexed in order
+    private static final class Postings {
+        long[] postings = new long[4];
+        int size;
+
+        void add(int slide, int position) {
+            if (size == postings.length) {
+                postings = Arrays.copyOf(postings, size * 2);
+            }
+            postings[size++] = ((long) slide << 32) | position;
+        }
+
+        boolean contains(long posting) {
+            return Arrays.binarySearch(postings, 0, size, posting) >= 0;
+        }
+
+        void addSlidesTo(BitSet slides) {
+            for (int i = 0; i < size; i++) {
+                slides.set((int) (postings[i] >>> 32));
+            }
+        }
+    }
+}
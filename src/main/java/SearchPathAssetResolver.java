@@ -0,0 +1,214 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves asset names against a list of directories, the first match wins.
+ * Instead of probing every candidate file, each directory is listed once and
+ * the listing is kept, so a deck with many images costs one listing per
+ * directory; on a network share that is one round trip instead of one per
+ * image and directory. Names that were found and names that were not found
+ * are both remembered, so repeated and missing images cost nothing, and
+ * resolving all names of a deck (resolveAll) reads each directory once.
+ * On a case-insensitive file store a name also matches a listed file whose
+ * name differs only in case, as File.exists would have found it.
+ * The caches are never refreshed: use a new resolver for each load.
+ */
+public class SearchPathAssetResolver implements AssetResolver {
+
+    // System property with the search path, entries separated by File.pathSeparator
+    public static final String SEARCH_PATH_PROPERTY = "jabberpoint.assetPath";
+    public static final List<String> DEFAULT_SEARCH_PATH = List.of(".", "resources", "src/main/resources");
+
+    private final List<Path> directories;
+    private final Map<Path, Set<String>> listings = new HashMap<>(); // file names per directory
+    private final Map<Path, Map<String, String>> foldedListings = new HashMap<>(); // see foldedListing
+    private final Map<String, Path> found = new HashMap<>();
+    private final Set<String> missing = new HashSet<>(); // the negative cache
+    private int listingCount;
+
+    public SearchPathAssetResolver(List<Path> directories) {
+        this.directories = new ArrayList<>(directories);
+    }
+
+    /**
+     * A resolver that searches the search path relative to the directory of
+     * the deck file, and then relative to the working directory, where older
+     * decks expect their images.
+     */
+    public static SearchPathAssetResolver forDeck(Path deckFile) {
+        Path deckDirectory = deckFile.toAbsolutePath().getParent();
+        List<Path> directories = new ArrayList<>();
+        for (Path base : List.of(deckDirectory, Paths.get("").toAbsolutePath())) {
+            for (String entry : getSearchPath()) {
+                Path directory = base.resolve(entry).normalize();
+                if (!directories.contains(directory)) {
+                    directories.add(directory);
+                }
+            }
+        }
+        return new SearchPathAssetResolver(directories);
+    }
+
+    /**
+     * A resolver that searches the search path relative to the working directory.
+     */
+    public static SearchPathAssetResolver forWorkingDirectory() {
+        Path workingDirectory = Paths.get("").toAbsolutePath();
+        List<Path> directories = new ArrayList<>();
+        for (String entry : getSearchPath()) {
+            directories.add(workingDirectory.resolve(entry).normalize());
+        }
+        return new SearchPathAssetResolver(directories);
+    }
+
+    /**
+     * The configured search path: the SEARCH_PATH_PROPERTY, or DEFAULT_SEARCH_PATH.
+     */
+    public static List<String> getSearchPath() {
+        String property = System.getProperty(SEARCH_PATH_PROPERTY);
+        if (property == null || property.isBlank()) {
+            return DEFAULT_SEARCH_PATH;
+        }
+        List<String> entries = new ArrayList<>();
+        for (String entry : property.split(File.pathSeparator)) {
+            if (!entry.isBlank()) {
+                entries.add(entry.trim());
+            }
+        }
+        return entries;
+    }
+
+    public List<Path> getDirectories() {
+        return Collections.unmodifiableList(directories);
+    }
+
+    @Override
+    public synchronized Path resolve(String name) {
+        if (name == null || name.isEmpty() || missing.contains(name)) {
+            return null;
+        }
+        Path file = found.get(name);
+        if (file == null) {
+            file = search(name);
+            if (file == null) {
+                missing.add(name);
+            } else {
+                found.put(name, file);
+            }
+        }
+        return file;
+    }
+
+    // give the number of directories that were listed, for tests and statistics
+    public synchronized int getListingCount() {
+        return listingCount;
+    }
+
+    private Path search(String name) {
+        if (isAbsolute(name)) {
+            return listed(Paths.get(name));
+        }
+        for (Path directory : directories) {
+            Path file = listed(directory.resolve(name).normalize());
+            if (file != null) {
+                return file;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isAbsolute(String name) {
+        return new File(name).isAbsolute();
+    }
+
+    // give the file if it is in the listing of its directory, null if not. On a
+    // case-insensitive file store the name may differ in case from the listed one,
+    // as it could when files were probed; the file then has the listed name.
+    private Path listed(Path file) {
+        Path directory = file.getParent();
+        Path fileName = file.getFileName();
+        if (directory == null || fileName == null) {
+            return null;
+        }
+        Set<String> names = listing(directory);
+        if (names.contains(fileName.toString())) {
+            return file;
+        }
+        String listedName = foldedListing(directory, names).get(fileName.toString().toLowerCase(Locale.ROOT));
+        return (listedName == null) ? null : directory.resolve(listedName);
+    }
+
+    // the listed names by their lower case form, empty for a case-sensitive file store
+    private Map<String, String> foldedListing(Path directory, Set<String> names) {
+        Map<String, String> folded = foldedListings.get(directory);
+        if (folded == null) {
+            folded = new HashMap<>();
+            if (isCaseInsensitive(directory, names)) {
+                for (String name : names) {
+                    folded.putIfAbsent(name.toLowerCase(Locale.ROOT), name);
+                }
+            }
+            foldedListings.put(directory, folded);
+        }
+        return folded;
+    }
+
+    // tell if the directory ignores case, e.g. on Windows and macOS: probes one
+    // listed name with its case swapped, once per directory
+    boolean isCaseInsensitive(Path directory, Set<String> names) {
+        for (String name : names) {
+            String swapped = swapCase(name);
+            if (!swapped.equals(name)) {
+                return !names.contains(swapped) && Files.exists(directory.resolve(swapped));
+            }
+        }
+        return false; // no letters to tell by, and then no name can differ in case either
+    }
+
+    private static String swapCase(String name) {
+        StringBuilder swapped = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            swapped.append(Character.isUpperCase(c) ? Character.toLowerCase(c) : Character.toUpperCase(c));
+        }
+        return swapped.toString();
+    }
+
+    private Set<String> listing(Path directory) {
+        Set<String> names = listings.get(directory);
+        if (names == null) {
+            names = new HashSet<>();
+            listingCount++;
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path entry : entries) {
+                    names.add(entry.getFileName().toString());
+                }
+            } catch (NoSuchFileException | NotDirectoryException ex) {
+                // nothing to find here
+            } catch (IOException ex) {
+                System.err.println("Could not list " + directory + ": " + ex.getMessage());
+            }
+            listings.put(directory, names);
+        }
+        return names;
+    }
+
+    @Override
+    public String toString() {
+        return "searched in " + directories;
+    }
+}
@@ -1,5 +1,7 @@
 import java.awt.Graphics;
+import java.awt.Graphics2D;
 import java.awt.Rectangle;
+import java.awt.font.FontRenderContext;
 import java.awt.image.ImageObserver;
 import java.util.Vector;
 
@@ -18,14 +20,100 @@ public class Slide {
 	public final static int HEIGHT = 800;
 	protected String title; // title is saved separately
 	protected Vector<SlideItem> items; // slide items are saved in a Vector
+	private TextItem titleItem; // the title as an item, created once per title on first use
+	private volatile DisplayList displayList; // recorded drawing, null until needed or after a change
+	private volatile Bands bands; // item positions of the last draw, null until drawn or after a change
+	private volatile int version; // incremented on every change, lets views cache renderings
+	private volatile boolean modified = true; // changed since it was last loaded or saved
+	private Slide snapshot; // unchangeable copy of the current content, null until needed or after a change
+	private boolean frozen; // true for snapshots, which cannot be changed
 
 	public Slide() {
-		items = new Vector<SlideItem>();
+		this(new Vector<SlideItem>());
+	}
+
+	// a slide that keeps its items in the given Vector, e.g. an empty one of capacity 0
+	// for subclasses that store most items elsewhere (see CompactSlideStore)
+	protected Slide(Vector<SlideItem> items) {
+		this.items = items;
 	}
 
 	// Add a slide item
 	public void append(SlideItem anItem) {
+		checkNotFrozen();
 		items.addElement(anItem);
+		changed();
+	}
+
+	// add inline style flags (TextItem.BOLD, UNDERLINE) to the characters from start up to end
+	// of text item number. The item is replaced by a styled copy, so snapshots keep the old one.
+	public void addStyle(int number, int start, int end, int flags) {
+		checkNotFrozen();
+		SlideItem item = getSlideItem(number);
+		if (!(item instanceof TextItem)) {
+			throw new IllegalArgumentException("Item " + number + " is not a text item");
+		}
+		setSlideItem(number, ((TextItem) item).withStyle(start, end, flags));
+	}
+
+	// replace item number; subclasses that keep their items elsewhere override this
+	protected void setSlideItem(int number, SlideItem anItem) {
+		checkNotFrozen();
+		items.setElementAt(anItem, number);
+		changed();
+	}
+
+	// drop cached renderings after a change
+	private void changed() {
+		displayList = null;
+		bands = null;
+		version++;
+		modified = true;
+		snapshot = null;
+	}
+
+	private void checkNotFrozen() {
+		if (frozen) {
+			throw new UnsupportedOperationException("A slide snapshot cannot be changed");
+		}
+	}
+
+	// give an unchangeable copy of the slide, e.g. for saving in the background.
+	// The copy is shared until the slide changes (copy-on-write), so taking it again is free.
+	public Slide snapshot() {
+		Slide copy = snapshot;
+		if (copy == null) {
+			copy = createSnapshot();
+			copy.title = title;
+			copy.frozen = true;
+			snapshot = copy;
+		}
+		return copy;
+	}
+
+	// create the copy for snapshot(); subclasses that keep their items elsewhere override this
+	protected Slide createSnapshot() {
+		return new Slide(new Vector<SlideItem>(items));
+	}
+
+	// tell if this is a snapshot, which cannot be changed
+	public boolean isSnapshot() {
+		return frozen;
+	}
+
+	// tell if the slide changed since it was last loaded or saved
+	public boolean isModified() {
+		return modified;
+	}
+
+	// note that the slide is the same as in the file it was loaded from or saved to
+	public void markSaved() {
+		modified = false;
+	}
+
+	// give the version of the content, it changes whenever the slide is changed
+	public int getVersion() {
+		return version;
 	}
 
 	// give the title of the slide
@@ -35,7 +123,20 @@ public class Slide {
 
 	// change the title of the slide
 	public void setTitle(String newTitle) {
+		checkNotFrozen();
 		title = newTitle;
+		titleItem = null;
+		changed();
+	}
+
+	// give the title as an item, for drawing
+	TextItem getTitleItem() {
+		TextItem item = titleItem;
+		if (item == null) {
+			item = new TextItem(0, getTitle());
+			titleItem = item;
+		}
+		return item;
 	}
 
 	// Create TextItem of String, and add the TextItem 
@@ -58,25 +159,84 @@ public class Slide {
 		return items.size();
 	}
 
-	// draw the slide
+	// draw the slide.
+	// Once the slide has been laid out for this area this allocates nothing (see RenderContext).
 	public void draw(Graphics g, Rectangle area, ImageObserver view) {
-		float scale = getScale(area);
-	    int y = area.y;
-	// Title is handled separately
-	    SlideItem slideItem = new TextItem(0, getTitle());
-	    Style style = Style.getStyle(slideItem.getLevel());
-	    slideItem.draw(area.x, y, scale, g, style, view);
-	    y += slideItem.getBoundingBox(g, view, scale, style).height;
-	    for (int number=0; number<getSize(); number++) {
-	      slideItem = (SlideItem)getSlideItems().elementAt(number);
-	      style = Style.getStyle(slideItem.getLevel());
-	      slideItem.draw(area.x, y, scale, g, style, view);
-	      y += slideItem.getBoundingBox(g, view, scale, style).height;
-	    }
-	  }
+		RenderContext context = RenderContext.get().begin(g, view, getScale(area));
+		try {
+			Bands layout = getBands(context, area);
+		// Title is handled separately
+			SlideItem slideItem = layout.title;
+			slideItem.draw(area.x, layout.top[0], context, Style.getStyle(slideItem.getLevel()));
+			for (int number=0; number<layout.items.length; number++) {
+				slideItem = layout.items[number];
+				slideItem.draw(area.x, layout.top[number + 1], context, Style.getStyle(slideItem.getLevel()));
+			}
+		} finally {
+			context.end();
+		}
+	}
+
+	// give the vertical position of title and items for this area, measured once per area and render context
+	private Bands getBands(RenderContext context, Rectangle area) {
+		FontRenderContext frc = ((Graphics2D) context.getGraphics()).getFontRenderContext();
+		Bands layout = bands;
+		if (layout != null && layout.area.equals(area) && layout.frc.equals(frc)) {
+			return layout;
+		}
+		SlideItem[] slideItems = new SlideItem[getSize()];
+		for (int number = 0; number < slideItems.length; number++) {
+			slideItems[number] = getSlideItem(number);
+		}
+		TextItem title = getTitleItem();
+		int[] top = new int[slideItems.length + 1];
+		Rectangle bounds = context.getBounds();
+		top[0] = area.y;
+		int height = title.getBoundingBox(context, Style.getStyle(0), bounds).height;
+		for (int number = 0; number < slideItems.length; number++) {
+			SlideItem slideItem = slideItems[number];
+			top[number + 1] = top[number] + height;
+			height = slideItem.getBoundingBox(context, Style.getStyle(slideItem.getLevel()), bounds).height;
+		}
+		layout = new Bands(new Rectangle(area), frc, title, slideItems, top);
+		bands = layout;
+		return layout;
+	}
+
+	// the tops of title (index 0) and items in the last drawn area
+	private static final class Bands {
+		final Rectangle area;
+		final FontRenderContext frc;
+		final TextItem title;
+		final SlideItem[] items;
+		final int[] top;
+
+		Bands(Rectangle area, FontRenderContext frc, TextItem title, SlideItem[] items, int[] top) {
+			this.area = area;
+			this.frc = frc;
+			this.title = title;
+			this.items = items;
+			this.top = top;
+		}
+	}
+
+	// give the recorded drawing of the slide, for drawing at any scale (see DisplayList)
+	public DisplayList getDisplayList() {
+		DisplayList list = displayList;
+		if (list == null) {
+			list = DisplayList.record(this);
+			displayList = list;
+		}
+		return list;
+	}
+
+	// draw the slide by replaying its display list: no line breaking or font derivation
+	public void drawScaled(Graphics g, Rectangle area) {
+		getDisplayList().replay(g, area);
+	}
 
 	// Give the scale for drawing
-	private float getScale(Rectangle area) {
+	static float getScale(Rectangle area) {
 		return Math.min(((float)area.width) / ((float)WIDTH), ((float)area.height) / ((float)HEIGHT));
 	}
 }
@@ -36,4 +36,23 @@ public abstract class SlideItem {
 // Draw the item
 	public abstract void draw(int x, int y, float scale, 
 			Graphics g, Style style, ImageObserver observer);
+
+// Give the bounding box in result, using the graphics and scale of the context.
+// Items override this to avoid allocating a Rectangle on every paint.
+	public Rectangle getBoundingBox(RenderContext context, Style style, Rectangle result) {
+		result.setBounds(getBoundingBox(context.getGraphics(), context.getObserver(), context.getScale(), style));
+		return result;
+	}
+
+// Draw the item with the graphics and scale of the context
+	public void draw(int x, int y, RenderContext context, Style style) {
+		draw(x, y, context.getScale(), context.getGraphics(), style, context.getObserver());
+	}
+
+// Record the item into a display list at scale 1, give its height.
+// Items that have no primitive recording are replayed by calling draw.
+	int record(DisplayList list, int x, int y, Style style) {
+		list.add(g2d -> draw(x, y, 1.0f, g2d, style, null));
+		return getBoundingBox(list.getMeasureGraphics(), null, 1.0f, style).height;
+	}
 }
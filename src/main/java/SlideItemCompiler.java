@@ -0,0 +1,52 @@
+/**
+ * Compiles a chain of SlideItemDecorators into a single SlideItem.
+ * A chain of BoldTextDecorator and UnderlineTextDecorator around a
+ * TextItem becomes one StyledTextItem with precomputed attributes.
+ * The readers apply this once at load time, so painting never has to
+ * walk a decorator chain.
+ */
+public final class SlideItemCompiler {
+
+    private SlideItemCompiler() {
+        // Utility class, no instances.
+    }
+
+    /**
+     * Flattens the given item if it is a chain of known text decorators.
+     *
+     * @param item The (possibly decorated) SlideItem.
+     * @return A StyledTextItem equivalent to the chain, or the item itself
+     *         when it is not decorated, not text, or has an unknown decorator.
+     */
+    public static SlideItem compile(SlideItem item) {
+        if (!(item instanceof SlideItemDecorator)) {
+            return item;
+        }
+        boolean bold = false;
+        boolean underlined = false;
+        SlideItem inner = item;
+        while (inner instanceof SlideItemDecorator) {
+            if (inner instanceof BoldTextDecorator) {
+                bold = true;
+            } else if (inner instanceof UnderlineTextDecorator) {
+                underlined = true;
+            } else {
+                return item; // Unknown decoration, we cannot know what it draws
+            }
+            inner = ((SlideItemDecorator) inner).decoratedItem;
+        }
+        if (!(inner instanceof TextItem)) {
+            return item;
+        }
+        if (inner instanceof StyledTextItem) {
+            bold |= ((StyledTextItem) inner).isBold();
+            underlined |= ((StyledTextItem) inner).isUnderlined();
+        }
+        TextItem textItem = (TextItem) inner;
+        StyledTextItem styled = new StyledTextItem(item.getLevel(), textItem.getText(), bold, underlined);
+        if (textItem.hasInlineStyles()) {
+            styled.setCharacterFlags(textItem.getCharacterFlags());
+        }
+        return styled;
+    }
+}
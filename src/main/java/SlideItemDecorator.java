@@ -11,6 +11,10 @@ public abstract class SlideItemDecorator extends SlideItem {
     // The SlideItem being wrapped by this decorator.
     protected SlideItem decoratedItem;
 
+    // The flattened equivalent of this chain (see SlideItemCompiler), computed on first use.
+    private SlideItem compiledItem;
+    private boolean compiled;
+
     /**
      * Constructor for the SlideItemDecorator.
      * @param decoratedItem The SlideItem to be decorated.
@@ -42,6 +46,57 @@ public abstract class SlideItemDecorator extends SlideItem {
         decoratedItem.draw(x, y, scale, g, style, observer);
     }
 
+    /**
+     * Measures the compiled item when the chain can be flattened, otherwise
+     * this decorator through its Graphics overload.
+     */
+    @Override
+    public Rectangle getBoundingBox(RenderContext context, Style style, Rectangle result) {
+        SlideItem compiledItem = getCompiledItem();
+        return (compiledItem != null) ? compiledItem.getBoundingBox(context, style, result)
+                : super.getBoundingBox(context, style, result);
+    }
+
+    /**
+     * Draws the compiled item when the chain can be flattened, otherwise
+     * this decorator through its Graphics overload.
+     */
+    @Override
+    public void draw(int x, int y, RenderContext context, Style style) {
+        SlideItem compiledItem = getCompiledItem();
+        if (compiledItem != null) {
+            compiledItem.draw(x, y, context, style);
+        } else {
+            super.draw(x, y, context, style);
+        }
+    }
+
+    /**
+     * Records the compiled item when the chain can be flattened, otherwise
+     * replays this decorator's draw.
+     */
+    @Override
+    int record(DisplayList list, int x, int y, Style style) {
+        SlideItem compiledItem = getCompiledItem();
+        return (compiledItem != null) ? compiledItem.record(list, x, y, style) : super.record(list, x, y, style);
+    }
+
+    /**
+     * Gives the StyledTextItem equivalent to this decorator chain, so concrete
+     * decorators can draw with one cached layout instead of unwrapping the
+     * chain on every paint.
+     * @return The compiled item, or null if the chain cannot be flattened
+     *         (e.g. it does not decorate a TextItem).
+     */
+    protected SlideItem getCompiledItem() {
+        if (!compiled) {
+            SlideItem result = SlideItemCompiler.compile(this);
+            compiledItem = (result != this) ? result : null;
+            compiled = true;
+        }
+        return compiledItem;
+    }
+
     // Optional: You might want to delegate other SlideItem methods if they exist
     // For example, if SlideItem had a 'getText()' or 'getName()', you might add:
     // public String getText() { return (decoratedItem instanceof TextItem) ? ((TextItem)decoratedItem).getText() : null; }
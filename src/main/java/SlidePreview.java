@@ -0,0 +1,87 @@
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import javax.swing.JComponent;
+
+/**
+ * Shows one given slide scaled to the size of the component, e.g. the
+ * current and the next slide in the presenter view.
+ * The slide is drawn by replaying its DisplayList, which is recorded once
+ * per slide and shared by every view that draws the slide, so a preview
+ * does not lay out text again at its own scale. The drawing is kept in an
+ * image until the slide, its content or the size changes.
+ */
+public class SlidePreview extends JComponent {
+    private static final long serialVersionUID = 1L;
+
+    private Slide slide;
+    private String emptyText = "";
+    private BufferedImage image;
+    private Slide imageSlide;
+    private int imageVersion;
+
+    public Slide getSlide() {
+        return slide;
+    }
+
+    /**
+     * Shows the slide, or the empty text when the slide is null.
+     */
+    public void setSlide(Slide slide) {
+        if (this.slide != slide) {
+            this.slide = slide;
+            repaint();
+        }
+    }
+
+    public void setEmptyText(String emptyText) {
+        this.emptyText = emptyText;
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(Slide.WIDTH / 2, Slide.HEIGHT / 2);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        if (getWidth() <= 0 || getHeight() <= 0) {
+            return;
+        }
+        if (slide == null) {
+            g.setColor(Color.DARK_GRAY);
+            g.fillRect(0, 0, getWidth(), getHeight());
+            g.setColor(Color.LIGHT_GRAY);
+            g.drawString(emptyText, 10, getHeight() / 2);
+            return;
+        }
+        g.drawImage(getImage(), 0, 0, null);
+    }
+
+    // Gives the drawing of the slide at the current size, replaying the display list only when needed
+    private BufferedImage getImage() {
+        if (image == null || image.getWidth() != getWidth() || image.getHeight() != getHeight()) {
+            image = new BufferedImage(getWidth(), getHeight(), BufferedImage.TYPE_INT_RGB);
+            imageSlide = null;
+        }
+        if (imageSlide != slide || imageVersion != slide.getVersion()) {
+            Graphics2D g2d = image.createGraphics();
+            try {
+                RenderQuality.HIGH.apply(g2d);
+                g2d.setColor(Color.WHITE);
+                g2d.fillRect(0, 0, getWidth(), getHeight());
+                slide.drawScaled(g2d, new Rectangle(0, 0, getWidth(), getHeight()));
+                g2d.setColor(Color.GRAY);
+                g2d.drawRect(0, 0, getWidth() - 1, getHeight() - 1);
+            } finally {
+                g2d.dispose();
+            }
+            imageSlide = slide;
+            imageVersion = slide.getVersion();
+        }
+        return image;
+    }
+}
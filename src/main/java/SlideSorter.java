@@ -0,0 +1,164 @@
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.Frame;
+import java.awt.Graphics;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.HashSet;
+import java.util.Set;
+import javax.swing.AbstractListModel;
+import javax.swing.BorderFactory;
+import javax.swing.JDialog;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JScrollPane;
+import javax.swing.ListCellRenderer;
+import javax.swing.ListSelectionModel;
+
+/**
+ * Overview grid that shows every slide of the presentation as a thumbnail.
+ * Double click or Enter jumps to the selected slide.
+ * The grid is a JList with fixed cell sizes, so it only ever paints (and
+ * asks the ThumbnailCache for) the cells that are visible; thumbnails
+ * that are not cached yet show a placeholder until their background render
+ * is done, and requests for rows scrolled out of view are cancelled.
+ */
+public class SlideSorter extends JDialog {
+    private static final long serialVersionUID = 1L;
+    private static final int GAP = 8;
+    private static final int LABEL_HEIGHT = 18;
+
+    private final Presentation presentation;
+    private final ThumbnailCache thumbnails;
+    private final JList<Integer> grid;
+
+    public SlideSorter(Frame owner, Presentation presentation, ThumbnailCache thumbnails) {
+        super(owner, "Overview - " + presentation.getTitle(), true);
+        this.presentation = presentation;
+        this.thumbnails = thumbnails;
+
+        grid = new JList<>(new SlideListModel(presentation));
+        grid.setLayoutOrientation(JList.HORIZONTAL_WRAP);
+        grid.setVisibleRowCount(-1); // as many columns as fit
+        grid.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        // Fixed cell sizes: JList does not need to render every cell to lay out the grid
+        grid.setFixedCellWidth(thumbnails.getWidth() + 2 * GAP);
+        grid.setFixedCellHeight(thumbnails.getHeight() + LABEL_HEIGHT + 2 * GAP);
+        grid.setCellRenderer(new ThumbnailRenderer());
+        grid.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    goToSelectedSlide();
+                }
+            }
+        });
+        grid.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                if (e.getKeyCode() == KeyEvent.VK_ENTER) {
+                    goToSelectedSlide();
+                } else if (e.getKeyCode() == KeyEvent.VK_ESCAPE) {
+                    dispose();
+                }
+            }
+        });
+
+        JScrollPane scrollPane = new JScrollPane(grid);
+        scrollPane.getVerticalScrollBar().setUnitIncrement(grid.getFixedCellHeight() / 4);
+        scrollPane.getViewport().addChangeListener(e -> cancelInvisibleRequests());
+        getContentPane().add(scrollPane, BorderLayout.CENTER);
+        setSize(new Dimension(5 * grid.getFixedCellWidth() + 40, 4 * grid.getFixedCellHeight() + 40));
+        setLocationRelativeTo(owner);
+
+        if (presentation.getSize() > 0) {
+            grid.setSelectedIndex(presentation.getSlideNumber());
+            grid.ensureIndexIsVisible(presentation.getSlideNumber());
+        }
+    }
+
+    private void goToSelectedSlide() {
+        int index = grid.getSelectedIndex();
+        if (index >= 0) {
+            presentation.setSlideNumber(index);
+            dispose();
+        }
+    }
+
+    // Scrolling: drop the queued renders of slides that are no longer visible
+    private void cancelInvisibleRequests() {
+        int first = grid.getFirstVisibleIndex();
+        int last = grid.getLastVisibleIndex();
+        Set<Slide> visible = new HashSet<>();
+        for (int index = Math.max(0, first); index >= 0 && index <= last && index < presentation.getSize(); index++) {
+            visible.add(presentation.getSlide(index));
+        }
+        thumbnails.retainPending(visible);
+    }
+
+    // The slide numbers of the presentation, without copying 2,000 entries
+    private static final class SlideListModel extends AbstractListModel<Integer> {
+        private static final long serialVersionUID = 1L;
+        private final Presentation presentation;
+
+        SlideListModel(Presentation presentation) {
+            this.presentation = presentation;
+        }
+
+        @Override
+        public int getSize() {
+            return presentation.getSize();
+        }
+
+        @Override
+        public Integer getElementAt(int index) {
+            return index;
+        }
+    }
+
+    // Paints the thumbnail of a slide, or requests it and paints a placeholder
+    private final class ThumbnailRenderer extends JLabel implements ListCellRenderer<Integer> {
+        private static final long serialVersionUID = 1L;
+        private BufferedImage image;
+
+        ThumbnailRenderer() {
+            setOpaque(true);
+            setHorizontalAlignment(CENTER);
+            setVerticalAlignment(BOTTOM);
+        }
+
+        @Override
+        public Component getListCellRendererComponent(JList<? extends Integer> list, Integer index,
+                int cellIndex, boolean selected, boolean focused) {
+            Slide slide = presentation.getSlide(index);
+            image = thumbnails.get(slide);
+            if (image == null) {
+                thumbnails.request(slide, list::repaint);
+            }
+            setText((index + 1) + (slide.getTitle() != null ? "  " + slide.getTitle() : ""));
+            setBackground(selected ? list.getSelectionBackground() : list.getBackground());
+            setForeground(selected ? list.getSelectionForeground() : list.getForeground());
+            setBorder(BorderFactory.createEmptyBorder(GAP, GAP, GAP, GAP));
+            return this;
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g); // background and label
+            int x = (getWidth() - thumbnails.getWidth()) / 2;
+            if (image != null) {
+                g.drawImage(image, x, GAP, null);
+            } else {
+                g.setColor(Color.WHITE);
+                g.fillRect(x, GAP, thumbnails.getWidth(), thumbnails.getHeight());
+            }
+            g.setColor(Color.GRAY);
+            g.drawRect(x, GAP, thumbnails.getWidth() - 1, thumbnails.getHeight() - 1);
+        }
+    }
+}
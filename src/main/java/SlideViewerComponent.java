@@ -1,10 +1,25 @@
 import java.awt.Color;
 import java.awt.Font;
+import java.awt.FontMetrics;
 import java.awt.Dimension;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
 import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
 import javax.swing.JComponent;
 
+/**
+ * Shows the current slide of a Presentation.
+ * Painting is layered: the background and the slide are rendered into a
+ * cached image (the slide layer), which is only rendered again when the
+ * slide, its content or the size changes. Overlays such as the
+ * "Slide x of y" counter, a clock or a laser pointer are painted on top
+ * on every repaint, so changing them costs an image copy of their area.
+ */
 public class SlideViewerComponent extends JComponent implements Observer {
 
     private final Presentation presentation;
@@ -13,18 +28,54 @@ public class SlideViewerComponent extends JComponent implements Observer {
     private Color textColor = Color.BLACK;
     private int xPos = 50;
     private int yPos = 50;
+    private Runnable onSlidePainted; // one-shot callback, used to measure startup time
+    private boolean scalableRendering; // replay display lists instead of laying out at each scale
+    private Slide paintedSlide; // the slide shown by the last paint
+    private int paintedSlideNumber;
+    private final TransitionEngine transitions = new TransitionEngine(this);
+    private RenderQuality quality = RenderQuality.HIGH;
+    private final AdaptiveQualityController qualityController;
+    private final ResizeDebouncer resizeDebouncer;
+    private final List<Overlay> overlays = new ArrayList<>();
+    private final Overlay counterOverlay = new SlideCounterOverlay();
+    private LaserPointerOverlay laserPointer; // null while the laser pointer is off
+    private ClockOverlay clock; // null while the clock is off
+
+    // --- The cached slide layer and what it was rendered for ---
+    private BufferedImage slideLayer; // in device pixels, see getDeviceScale
+    private double layerScaleX = 1;
+    private double layerScaleY = 1;
+    private GraphicsConfiguration scaleConfig; // the configuration the device scale was read from
+    private double deviceScaleX = 1;
+    private double deviceScaleY = 1;
+    private boolean slideLayerValid;
+    private Slide layerSlide;
+    private int layerVersion;
+    private RenderQuality layerQuality;
+    private boolean layerStretched; // the layer is an older frame scaled to the current size
 
     public SlideViewerComponent(Presentation pres) {
         this.presentation = pres;
         this.labelFont = new Font("Dialog", Font.BOLD, 10);
         setBackground(backgroundColor);
         presentation.addObserver(this);
+        overlays.add(counterOverlay);
+        qualityController = new AdaptiveQualityController(this);
+        resizeDebouncer = new ResizeDebouncer(this);
     }
 
     // This update() method will be called by Presentation.notifyObservers()
     @Override
     public void update() {
-        repaint();
+        if (presentation.getCurrentSlide() != null && presentation.getCurrentSlide() == paintedSlide) {
+            repaintOverlay(counterOverlay); // Same slide: at most the "Slide x of y" label changed
+        } else {
+            if (presentation.getSlideNumber() != paintedSlideNumber) { // not for a reloaded slide
+                transitions.start(paintedSlide, presentation.getCurrentSlide(),
+                        presentation.getSlideNumber() - paintedSlideNumber);
+            }
+            repaint();
+        }
         System.out.println("Updated to slide: " + (presentation.getSlideNumber() + 1));
     }
 
@@ -35,24 +86,307 @@ public class SlideViewerComponent extends JComponent implements Observer {
 
     @Override
     public void paintComponent(Graphics graphics) {
-        graphics.setColor(backgroundColor);
-        graphics.fillRect(0, 0, getSize().width, getSize().height);
+        if (getWidth() <= 0 || getHeight() <= 0) {
+            return;
+        }
         Slide currentSlide = presentation.getCurrentSlide();
-        if (presentation.getSlideNumber() < 0 || currentSlide == null) {
+        if (presentation.getSlideNumber() < 0) {
+            currentSlide = null;
+        }
+        if (!transitions.paint((Graphics2D) graphics, getWidth(), getHeight())) {
+            BufferedImage layer = getSlideLayer(currentSlide);
+            if (layerScaleX == 1 && layerScaleY == 1) {
+                graphics.drawImage(layer, 0, 0, null);
+            } else {
+                Graphics2D layerGraphics = (Graphics2D) graphics.create();
+                try {
+                    layerGraphics.scale(1 / layerScaleX, 1 / layerScaleY); // one layer pixel per device pixel
+                    layerGraphics.drawImage(layer, 0, 0, null);
+                } finally {
+                    layerGraphics.dispose();
+                }
+            }
+        }
+        for (Overlay overlay : overlays) {
+            Graphics2D overlayGraphics = (Graphics2D) graphics.create();
+            try {
+                overlay.paint(overlayGraphics, this);
+            } finally {
+                overlayGraphics.dispose();
+            }
+        }
+        if (currentSlide == null) {
+            return;
+        }
+        paintedSlide = currentSlide;
+        paintedSlideNumber = presentation.getSlideNumber();
+        if (onSlidePainted != null) {
+            Runnable callback = onSlidePainted;
+            onSlidePainted = null;
+            callback.run();
+        }
+    }
+
+    // Gives the cached background and slide, rendering them only when something changed
+    private BufferedImage getSlideLayer(Slide slide) {
+        boolean upToDate = slideLayerValid && layerSlide == slide
+                && (slide == null || slide.getVersion() == layerVersion);
+        updateDeviceScale();
+        int layerWidth = (int) Math.ceil(getWidth() * deviceScaleX);
+        int layerHeight = (int) Math.ceil(getHeight() * deviceScaleY);
+        if (slideLayer == null || slideLayer.getWidth() != layerWidth || slideLayer.getHeight() != layerHeight
+                || layerScaleX != deviceScaleX || layerScaleY != deviceScaleY) {
+            BufferedImage oldLayer = slideLayer;
+            slideLayer = createLayerImage(layerWidth, layerHeight);
+            layerScaleX = deviceScaleX;
+            layerScaleY = deviceScaleY;
+            if (oldLayer != null && upToDate && (quality == RenderQuality.FAST || resizeDebouncer.isResizing())) {
+                stretchLayer(oldLayer); // resizing: reuse the slide rendered at the old scale
+                return slideLayer;
+            }
+            slideLayerValid = false;
+            upToDate = false;
+        }
+        if (upToDate && (layerQuality == quality || layerQuality == RenderQuality.HIGH)) {
+            return slideLayer;
+        }
+        Graphics2D g2d = slideLayer.createGraphics();
+        try {
+            g2d.scale(layerScaleX, layerScaleY); // render at device resolution
+            renderSlide(g2d, slide, getWidth(), getHeight());
+        } finally {
+            g2d.dispose();
+        }
+        layerSlide = slide;
+        layerVersion = (slide == null) ? 0 : slide.getVersion();
+        layerQuality = quality;
+        layerStretched = false;
+        slideLayerValid = true;
+        return slideLayer;
+    }
+
+    // Fills the (new size) slide layer with the old one scaled, until the quality is restored
+    private void stretchLayer(BufferedImage oldLayer) {
+        Graphics2D g2d = slideLayer.createGraphics();
+        try {
+            RenderQuality.FAST.apply(g2d);
+            g2d.drawImage(oldLayer, 0, 0, slideLayer.getWidth(), slideLayer.getHeight(), null);
+        } finally {
+            g2d.dispose();
+        }
+        layerQuality = RenderQuality.FAST;
+        layerStretched = true;
+    }
+
+    // Called by the ResizeDebouncer when resizing stopped: replace a stretched frame by a real one
+    void resizeSettled() {
+        if (layerStretched) {
+            invalidateSlideLayer();
+        }
+    }
+
+    // Gives the cached slide layer if it shows the slide as it is now, otherwise null;
+    // the transition engine copies the outgoing slide from it
+    BufferedImage getSlideLayerOf(Slide slide) {
+        boolean current = slide != null && slideLayerValid && !layerStretched && layerSlide == slide
+                && slide.getVersion() == layerVersion;
+        return current ? slideLayer : null;
+    }
+
+    // Draws the background and the slide (if any), as the slide layer shows them
+    void renderSlide(Graphics2D g2d, Slide slide, int width, int height) {
+        quality.apply(g2d);
+        g2d.setColor(backgroundColor);
+        g2d.fillRect(0, 0, width, height);
+        if (slide != null) {
+            if (scalableRendering) {
+                slide.drawScaled(g2d, getSlideArea());
+            } else {
+                slide.draw(g2d, getSlideArea(), this);
+            }
+        }
+    }
+
+    // Reads the scale from component to device pixels (above 1 on HiDPI screens)
+    // when the view moved to another screen configuration
+    private void updateDeviceScale() {
+        GraphicsConfiguration config = getGraphicsConfiguration();
+        if (config == scaleConfig) {
+            return;
+        }
+        scaleConfig = config;
+        AffineTransform transform = (config == null) ? null : config.getDefaultTransform();
+        deviceScaleX = (transform == null) ? 1 : transform.getScaleX();
+        deviceScaleY = (transform == null) ? 1 : transform.getScaleY();
+    }
+
+    // An image in the screen's format, so copying it to the screen is a fast blit
+    private BufferedImage createLayerImage(int width, int height) {
+        GraphicsConfiguration config = getGraphicsConfiguration();
+        if (config != null) {
+            return config.createCompatibleImage(width, height);
+        }
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+
+    /**
+     * Forces the slide layer to be rendered again on the next paint, e.g.
+     * after an item of the current slide changed its appearance.
+     */
+    public void invalidateSlideLayer() {
+        slideLayerValid = false;
+        repaint();
+    }
+
+    /**
+     * Adds an overlay, painted on top of the slide and the overlays added before.
+     */
+    public void addOverlay(Overlay overlay) {
+        if (!overlays.contains(overlay)) {
+            overlays.add(overlay);
+            overlay.attach(this);
+            repaintOverlay(overlay);
+        }
+    }
+
+    public void removeOverlay(Overlay overlay) {
+        if (overlays.remove(overlay)) {
+            repaintOverlay(overlay);
+            overlay.detach(this);
+        }
+    }
+
+    /**
+     * Repaints only the area of the overlay; the slide layer is copied, not rendered.
+     */
+    public void repaintOverlay(Overlay overlay) {
+        Rectangle bounds = overlay.getBounds(this);
+        if (!bounds.isEmpty()) {
+            repaint(bounds);
+        }
+    }
+
+    /**
+     * Gives the engine that animates slide changes, off (Type.NONE) by default.
+     */
+    public TransitionEngine getTransitions() {
+        return transitions;
+    }
+
+    /**
+     * Sets the quality profile used to render slides. Going back to
+     * RenderQuality.HIGH renders the slide again if it was shown at a lower quality.
+     */
+    public void setRenderQuality(RenderQuality quality) {
+        if (this.quality == quality) {
             return;
         }
-        graphics.setFont(labelFont);
-        graphics.setColor(textColor);
-        graphics.drawString("Slide " + (1 + presentation.getSlideNumber()) + " of " +
-                presentation.getSize(), xPos, yPos);
-        Rectangle area = new Rectangle(0, yPos, getWidth(), (getHeight() - yPos));
-        currentSlide.draw(graphics, area, this);
+        this.quality = quality;
+        if (quality == RenderQuality.HIGH && layerQuality != RenderQuality.HIGH) {
+            invalidateSlideLayer();
+        }
+    }
+
+    public RenderQuality getRenderQuality() {
+        return quality;
+    }
+
+    /**
+     * Gives the controller that lowers the quality during bursts of navigation or resizing.
+     */
+    public AdaptiveQualityController getQualityController() {
+        return qualityController;
+    }
+
+    /**
+     * Gives the handler that keeps the slide layout stable while the view is resized.
+     */
+    public ResizeDebouncer getResizeDebouncer() {
+        return resizeDebouncer;
+    }
+
+    /**
+     * Switches to the next kind of slide transition: none, fade, slide, push.
+     */
+    public void cycleTransition() {
+        TransitionEngine.Type[] types = TransitionEngine.Type.values();
+        TransitionEngine.Type next = types[(transitions.getType().ordinal() + 1) % types.length];
+        transitions.setType(next);
+        System.out.println("Slide transition: " + next);
+    }
+
+    /**
+     * Switches the laser pointer overlay on or off.
+     */
+    public void toggleLaserPointer() {
+        if (laserPointer == null) {
+            laserPointer = new LaserPointerOverlay();
+            addOverlay(laserPointer);
+        } else {
+            removeOverlay(laserPointer);
+            laserPointer = null;
+        }
+    }
+
+    /**
+     * Switches the elapsed time clock overlay on or off.
+     */
+    public void toggleClock() {
+        if (clock == null) {
+            clock = new ClockOverlay();
+            addOverlay(clock);
+        } else {
+            removeOverlay(clock);
+            clock = null;
+        }
+    }
+
+    /**
+     * Switches to drawing slides from their recorded display list, which
+     * costs the same at every scale. Meant for views that are resized often.
+     */
+    public void setScalableRendering(boolean scalableRendering) {
+        this.scalableRendering = scalableRendering;
+        invalidateSlideLayer();
+    }
+
+    public boolean isScalableRendering() {
+        return scalableRendering;
+    }
+
+    /**
+     * Gives the scale at which slides are drawn at the current size, or at the
+     * preferred size when the component has not been laid out yet.
+     */
+    public float getSlideScale() {
+        return ResizeDebouncer.quantize(getExactSlideScale());
+    }
+
+    // The scale at which the slide would fill the area below the label, before quantizing
+    float getExactSlideScale() {
+        if (getWidth() <= 0 || getHeight() <= 0) {
+            return Slide.getScale(new Rectangle(0, yPos, Slide.WIDTH, Slide.HEIGHT - yPos));
+        }
+        return Slide.getScale(new Rectangle(0, yPos, getWidth(), (getHeight() - yPos)));
+    }
+
+    // The area below the "Slide x of y" label in which the slide is drawn, at a quantized scale
+    private Rectangle getSlideArea() {
+        return ResizeDebouncer.quantize(new Rectangle(0, yPos, getWidth(), (getHeight() - yPos)));
+    }
+
+    /**
+     * Registers a callback that runs once, right after the next slide has been painted.
+     */
+    public void setOnSlidePainted(Runnable callback) {
+        this.onSlidePainted = callback;
     }
 
     // Setters for customization
     public void setBackgroundColor(Color backgroundColor) {
         this.backgroundColor = backgroundColor;
         setBackground(backgroundColor);
+        slideLayerValid = false;
     }
 
     public void setTextColor(Color textColor) {
@@ -66,5 +400,35 @@ public class SlideViewerComponent extends JComponent implements Observer {
     public void setTextPosition(int xPos, int yPos) {
         this.xPos = xPos;
         this.yPos = yPos;
+        slideLayerValid = false; // the slide area starts at yPos
+    }
+
+    // The "Slide x of y" label, painted as an overlay with the settings of this view
+    private class SlideCounterOverlay implements Overlay {
+        private String text = ""; // the label, built again only when number or size change
+        private int number = -1;
+        private int size = -1;
+
+        @Override
+        public void paint(Graphics2D g2d, SlideViewerComponent view) {
+            if (presentation.getSlideNumber() < 0 || presentation.getCurrentSlide() == null) {
+                return;
+            }
+            if (number != presentation.getSlideNumber() || size != presentation.getSize()) {
+                number = presentation.getSlideNumber();
+                size = presentation.getSize();
+                text = "Slide " + (1 + number) + " of " + size;
+            }
+            g2d.setFont(labelFont);
+            g2d.setColor(textColor);
+            g2d.drawString(text, xPos, yPos);
+        }
+
+        @Override
+        public Rectangle getBounds(SlideViewerComponent view) {
+            FontMetrics metrics = getFontMetrics(labelFont);
+            return new Rectangle(xPos, yPos - metrics.getAscent(),
+                    Math.max(0, getWidth() - xPos), metrics.getAscent() + metrics.getDescent());
+        }
     }
 }
\ No newline at end of file
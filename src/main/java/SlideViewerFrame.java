@@ -8,9 +8,16 @@ public class SlideViewerFrame extends JFrame {
 	private static final String JABTITLE = "Jabberpoint - Observer Pattern Demo";
 	public final static int WIDTH = 1200;
 	public final static int HEIGHT = 800;
+	private final transient SearchIndex searchIndex; // for the Find menu
 
 	public SlideViewerFrame(String title, Presentation presentation) {
+		this(title, presentation, new SearchIndex());
+	}
+
+	// a frame whose Find menu searches the given index
+	public SlideViewerFrame(String title, Presentation presentation, SearchIndex searchIndex) {
 		super(title);
+		this.searchIndex = searchIndex;
 		// Create a SlideViewerComponent that registers itself as an observer
 		SlideViewerComponent slideViewerComponent = new SlideViewerComponent(presentation);
 		// Set the presentation's view
@@ -29,7 +36,7 @@ public class SlideViewerFrame extends JFrame {
 		getContentPane().add(slideViewerComponent);
 		addKeyListener(new KeyController(presentation));
 		// The MenuController should disable the Next option when at the last slide.
-		setMenuBar(new MenuController(this, presentation));
+		setMenuBar(new MenuController(this, presentation, searchIndex));
 		setSize(new Dimension(WIDTH, HEIGHT));
 		setVisible(true);
 	}
@@ -0,0 +1,209 @@
+import java.awt.Font;
+import java.awt.font.FontRenderContext;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import javax.imageio.ImageIO;
+import javax.swing.JFileChooser;
+import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+import javax.swing.filechooser.FileSystemView;
+
+/**
+ * Starts JabberPoint with as little work as possible on the critical path.
+ * The window is shown right away with an empty presentation, while the
+ * slow one-time initialisations (fonts, ImageIO plugins, the file system
+ * view of the file chooser) and the loading of the initial deck run in
+ * parallel in the background. The loading thread also builds the search
+ * index of the deck. When the deck is ready it is handed to the EDT and shown. The JFileChooser itself is a Swing component, so it is
+ * created on the EDT, once the first slide has been painted.
+ * The time from start to the first painted slide is reported on stdout.
+ */
+public class StartupPipeline {
+
+    // The file chooser created after the first paint, taken by the first caller
+    // of fileChooser(); only used on the EDT
+    private static JFileChooser prewarmedChooser;
+
+    private final long startNanos;
+    private final String source;
+    private final Presentation presentation;
+    private final SearchIndex searchIndex = new SearchIndex(); // filled by the load, used by Find
+    private SlideViewerFrame frame;
+    private AutosaveManager autosave;
+    private boolean recovered; // the deck came from the autosave file of a crashed session
+    private int startGeneration; // the generation of the empty presentation the deck is loaded for
+    private volatile long windowShownNanos;
+    private volatile long firstSlideNanos;
+
+    /**
+     * @param startNanos The System.nanoTime() at which the application started.
+     * @param source     The XML file to open, or null for the demo presentation.
+     */
+    public StartupPipeline(long startNanos, String source) {
+        this.startNanos = startNanos;
+        this.source = source;
+        this.presentation = new Presentation("Demo Presentation");
+        this.startGeneration = presentation.getGeneration();
+    }
+
+    /**
+     * Kicks off the background warm-ups and the deck load, and schedules
+     * the creation of the window on the EDT. Returns immediately.
+     */
+    public void start() {
+        CompletableFuture.runAsync(StartupPipeline::warmUpFonts, BackgroundTasks.executor());
+        CompletableFuture.runAsync(StartupPipeline::warmUpImageIO, BackgroundTasks.executor());
+        CompletableFuture.runAsync(StartupPipeline::warmUpFileSystemView, BackgroundTasks.executor());
+        CompletableFuture<Presentation> deck =
+                CompletableFuture.supplyAsync(this::loadDeck, BackgroundTasks.executor());
+
+        // Queued before the deck can complete, so the frame always exists in install()
+        SwingUtilities.invokeLater(this::showWindow);
+        deck.whenComplete((loaded, error) -> SwingUtilities.invokeLater(() -> install(loaded, error)));
+    }
+
+    /**
+     * Gives the JFileChooser prepared after startup, or a new one when it
+     * has already been taken or is not there yet. Call on the EDT.
+     */
+    public static JFileChooser fileChooser() {
+        JFileChooser chooser = prewarmedChooser;
+        prewarmedChooser = null;
+        return (chooser != null) ? chooser : new JFileChooser();
+    }
+
+    /**
+     * Milliseconds between start and the first painted slide, or -1 if
+     * no slide has been painted yet.
+     */
+    public long getTimeToFirstSlideMillis() {
+        return firstSlideNanos == 0 ? -1 : (firstSlideNanos - startNanos) / 1_000_000;
+    }
+
+    // Loads the initial deck into a private Presentation, off the EDT.
+    Presentation loadDeck() {
+        return loadAndIndex(source);
+    }
+
+    // Loads the file off the EDT and starts indexing it; the index is complete
+    // or nearly so by the time the deck is shown.
+    private Presentation loadAndIndex(String file) {
+        Presentation loaded = load(file);
+        searchIndex.sync(loaded); // still private, so this thread may sync it
+        return loaded;
+    }
+
+    SearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+
+    // Loads the file, or the demo presentation for null, into a private Presentation.
+    private static Presentation load(String file) {
+        Presentation loaded = new Presentation("Demo Presentation");
+        PresentationReader reader = (file == null) ? new DemoPresentationReader() : BundlePresentationReader.forFile(file);
+        try {
+            reader.load(loaded, file);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        CompactSlideStore.compactIfLarge(loaded);
+        return loaded;
+    }
+
+    private void showWindow() {
+        frame = new SlideViewerFrame(JabberPoint.JABTITLE + " - " + presentation.getTitle(), presentation,
+                searchIndex);
+        presentation.getShowView().setOnSlidePainted(this::firstSlidePainted);
+        windowShownNanos = System.nanoTime();
+    }
+
+    private void install(Presentation loaded, Throwable error) {
+        if (autosave == null) { // first install: offer the work of a crashed session
+            autosave = new AutosaveManager(presentation);
+            if (autosave.hasRecovery()) {
+                if (offerRecovery()) {
+                    recovered = true;
+                    String file = autosave.getFile().toString();
+                    CompletableFuture.supplyAsync(() -> loadAndIndex(file), BackgroundTasks.executor())
+                            .whenComplete((deck, ex) -> SwingUtilities.invokeLater(() -> install(deck, ex)));
+                    return;
+                }
+                autosave.discardRecovery();
+            }
+        }
+        autosave.start();
+        if (error != null) {
+            Throwable cause = (error.getCause() != null) ? error.getCause() : error;
+            JOptionPane.showMessageDialog(frame, JabberPoint.IOERR + cause, JabberPoint.JABERR,
+                    JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (presentation.getGeneration() != startGeneration) { // the user opened or created another deck meanwhile
+            System.out.println("Not showing " + (source == null ? "the demo presentation" : source)
+                    + ": another presentation was opened");
+            return;
+        }
+        boolean modified = recovered || loaded.isModified();
+        presentation.setTitle(loaded.getTitle());
+        presentation.setSaveIndex(recovered ? null : loaded.getSaveIndex());
+        presentation.setFileName(recovered ? null : loaded.getFileName());
+        List<Slide> slides = new ArrayList<>(loaded.getSize());
+        for (int number = 0; number < loaded.getSize(); number++) {
+            slides.add(loaded.getSlide(number));
+        }
+        presentation.setSlides(slides, 0); // all at once, with one notification
+        if (recovered) {
+            System.out.println("Recovered " + loaded.getSize() + " slides from " + autosave.getFile());
+        } else if (!modified) {
+            presentation.markSaved(); // the same as the file it came from
+        }
+        GlyphWarmup.warmUpAsync(presentation, presentation.getShowView().getSlideScale());
+        frame.setTitle("Jabberpoint - " + presentation.getTitle());
+    }
+
+    private boolean offerRecovery() {
+        int answer = JOptionPane.showConfirmDialog(frame,
+                "JabberPoint did not close normally.\nRecover the unsaved changes of the last session?",
+                "Recover presentation", JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
+        return answer == JOptionPane.YES_OPTION;
+    }
+
+    private void firstSlidePainted() {
+        firstSlideNanos = System.nanoTime();
+        System.out.printf("Startup: window shown after %d ms, first slide painted after %d ms%n",
+                (windowShownNanos - startNanos) / 1_000_000, getTimeToFirstSlideMillis());
+        // after the first frame, so the user does not wait for it; Swing components belong on the EDT
+        SwingUtilities.invokeLater(() -> prewarmedChooser = new JFileChooser());
+    }
+
+    // Loads the font files and builds the glyph caches for the fixed styles.
+    private static void warmUpFonts() {
+        FontRenderContext frc = new FontRenderContext(null, true, true);
+        for (int level = 0; level < Style.getStyleCount(); level++) {
+            Font font = Style.getStyle(level).getFont(1.0f);
+            font.createGlyphVector(frc, "JabberPoint").getVisualBounds();
+            font.deriveFont(Font.BOLD).createGlyphVector(frc, "JabberPoint").getVisualBounds();
+        }
+    }
+
+    // Initialises the file system view the file chooser uses, which involves no
+    // Swing component: the roots, the home directory and its listing.
+    private static void warmUpFileSystemView() {
+        FileSystemView view = FileSystemView.getFileSystemView();
+        view.getRoots();
+        File home = view.getHomeDirectory();
+        view.getFiles(view.getDefaultDirectory(), true);
+        view.getSystemDisplayName(home);
+    }
+
+    // Forces the ImageIO plugin registry to discover and load the common codecs.
+    private static void warmUpImageIO() {
+        for (String suffix : new String[] {"jpg", "png", "gif"}) {
+            ImageIO.getImageReadersBySuffix(suffix).hasNext();
+        }
+    }
+}
@@ -41,6 +41,11 @@ public class Style {
 		return styles[level];
 	}
 
+	// give the number of styles (item-levels 0 up to getStyleCount() - 1)
+	public static int getStyleCount() {
+		return styles.length;
+	}
+
 	public Style(int indent, Color color, int points, int leading) {
 		this.indent = indent;
 		this.color = color;
@@ -0,0 +1,62 @@
+import java.awt.Font;
+import java.awt.font.TextAttribute;
+import java.text.AttributedString;
+
+/**
+ * A TextItem with whole-item bold and/or underline styling.
+ * This is the flattened form of a chain of BoldTextDecorator and
+ * UnderlineTextDecorator around a TextItem (see SlideItemCompiler).
+ * All attributes are part of the AttributedString, so the inherited
+ * layout cache gives both the correct bounding box and a single
+ * cached draw, however deep the original decorator chain was.
+ */
+public class StyledTextItem extends TextItem {
+    private final boolean bold;
+    private final boolean underlined;
+
+    public StyledTextItem(int level, String text, boolean bold, boolean underlined) {
+        super(level, text);
+        this.bold = bold;
+        this.underlined = underlined;
+    }
+
+    public boolean isBold() {
+        return bold;
+    }
+
+    public boolean isUnderlined() {
+        return underlined;
+    }
+
+    @Override
+    TextItem copy() {
+        return new StyledTextItem(getLevel(), getText(), bold, underlined);
+    }
+
+    /**
+     * Gives the AttributedString with the (bold) font, underline and color applied.
+     */
+    @Override
+    public AttributedString getAttributedString(Style style, float scale) {
+        AttributedString attrStr = super.getAttributedString(style, scale);
+        int length = getText().length();
+        if (length == 0) {
+            return attrStr;
+        }
+        if (bold) {
+            Font baseFont = style.getFont(scale);
+            attrStr.addAttribute(TextAttribute.FONT, baseFont.deriveFont(baseFont.getStyle() | Font.BOLD), 0, length);
+        }
+        if (underlined) {
+            attrStr.addAttribute(TextAttribute.UNDERLINE, TextAttribute.UNDERLINE_ON, 0, length);
+        }
+        attrStr.addAttribute(TextAttribute.FOREGROUND, style.color, 0, length);
+        return attrStr;
+    }
+
+    @Override
+    public String toString() {
+        return "StyledTextItem[" + getLevel() + "," + getText()
+                + (bold ? ",bold" : "") + (underlined ? ",underline" : "") + "]";
+    }
+}
@@ -1,7 +1,7 @@
+import java.awt.Font;
 import java.awt.Rectangle;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
-import java.awt.Point;
 import java.awt.font.TextLayout;
 import java.awt.font.TextAttribute;
 import java.awt.font.LineBreakMeasurer;
@@ -10,8 +10,8 @@ import java.awt.geom.Rectangle2D;
 import java.awt.image.ImageObserver;
 import java.text.AttributedString;
 import java.util.List;
-import java.util.Iterator;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /** <p>A tekst item.</p>
  * <p>A TextItem has drawingfunctionality.</p>
@@ -26,9 +26,17 @@ import java.util.ArrayList;
 
 public class TextItem extends SlideItem {
 	private String text;
+	private volatile Layout layout; // cached line layouts, see getLayout
+	// inline style runs, run-length encoded: run i starts at runStarts[i] and has runFlags[i];
+	// both are null for text without inline styling
+	private int[] runStarts;
+	private byte[] runFlags;
 	
 	private static final String EMPTYTEXT = "No Text Given";
 
+	public static final int BOLD = 1;      // inline style flag
+	public static final int UNDERLINE = 2; // inline style flag
+
 // a textitem of level level, with the text string
 	public TextItem(int level, String string) {
 		super(level);
@@ -45,31 +53,136 @@ public class TextItem extends SlideItem {
 		return text == null ? "" : text;
 	}
 
+// add inline style flags (BOLD, UNDERLINE) to the characters from start up to end.
+// Only for items that are not on a slide yet; Slide.addStyle styles an item on a slide.
+	void addStyle(int start, int end, int flags) {
+		int length = getText().length();
+		start = Math.max(0, start);
+		end = Math.min(length, end);
+		if (start >= end || flags == 0) {
+			return;
+		}
+		byte[] characterFlags = getCharacterFlags();
+		for (int i = start; i < end; i++) {
+			characterFlags[i] = (byte) (characterFlags[i] | flags);
+		}
+		setCharacterFlags(characterFlags);
+	}
+
+// give a copy with the inline style flags added; the item itself is not changed
+	TextItem withStyle(int start, int end, int flags) {
+		TextItem copy = copy();
+		copy.setCharacterFlags(getCharacterFlags());
+		copy.addStyle(start, end, flags);
+		return copy;
+	}
+
+// give an unstyled copy of the item, subclasses copy their own state
+	TextItem copy() {
+		return new TextItem(getLevel(), text);
+	}
+
+// give the number of inline style runs, at least 1
+	public int getRunCount() {
+		return runStarts == null ? 1 : runStarts.length;
+	}
+
+// give the index of the first character of a run
+	public int getRunStart(int run) {
+		return runStarts == null ? 0 : runStarts[run];
+	}
+
+// give the index after the last character of a run
+	public int getRunLimit(int run) {
+		return (runStarts == null || run == runStarts.length - 1) ? getText().length() : runStarts[run + 1];
+	}
+
+// give the style flags of a run
+	public int getRunFlags(int run) {
+		return runFlags == null ? 0 : runFlags[run];
+	}
+
+// tell if the item has inline styling
+	public boolean hasInlineStyles() {
+		return runFlags != null;
+	}
+
+// give the style flags per character
+	byte[] getCharacterFlags() {
+		byte[] characterFlags = new byte[getText().length()];
+		for (int run = 0; run < getRunCount(); run++) {
+			Arrays.fill(characterFlags, getRunStart(run), getRunLimit(run), (byte) getRunFlags(run));
+		}
+		return characterFlags;
+	}
+
+// replace the inline styling by the given flags per character, stored run-length encoded
+	void setCharacterFlags(byte[] characterFlags) {
+		int count = 0;
+		for (int i = 0; i < characterFlags.length; i++) {
+			if (i == 0 || characterFlags[i] != characterFlags[i - 1]) {
+				count++;
+			}
+		}
+		if (count == 0 || (count == 1 && characterFlags[0] == 0)) {
+			runStarts = null;
+			runFlags = null;
+		} else {
+			int[] starts = new int[count];
+			byte[] flags = new byte[count];
+			int run = 0;
+			for (int i = 0; i < characterFlags.length; i++) {
+				if (i == 0 || characterFlags[i] != characterFlags[i - 1]) {
+					starts[run] = i;
+					flags[run++] = characterFlags[i];
+				}
+			}
+			runStarts = starts;
+			runFlags = flags;
+		}
+		layout = null;
+	}
+
 // geef de AttributedString voor het item
 	public AttributedString getAttributedString(Style style, float scale) {
 		AttributedString attrStr = new AttributedString(getText());
-		attrStr.addAttribute(TextAttribute.FONT, style.getFont(scale), 0, text.length());
+		if (getText().length() > 0) {
+			Font font = style.getFont(scale);
+			attrStr.addAttribute(TextAttribute.FONT, font, 0, getText().length());
+			if (runFlags != null) {
+				addRunAttributes(attrStr, font);
+			}
+		}
 		return attrStr;
 	}
 
-// give the bounding box of the item
-	public Rectangle getBoundingBox(Graphics g, ImageObserver observer, 
-			float scale, Style myStyle) {
-		List<TextLayout> layouts = getLayouts(g, myStyle, scale);
-		int xsize = 0, ysize = (int) (myStyle.leading * scale);
-		Iterator<TextLayout> iterator = layouts.iterator();
-		while (iterator.hasNext()) {
-			TextLayout layout = iterator.next();
-			Rectangle2D bounds = layout.getBounds();
-			if (bounds.getWidth() > xsize) {
-				xsize = (int) bounds.getWidth();
+	private void addRunAttributes(AttributedString attrStr, Font font) {
+		Font boldFont = null;
+		for (int run = 0; run < getRunCount(); run++) {
+			int flags = getRunFlags(run);
+			if ((flags & BOLD) != 0) {
+				if (boldFont == null) {
+					boldFont = font.deriveFont(font.getStyle() | Font.BOLD);
+				}
+				attrStr.addAttribute(TextAttribute.FONT, boldFont, getRunStart(run), getRunLimit(run));
 			}
-			if (bounds.getHeight() > 0) {
-				ysize += bounds.getHeight();
+			if ((flags & UNDERLINE) != 0) {
+				attrStr.addAttribute(TextAttribute.UNDERLINE, TextAttribute.UNDERLINE_ON,
+						getRunStart(run), getRunLimit(run));
 			}
-			ysize += layout.getLeading() + layout.getDescent();
 		}
-		return new Rectangle((int) (myStyle.indent*scale), 0, xsize, ysize );
+	}
+
+// give the bounding box of the item
+	public Rectangle getBoundingBox(Graphics g, ImageObserver observer, 
+			float scale, Style myStyle) {
+		return new Rectangle(getLayout(g, myStyle, scale).bounds);
+	}
+
+// give the bounding box in result, without allocating once the layout is cached
+	public Rectangle getBoundingBox(RenderContext context, Style myStyle, Rectangle result) {
+		result.setBounds(getLayout(context.getGraphics(), myStyle, context.getScale()).bounds);
+		return result;
 	}
 
 // draw the item
@@ -78,25 +191,59 @@ public class TextItem extends SlideItem {
 		if (text == null || text.length() == 0) {
 			return;
 		}
-		List<TextLayout> layouts = getLayouts(g, myStyle, scale);
-		Point pen = new Point(x + (int)(myStyle.indent * scale), 
-				y + (int) (myStyle.leading * scale));
+		drawLines(getLayout(g, myStyle, scale).lines, x + (int) (myStyle.indent * scale),
+				y + (int) (myStyle.leading * scale), g, myStyle);
+	  }
+
+// give the number of lines the item is broken into at this scale
+	int getLineCount(Graphics g, Style myStyle, float scale) {
+		return getLayout(g, myStyle, scale).lines.length;
+	}
+
+// draw the lines from the pen position, which moves down by whole pixels like a Point did
+	private static void drawLines(TextLayout[] lines, int penX, int penY, Graphics g, Style myStyle) {
 		Graphics2D g2d = (Graphics2D)g;
 		g2d.setColor(myStyle.color);
-		Iterator<TextLayout> it = layouts.iterator();
-		while (it.hasNext()) {
-			TextLayout layout = it.next();
-			pen.y += layout.getAscent();
-			layout.draw(g2d, pen.x, pen.y);
-			pen.y += layout.getDescent();
+		for (int i = 0; i < lines.length; i++) {
+			TextLayout line = lines[i];
+			penY += line.getAscent();
+			line.draw(g2d, penX, penY);
+			penY += line.getDescent();
 		}
-	  }
+	}
+
+// record the lines into a display list at scale 1, without touching the screen layout cache
+	int record(DisplayList list, int x, int y, Style myStyle) {
+		FontRenderContext frc = list.getMeasureGraphics().getFontRenderContext();
+		Layout recorded = new Layout(myStyle, 1.0f, frc, createLayouts(frc, myStyle, 1.0f));
+		float penX = x + myStyle.indent;
+		float penY = y + myStyle.leading;
+		for (TextLayout line : recorded.lines) {
+			penY += line.getAscent();
+			list.addText(line, penX, penY, myStyle.color);
+			penY += line.getDescent();
+		}
+		return recorded.bounds.height;
+	}
+
+// give the line layouts, reusing the cached ones while style, scale and render context are unchanged
+	private Layout getLayout(Graphics g, Style s, float scale) {
+		FontRenderContext frc = ((Graphics2D) g).getFontRenderContext();
+		Layout cached = layout;
+		if (cached != null && cached.style == s && cached.scale == scale && cached.frc.equals(frc)) {
+			return cached;
+		}
+		cached = new Layout(s, scale, frc, createLayouts(frc, s, scale));
+		layout = cached;
+		return cached;
+	}
 
-	private List<TextLayout> getLayouts(Graphics g, Style s, float scale) {
+	private List<TextLayout> createLayouts(FontRenderContext frc, Style s, float scale) {
 		List<TextLayout> layouts = new ArrayList<TextLayout>();
+		if (getText().length() == 0) {
+			return layouts;
+		}
 		AttributedString attrStr = getAttributedString(s, scale);
-    	Graphics2D g2d = (Graphics2D) g;
-    	FontRenderContext frc = g2d.getFontRenderContext();
     	LineBreakMeasurer measurer = new LineBreakMeasurer(attrStr.getIterator(), frc);
     	float wrappingWidth = (Slide.WIDTH - s.indent) * scale;
     	while (measurer.getPosition() < getText().length()) {
@@ -106,6 +253,34 @@ public class TextItem extends SlideItem {
     	return layouts;
 	}
 
+// the line layouts and bounding box for one style, scale and render context
+	private static final class Layout {
+		final Style style;
+		final float scale;
+		final FontRenderContext frc;
+		final TextLayout[] lines;
+		final Rectangle bounds;
+
+		Layout(Style style, float scale, FontRenderContext frc, List<TextLayout> lines) {
+			this.style = style;
+			this.scale = scale;
+			this.frc = frc;
+			this.lines = lines.toArray(new TextLayout[0]);
+			int xsize = 0, ysize = (int) (style.leading * scale);
+			for (TextLayout line : lines) {
+				Rectangle2D lineBounds = line.getBounds();
+				if (lineBounds.getWidth() > xsize) {
+					xsize = (int) lineBounds.getWidth();
+				}
+				if (lineBounds.getHeight() > 0) {
+					ysize += lineBounds.getHeight();
+				}
+				ysize += line.getLeading() + line.getDescent();
+			}
+			this.bounds = new Rectangle((int) (style.indent * scale), 0, xsize, ysize);
+		}
+	}
+
 	public String toString() {
 		return "TextItem[" + getLevel()+","+getText()+"]";
 	}
@@ -0,0 +1,136 @@
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Future;
+import javax.swing.SwingUtilities;
+
+/**
+ * Low-resolution renderings of slides, for overviews such as the SlideSorter.
+ * Thumbnails are rendered on the BackgroundTasks pool (in parallel, off the
+ * EDT) by replaying the slide's DisplayList, and kept in a least recently
+ * used cache of fixed capacity. A thumbnail is rendered again when its
+ * slide has changed since (see Slide.getVersion()).
+ */
+public class ThumbnailCache {
+
+    public static final int DEFAULT_CAPACITY = 300;
+    public static final int DEFAULT_WIDTH = 160;
+
+    private final int capacity;
+    private final int width;
+    private final int height;
+    private final Map<Slide, Thumbnail> thumbnails; // access ordered: least recently used first
+    private final Map<Slide, Future<?>> pending = new HashMap<>();
+    private int generation; // incremented by clear(), so renders still running are discarded
+
+    public ThumbnailCache() {
+        this(DEFAULT_CAPACITY, DEFAULT_WIDTH);
+    }
+
+    /**
+     * @param capacity The number of thumbnails to keep.
+     * @param width    The width of a thumbnail, the height follows from the slide size.
+     */
+    public ThumbnailCache(int capacity, int width) {
+        if (capacity <= 0 || width <= 0) {
+            throw new IllegalArgumentException("Capacity and width must be positive");
+        }
+        this.capacity = capacity;
+        this.width = width;
+        this.height = width * Slide.HEIGHT / Slide.WIDTH;
+        this.thumbnails = new LinkedHashMap<Slide, Thumbnail>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Slide, Thumbnail> eldest) {
+                return size() > ThumbnailCache.this.capacity;
+            }
+        };
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gives the cached thumbnail of the slide, or null if there is none
+     * for its current version.
+     */
+    public synchronized BufferedImage get(Slide slide) {
+        Thumbnail thumbnail = thumbnails.get(slide);
+        return (thumbnail != null && thumbnail.version == slide.getVersion()) ? thumbnail.image : null;
+    }
+
+    /**
+     * Renders the thumbnail in the background unless it is cached or
+     * already being rendered. The callback runs on the EDT once it is ready.
+     */
+    public synchronized void request(Slide slide, Runnable onReady) {
+        if (get(slide) != null || pending.containsKey(slide)) {
+            return;
+        }
+        int version = slide.getVersion();
+        int requestGeneration = generation;
+        pending.put(slide, BackgroundTasks.executor().submit(() -> {
+            BufferedImage image = slide.getDisplayList().toImage(width, height, Color.WHITE);
+            synchronized (this) {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                thumbnails.put(slide, new Thumbnail(image, version));
+                pending.remove(slide);
+            }
+            if (onReady != null) {
+                SwingUtilities.invokeLater(onReady);
+            }
+        }));
+    }
+
+    /**
+     * Cancels the requests for slides that are no longer wanted, e.g. scrolled
+     * out of view, unless they are already being rendered.
+     */
+    public synchronized void retainPending(Set<Slide> wanted) {
+        for (Iterator<Map.Entry<Slide, Future<?>>> it = pending.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<Slide, Future<?>> entry = it.next();
+            if (!wanted.contains(entry.getKey()) && entry.getValue().cancel(false)) {
+                it.remove();
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return thumbnails.size();
+    }
+
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    public synchronized void clear() {
+        for (Future<?> future : pending.values()) {
+            future.cancel(false);
+        }
+        pending.clear();
+        thumbnails.clear();
+        generation++;
+    }
+
+    private static final class Thumbnail {
+        final BufferedImage image;
+        final int version;
+
+        Thumbnail(BufferedImage image, int version) {
+            this.image = image;
+            this.version = version;
+        }
+    }
+}
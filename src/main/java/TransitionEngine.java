@@ -0,0 +1,246 @@
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import javax.swing.Timer;
+
+/**
+ * Animates the change from one slide to the next in a SlideViewerComponent.
+ * The outgoing and incoming slides are put once into VolatileImages
+ * (accelerated when the graphics pipeline supports it) and each frame only
+ * composites the two images, so frames stay cheap at any slide complexity.
+ * The outgoing slide is copied from the view's cached slide layer when that
+ * still shows it; only the incoming slide is rendered.
+ * A Swing Timer drives the animation; progress follows the clock, so when
+ * a frame misses its deadline the next frame simply jumps ahead (the
+ * missed frames count as dropped), and when painting itself is too slow
+ * for the frame rate the timer halves its rate for the rest of the transition.
+ * Frame pacing is collected in getFrameStats() and printed after each transition,
+ * which starts it afresh.
+ */
+public class TransitionEngine {
+
+    /**
+     * The kinds of transition.
+     */
+    public enum Type {
+        NONE,  // switch at once, as without an engine
+        FADE,  // cross-fade from the old to the new slide
+        SLIDE, // the new slide slides in over the old one
+        PUSH   // the new slide pushes the old one out
+    }
+
+    private static final int FRAME_MILLIS = 16; // about 60 fps
+    private static final long FRAME_NANOS = FRAME_MILLIS * 1_000_000L;
+
+    private final SlideViewerComponent view;
+    private final FrameStats frameStats = new FrameStats("Transitions");
+    private final Timer timer;
+    private Type type = Type.NONE;
+    private int durationMillis = 400;
+
+    // --- State of the running transition ---
+    private boolean active;
+    private Slide from;
+    private Slide to;
+    private int direction; // 1 forward, -1 backward
+    private Image outgoing;
+    private Image incoming;
+    private long startNanos;
+    private long lastFrameNanos;
+    private float progress;
+
+    public TransitionEngine(SlideViewerComponent view) {
+        this.view = view;
+        this.timer = new Timer(FRAME_MILLIS, e -> tick(System.nanoTime()));
+        timer.setCoalesce(true); // late ticks collapse into one instead of queueing up
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public void setDurationMillis(int durationMillis) {
+        this.durationMillis = Math.max(FRAME_MILLIS, durationMillis);
+    }
+
+    public FrameStats getFrameStats() {
+        return frameStats;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Starts a transition between two slides. Does nothing and gives false
+     * when transitions are off or there is nothing to animate.
+     *
+     * @param direction Positive when moving forward through the presentation.
+     */
+    public boolean start(Slide oldSlide, Slide newSlide, int direction) {
+        if (type == Type.NONE || oldSlide == null || newSlide == null || oldSlide == newSlide
+                || view.getWidth() <= 0 || view.getHeight() <= 0) {
+            return false;
+        }
+        from = oldSlide;
+        to = newSlide;
+        this.direction = (direction < 0) ? -1 : 1;
+        outgoing = prepare(outgoing, from, true);
+        incoming = prepare(incoming, to, true);
+        frameStats.reset(); // the report covers this transition only
+        active = true;
+        progress = 0;
+        startNanos = System.nanoTime();
+        lastFrameNanos = 0;
+        timer.setDelay(FRAME_MILLIS);
+        timer.restart();
+        return true;
+    }
+
+    /**
+     * Stops the running transition, the view shows the new slide.
+     */
+    public void finish() {
+        if (!active) {
+            return;
+        }
+        timer.stop();
+        active = false;
+        from = null;
+        to = null;
+        System.out.println(frameStats);
+        view.repaint();
+    }
+
+    // Advances the animation to the given time and requests the next frame
+    void tick(long nowNanos) {
+        if (!active) {
+            return;
+        }
+        if (lastFrameNanos != 0) {
+            long interval = nowNanos - lastFrameNanos;
+            frameStats.recordFrame(interval);
+            for (long missed = interval / FRAME_NANOS - 1; missed > 0; missed--) {
+                frameStats.recordDroppedFrame();
+            }
+        }
+        lastFrameNanos = nowNanos;
+        progress = Math.min(1f, (nowNanos - startNanos) / (durationMillis * 1_000_000f));
+        if (progress >= 1f) {
+            finish();
+        } else {
+            view.repaint();
+        }
+    }
+
+    /**
+     * Paints the current frame of the transition. Gives false when no
+     * transition is running, the caller then paints the slide itself.
+     */
+    public boolean paint(Graphics2D g2d, int width, int height) {
+        if (!active) {
+            return false;
+        }
+        long start = System.nanoTime();
+        outgoing = prepare(outgoing, from, false);
+        incoming = prepare(incoming, to, false);
+        composite(g2d, type, outgoing, incoming, ease(progress), direction, width, height);
+        if (contentsLost(outgoing) || contentsLost(incoming)) {
+            view.repaint(); // rendered again by prepare on the next paint
+        }
+        if (System.nanoTime() - start > FRAME_NANOS && timer.getDelay() == FRAME_MILLIS) {
+            timer.setDelay(2 * FRAME_MILLIS); // painting can't keep up: half the frame rate
+        }
+        return true;
+    }
+
+    /**
+     * Draws one frame of a transition between two slide images.
+     *
+     * @param progress From 0 (only the old slide) to 1 (only the new slide).
+     */
+    static void composite(Graphics2D g2d, Type type, Image from, Image to, float progress,
+            int direction, int width, int height) {
+        int offset = Math.round(progress * width) * direction;
+        switch (type) {
+            case FADE:
+                g2d.drawImage(from, 0, 0, null);
+                g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, progress));
+                g2d.drawImage(to, 0, 0, null);
+                g2d.setComposite(AlphaComposite.SrcOver);
+                break;
+            case SLIDE:
+                g2d.drawImage(from, 0, 0, null);
+                g2d.drawImage(to, direction * width - offset, 0, null);
+                break;
+            case PUSH:
+                g2d.drawImage(from, -offset, 0, null);
+                g2d.drawImage(to, direction * width - offset, 0, null);
+                break;
+            default:
+                g2d.drawImage(to, 0, 0, null);
+                break;
+        }
+    }
+
+    // Slow at start and end
+    private static float ease(float t) {
+        return t * t * (3 - 2 * t);
+    }
+
+    // Gives an image of the slide at the size of the view, filling it when new or lost
+    private Image prepare(Image image, Slide slide, boolean render) {
+        int width = view.getWidth();
+        int height = view.getHeight();
+        if (image == null || image.getWidth(null) != width || image.getHeight(null) != height) {
+            image = createBuffer(width, height);
+            render = true;
+        }
+        if (image instanceof VolatileImage) {
+            VolatileImage volatileImage = (VolatileImage) image;
+            GraphicsConfiguration config = view.getGraphicsConfiguration();
+            int status = volatileImage.validate(config);
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                volatileImage.flush();
+                image = createBuffer(width, height);
+                render = true;
+            } else if (status == VolatileImage.IMAGE_RESTORED) {
+                render = true;
+            }
+        }
+        if (render) {
+            BufferedImage layer = view.getSlideLayerOf(slide); // in device pixels
+            Graphics2D g2d = (Graphics2D) image.getGraphics();
+            try {
+                if (layer != null) {
+                    g2d.drawImage(layer, 0, 0, width, height, null);
+                } else {
+                    view.renderSlide(g2d, slide, width, height);
+                }
+            } finally {
+                g2d.dispose();
+            }
+        }
+        return image;
+    }
+
+    private static boolean contentsLost(Image image) {
+        return image instanceof VolatileImage && ((VolatileImage) image).contentsLost();
+    }
+
+    // A VolatileImage when the view is on screen, otherwise a plain image
+    private Image createBuffer(int width, int height) {
+        VolatileImage image = view.createVolatileImage(width, height);
+        if (image != null) {
+            return image;
+        }
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+}
@@ -2,6 +2,9 @@ import org.w3c.dom.*;
 import org.xml.sax.*;
 import javax.xml.parsers.*;
 import java.io.*;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 /**
  * Concrete implementation of PresentationReader for loading presentations from XML files.
@@ -21,6 +24,8 @@ public class XMLPresentationReader implements PresentationReader {
     protected static final String IMAGE = "image";
     protected static final String BOLD = "bold";
     protected static final String UNDERLINE = "underline";
+    protected static final String INLINE_BOLD = "b";      // inline run element inside a text item
+    protected static final String INLINE_UNDERLINE = "u"; // inline run element inside a text item
     protected static final String PCE = "Parser Configuration Exception";
     protected static final String UNKNOWNTYPE = "Unknown Element type";
     protected static final String NFE = "Number Format Exception";
@@ -28,22 +33,59 @@ public class XMLPresentationReader implements PresentationReader {
 
     // --- Factory Instances ---
     private final SlideItemFactory textItemFactory = new TextItemFactory();
-    private final SlideItemFactory bitmapItemFactory = new BitmapItemFactory();
+    private final SlideItemFactory bitmapItemFactory; // null: images are searched relative to each deck
     // --- End Factory Instances ---
 
+    public XMLPresentationReader() {
+        this(null);
+    }
+
+    /**
+     * Creates a reader that creates the image items with the given factory,
+     * e.g. one that reads the images from a bundle.
+     */
+    public XMLPresentationReader(SlideItemFactory bitmapItemFactory) {
+        this.bitmapItemFactory = bitmapItemFactory;
+    }
+
     @Override
     public void load(Presentation presentation, String filename) throws IOException {
+        File xmlFile = new File(filename);
+        if (!xmlFile.exists()) {
+            System.err.println("XML file not found: " + xmlFile.getAbsolutePath());
+            throw new IOException("Cannot find file: " + filename);
+        }
+
+        System.out.println("Loading XML file from: " + xmlFile.getAbsolutePath());
+        try (InputStream in = new FileInputStream(xmlFile)) {
+            SlideItemFactory images = (bitmapItemFactory != null) ? bitmapItemFactory
+                    : new BitmapItemFactory(SearchPathAssetResolver.forDeck(xmlFile.toPath()), ImagePreloader.shared());
+            parse(presentation, in, filename, images);
+        }
+        presentation.setSaveIndex(SaveIndex.scan(xmlFile.toPath().toAbsolutePath(), presentation));
+        presentation.setFileName(xmlFile.getAbsolutePath());
+        presentation.markSaved(); // nothing to save until something changes
+        System.out.println("Successfully loaded " + presentation.getSize() + " slides from " + filename);
+    }
+
+    /**
+     * Loads the presentation from a stream, e.g. an entry of a bundle. The
+     * presentation does not get a file name, as it cannot be saved back there.
+     *
+     * @param name Names the source in messages.
+     */
+    public void load(Presentation presentation, InputStream in, String name) throws IOException {
+        parse(presentation, in, name, (bitmapItemFactory != null) ? bitmapItemFactory
+                : new BitmapItemFactory(SearchPathAssetResolver.forWorkingDirectory(), ImagePreloader.shared()));
+        presentation.markSaved();
+        System.out.println("Successfully loaded " + presentation.getSize() + " slides from " + name);
+    }
+
+    private void parse(Presentation presentation, InputStream in, String filename, SlideItemFactory images)
+            throws IOException {
         // --- Logic copied from XMLAccessor.loadFile ---
         int slideNumber, itemNumber, max = 0, maxItems = 0;
         try {
-            File xmlFile = new File(filename);
-            if (!xmlFile.exists()) {
-                System.err.println("XML file not found: " + xmlFile.getAbsolutePath());
-                throw new IOException("Cannot find file: " + filename);
-            }
-
-            System.out.println("Loading XML file from: " + xmlFile.getAbsolutePath());
-
             DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
             try {
                 factory.setValidating(false);
@@ -65,10 +107,15 @@ public class XMLPresentationReader implements PresentationReader {
                 @Override public void fatalError(SAXParseException e) throws SAXException { System.err.println("XML Fatal Error: " + e.getMessage()); throw e; }
             });
 
-            Document document = builder.parse(xmlFile);
+            Document document = builder.parse(in);
             Element doc = document.getDocumentElement();
             presentation.setTitle(getTitle(doc, SHOWTITLE)); // Use helper method
 
+            Set<String> imageNames = getImageNames(doc);
+            if (images instanceof BitmapItemFactory) { // look up all images in one go
+                ((BitmapItemFactory) images).resolveAll(imageNames);
+            }
+
             NodeList slides = doc.getElementsByTagName(SLIDE);
             max = slides.getLength();
             for (slideNumber = 0; slideNumber < max; slideNumber++) {
@@ -81,10 +128,15 @@ public class XMLPresentationReader implements PresentationReader {
                 maxItems = slideItems.getLength();
                 for (itemNumber = 0; itemNumber < maxItems; itemNumber++) {
                     Element item = (Element) slideItems.item(itemNumber);
-                    loadSlideItem(slide, item); // Use helper method
+                    loadSlideItem(slide, item, images); // Use helper method
                 }
             }
-            System.out.println("Successfully loaded " + max + " slides from " + filename);
+            if (images instanceof BitmapItemFactory) { // the images were decoded while parsing
+                ((BitmapItemFactory) images).awaitImages();
+            }
+            if (!imageNames.isEmpty()) {
+                System.out.println("Images: " + ImageStore.shared());
+            }
         } catch (IOException iox) {
             System.err.println("IOException during file load: " + iox.getMessage());
             System.err.println("Make sure the XML file exists and is accessible");
@@ -109,7 +161,20 @@ public class XMLPresentationReader implements PresentationReader {
         return "Untitled";
     }
 
-    private void loadSlideItem(Slide slide, Element item) {
+    // the names of all images in the document
+    private static Set<String> getImageNames(Element doc) {
+        Set<String> names = new LinkedHashSet<>();
+        NodeList items = doc.getElementsByTagName(ITEM);
+        for (int number = 0; number < items.getLength(); number++) {
+            Element item = (Element) items.item(number);
+            if (IMAGE.equals(item.getAttribute(KIND))) {
+                names.add(item.getTextContent());
+            }
+        }
+        return names;
+    }
+
+    private void loadSlideItem(Slide slide, Element item, SlideItemFactory bitmapItemFactory) {
         int level = 1;
         NamedNodeMap attributes = item.getAttributes();
         Node levelNode = attributes.getNamedItem(LEVEL);
@@ -127,6 +192,7 @@ public class XMLPresentationReader implements PresentationReader {
         SlideItem baseItem = null;
         if (TEXT.equals(type)) {
             baseItem = textItemFactory.createSlideItem(level, data);
+            applyInlineRuns((TextItem) baseItem, item);
             Node boldAttr = attributes.getNamedItem(BOLD);
             Node underlineAttr = attributes.getNamedItem(UNDERLINE);
             if (boldAttr != null && "true".equalsIgnoreCase(boldAttr.getTextContent())) { baseItem = new BoldTextDecorator(baseItem); }
@@ -135,8 +201,43 @@ public class XMLPresentationReader implements PresentationReader {
             baseItem = bitmapItemFactory.createSlideItem(level, data);
         }
 
-        if (baseItem != null) { slide.append(baseItem); }
+        if (baseItem != null) { slide.append(SlideItemCompiler.compile(baseItem)); } // Flatten decorators once, at load time
         else { System.err.println(UNKNOWNTYPE + ": " + type + ". Skip item."); }
     }
+
+    // Turns <b> and <u> child elements of a text item into inline style runs.
+    private void applyInlineRuns(TextItem textItem, Element item) {
+        byte[] characterFlags = new byte[textItem.getText().length()];
+        if (collectInlineRuns(item, 0, 0, characterFlags) > 0) {
+            textItem.setCharacterFlags(characterFlags);
+        }
+    }
+
+    // Walks the children of a node in document order, like getTextContent() does,
+    // marking each character with the flags of its enclosing inline elements.
+    // Returns the number of styled characters.
+    private int collectInlineRuns(Node node, int offset, int flags, byte[] characterFlags) {
+        int styled = 0;
+        for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+            short type = child.getNodeType();
+            if (type == Node.ELEMENT_NODE) {
+                int childFlags = flags;
+                if (INLINE_BOLD.equals(child.getNodeName())) { childFlags |= TextItem.BOLD; }
+                else if (INLINE_UNDERLINE.equals(child.getNodeName())) { childFlags |= TextItem.UNDERLINE; }
+                else { System.err.println("Warning: Unknown inline element <" + child.getNodeName() + ">, text kept unstyled."); }
+                int before = offset;
+                styled += collectInlineRuns(child, offset, childFlags, characterFlags);
+                offset = before + child.getTextContent().length();
+            } else if (type == Node.TEXT_NODE || type == Node.CDATA_SECTION_NODE) {
+                int length = child.getNodeValue().length();
+                if (flags != 0) {
+                    Arrays.fill(characterFlags, offset, offset + length, (byte) flags);
+                    styled += length;
+                }
+                offset += length;
+            }
+        }
+        return styled;
+    }
     // --- End helper methods ---
 }
\ No newline at end of file
@@ -1,11 +1,37 @@
-import java.io.*;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
-import java.util.Vector; // Assuming Slide still uses Vector
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 /**
  * Concrete implementation of PresentationWriter for saving presentations to XML files.
  * Handles unwrapping decorators to save correct attributes.
  * Implements SRP by focusing only on writing XML.
+ *
+ * The XML is streamed slide by slide through an XMLStreamWriter, which
+ * escapes text and attributes, into a large buffer over a FileChannel, so
+ * memory use does not grow with the deck. It is written to a temporary file
+ * next to the destination, which is then moved over the destination in one
+ * step: an interrupted save leaves the previous file intact.
+ *
+ * Saves are incremental: slides that were not modified since the file was
+ * loaded or last saved are copied from the old file with transferTo, using
+ * the byte ranges kept in the presentation's SaveIndex.
  */
 public class XMLPresentationWriter implements PresentationWriter {
 
@@ -20,64 +46,410 @@ public class XMLPresentationWriter implements PresentationWriter {
     protected static final String IMAGE = "image";
     protected static final String BOLD = "bold";
     protected static final String UNDERLINE = "underline";
+    protected static final String INLINE_BOLD = "b";
+    protected static final String INLINE_UNDERLINE = "u";
     // --- End Copied Constants ---
 
+    private static final String PRESENTATION = "presentation";
+    private static final String DOCTYPE = "<!DOCTYPE presentation SYSTEM \"jabberpoint.dtd\">";
+    private static final int BUFFER_SIZE = 1 << 20; // 1 MB of bytes in front of the channel
+    private static final int TEXT_BUFFER_SIZE = 1 << 16; // characters in front of the encoder
+
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+    private final UnaryOperator<String> imageNames; // the name to write for each image name
+
+    public XMLPresentationWriter() {
+        this(UnaryOperator.identity());
+    }
+
+    // writes other names for the images, e.g. their entries in a bundle
+    XMLPresentationWriter(UnaryOperator<String> imageNames) {
+        this.imageNames = imageNames;
+    }
+
     @Override
     public void save(Presentation presentation, String filename) throws IOException {
-        // --- Logic copied from XMLAccessor.saveFile ---
-        PrintWriter out = new PrintWriter(new OutputStreamWriter(new FileOutputStream(filename), StandardCharsets.UTF_8));
-        out.println("<?xml version=\"1.0\"?>");
-        out.println("<!DOCTYPE presentation SYSTEM \"jabberpoint.dtd\">");
-        out.println("<presentation>");
-        out.print("<showtitle>");
-        out.print(presentation.getTitle());
-        out.println("</showtitle>");
-        for (int slideNumber = 0; slideNumber < presentation.getSize(); slideNumber++) {
-            Slide slide = presentation.getSlide(slideNumber);
-            out.println("<slide>");
-            out.println("<title>" + slide.getTitle() + "</title>");
-            Vector<SlideItem> slideItems = slide.getSlideItems(); // Use clone returned by getSlideItems()
-            for (int itemNumber = 0; itemNumber < slideItems.size(); itemNumber++) {
-                SlideItem slideItem = slideItems.elementAt(itemNumber); // Get item from cloned list
-
-                SlideItem itemToSave = slideItem;
-                boolean isBold = false;
-                boolean isUnderlined = false;
-
-                // Correctly unwrap decorators
-                while (itemToSave instanceof SlideItemDecorator) {
-                    if (itemToSave instanceof UnderlineTextDecorator) {
-                        isUnderlined = true;
-                    } else if (itemToSave instanceof BoldTextDecorator) {
-                        isBold = true;
-                    }
-                    // Add else if for other decorators...
-                    itemToSave = ((SlideItemDecorator) itemToSave).decoratedItem;
+        Path destination = Paths.get(filename).toAbsolutePath();
+        Path temp = destination.resolveSibling(destination.getFileName() + ".tmp"); // same file system
+        SaveIndex previous = presentation.getSaveIndex();
+        if (previous != null && !previous.isValidFor(destination)) {
+            previous = null; // another file, or changed by someone else: write everything
+        }
+        SaveIndex next = new SaveIndex(destination);
+        int copied;
+        boolean moved = false;
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 FileChannel source = (previous == null) ? null
+                         : FileChannel.open(destination, StandardOpenOption.READ)) {
+                ChannelOutput out = new ChannelOutput(channel, BUFFER_SIZE);
+                copied = write(presentation, out, new SlideRanges(out, previous, source, next));
+                out.drain();
+                channel.force(true); // on disk before it replaces the old file
+            }
+            replace(temp, destination);
+            moved = true;
+        } finally {
+            if (!moved) {
+                Files.deleteIfExists(temp);
+            }
+        }
+        next.seal();
+        presentation.setSaveIndex(next);
+        presentation.setFileName(destination.toString());
+        presentation.markSaved();
+        System.out.println("Saved " + presentation.getSize() + " slides to " + destination
+                + " (" + copied + " copied unchanged)");
+    }
+
+    /**
+     * Writes the presentation as XML to the stream, without closing it.
+     */
+    public void write(Presentation presentation, OutputStream out) throws IOException {
+        write(presentation, out, null);
+    }
+
+    // Writes the XML, copying unmodified slides from the old file when ranges is not null.
+    // Returns the number of copied slides.
+    private int write(Presentation presentation, OutputStream out, SlideRanges ranges) throws IOException {
+        int copied = 0;
+        try {
+            // The XML writer escapes character by character, so it gets an unsynchronized buffer
+            // and the characters are encoded in bulk (its own UTF-8 stream encodes byte by byte)
+            Writer text = new CharacterBuffer(new OutputStreamWriter(out, StandardCharsets.UTF_8), TEXT_BUFFER_SIZE);
+            XMLStreamWriter xml = OUTPUT_FACTORY.createXMLStreamWriter(text);
+            xml.writeStartDocument("UTF-8", "1.0");
+            xml.writeCharacters("\n");
+            xml.writeDTD(DOCTYPE);
+            xml.writeCharacters("\n");
+            xml.writeStartElement(PRESENTATION);
+            xml.writeCharacters("\n");
+            writeElement(xml, SHOWTITLE, presentation.getTitle());
+            for (int slideNumber = 0; slideNumber < presentation.getSize(); slideNumber++) {
+                Slide slide = presentation.getSlide(slideNumber);
+                if (ranges == null) {
+                    writeSlide(xml, slide);
+                    xml.writeCharacters("\n");
+                    continue;
+                }
+                xml.flush(); // everything before the slide is in the channel buffer now
+                if (!slide.isModified() && ranges.copy(slide)) {
+                    copied++;
+                    continue;
+                }
+                ranges.flushCopies();
+                long start = ranges.position();
+                writeSlide(xml, slide);
+                xml.flush();
+                ranges.record(slide, start);
+                xml.writeCharacters("\n");
+            }
+            if (ranges != null) {
+                xml.flush();
+                ranges.flushCopies();
+            }
+            xml.writeEndElement();
+            xml.writeCharacters("\n");
+            xml.writeEndDocument();
+            xml.close(); // does not close the Writer
+            text.flush();
+        } catch (XMLStreamException ex) {
+            throw new IOException("Could not write XML: " + ex.getMessage(), ex);
+        }
+        return copied;
+    }
+
+    // Moves the finished file over the destination, atomically where the file system can
+    static void replace(Path temp, Path destination) throws IOException {
+        try {
+            Files.move(temp, destination, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            System.err.println("Atomic move not supported, replacing " + destination + " directly");
+            Files.move(temp, destination, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void writeSlide(XMLStreamWriter xml, Slide slide) throws XMLStreamException {
+        xml.writeStartElement(SLIDE);
+        xml.writeCharacters("\n");
+        writeElement(xml, SLIDETITLE, slide.getTitle());
+        for (int itemNumber = 0; itemNumber < slide.getSize(); itemNumber++) {
+            writeItem(xml, slide.getSlideItem(itemNumber));
+        }
+        xml.writeEndElement();
+    }
+
+    private void writeItem(XMLStreamWriter xml, SlideItem slideItem) throws XMLStreamException {
+        SlideItem itemToSave = slideItem;
+        boolean isBold = false;
+        boolean isUnderlined = false;
+
+        // Correctly unwrap decorators
+        while (itemToSave instanceof SlideItemDecorator) {
+            if (itemToSave instanceof UnderlineTextDecorator) {
+                isUnderlined = true;
+            } else if (itemToSave instanceof BoldTextDecorator) {
+                isBold = true;
+            }
+            // Add else if for other decorators...
+            itemToSave = ((SlideItemDecorator) itemToSave).decoratedItem;
+        }
+        if (itemToSave instanceof StyledTextItem) { // Decorators flattened at load time
+            isBold |= ((StyledTextItem) itemToSave).isBold();
+            isUnderlined |= ((StyledTextItem) itemToSave).isUnderlined();
+        }
+
+        if (itemToSave instanceof TextItem) {
+            xml.writeStartElement(ITEM);
+            xml.writeAttribute(KIND, TEXT);
+            xml.writeAttribute(LEVEL, Integer.toString(slideItem.getLevel())); // Use original decorator level
+            if (isBold) xml.writeAttribute(BOLD, "true");
+            if (isUnderlined) xml.writeAttribute(UNDERLINE, "true");
+            TextItem textItem = (TextItem) itemToSave;
+            if (textItem.hasInlineStyles()) {
+                writeInlineRuns(xml, textItem); // <b>/<u> runs
+            } else {
+                xml.writeCharacters(textItem.getText()); // Get text from base item
+            }
+        } else if (itemToSave instanceof BitmapItem) {
+            xml.writeStartElement(ITEM);
+            xml.writeAttribute(KIND, IMAGE);
+            xml.writeAttribute(LEVEL, Integer.toString(slideItem.getLevel())); // Use original decorator level
+            xml.writeCharacters(imageNames.apply(((BitmapItem) itemToSave).getName())); // Get name from base item
+        } else {
+            System.out.println("Ignoring unknown item type during save: " + slideItem);
+            return; // Skip this item
+        }
+        xml.writeEndElement();
+        xml.writeCharacters("\n");
+    }
+
+    // Writes the text of the item with its inline style runs as <b> and <u> elements.
+    private static void writeInlineRuns(XMLStreamWriter xml, TextItem textItem) throws XMLStreamException {
+        String text = textItem.getText();
+        for (int run = 0; run < textItem.getRunCount(); run++) {
+            int flags = textItem.getRunFlags(run);
+            boolean bold = (flags & TextItem.BOLD) != 0;
+            boolean underlined = (flags & TextItem.UNDERLINE) != 0;
+            if (bold) xml.writeStartElement(INLINE_BOLD);
+            if (underlined) xml.writeStartElement(INLINE_UNDERLINE);
+            int start = textItem.getRunStart(run);
+            xml.writeCharacters(text.substring(start, textItem.getRunLimit(run)));
+            if (underlined) xml.writeEndElement();
+            if (bold) xml.writeEndElement();
+        }
+    }
+
+    // Writes <name>text</name> on its own line, an empty element for a missing text.
+    private static void writeElement(XMLStreamWriter xml, String name, String text) throws XMLStreamException {
+        xml.writeStartElement(name);
+        if (text != null) {
+            xml.writeCharacters(text);
+        }
+        xml.writeEndElement();
+        xml.writeCharacters("\n");
+    }
+
+    // A Writer buffer without the per-call locking of BufferedWriter
+    private static final class CharacterBuffer extends Writer {
+        private final Writer out;
+        private final char[] buffer;
+        private int count;
+
+        CharacterBuffer(Writer out, int size) {
+            this.out = out;
+            this.buffer = new char[size];
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            if (count == buffer.length) {
+                flushBuffer();
+            }
+            buffer[count++] = (char) c;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) throws IOException {
+            if (length > buffer.length - count) {
+                flushBuffer();
+                if (length > buffer.length) {
+                    out.write(chars, offset, length);
+                    return;
+                }
+            }
+            System.arraycopy(chars, offset, buffer, count, length);
+            count += length;
+        }
+
+        @Override
+        public void write(String string, int offset, int length) throws IOException {
+            if (length > buffer.length - count) {
+                flushBuffer();
+                if (length > buffer.length) {
+                    out.write(string, offset, length);
+                    return;
                 }
+            }
+            string.getChars(offset, offset + length, buffer, count);
+            count += length;
+        }
+
+        private void flushBuffer() throws IOException {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            flushBuffer();
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush(); // the stream belongs to the caller
+        }
+    }
+
+    // Byte positions of the slides in the new file, and copying from the old one.
+    // Unmodified slides that follow each other in the old file are copied with
+    // one transferTo, together with the whitespace between them.
+    private static final class SlideRanges {
+        private static final int MAX_GAP = 64; // whitespace between slides that is copied along
+
+        private final ChannelOutput out;
+        private final SaveIndex previous; // null when nothing can be copied
+        private final FileChannel source;
+        private final SaveIndex next;
+        private final List<Slide> pending = new ArrayList<>(); // slides of the run not copied yet
+        private long pendingStart;
+        private long pendingEnd;
+
+        SlideRanges(ChannelOutput out, SaveIndex previous, FileChannel source, SaveIndex next) {
+            this.out = out;
+            this.previous = previous;
+            this.source = source;
+            this.next = next;
+        }
+
+        long position() throws IOException {
+            return out.position();
+        }
+
+        // add the slide to the run of slides to copy, if it is in the old file
+        boolean copy(Slide slide) throws IOException {
+            long[] range = (previous == null) ? null : previous.get(slide);
+            if (range == null) {
+                return false;
+            }
+            if (!pending.isEmpty() && !isWhitespace(pendingEnd, range[0])) {
+                flushCopies();
+            }
+            if (pending.isEmpty()) {
+                pendingStart = range[0];
+            }
+            pendingEnd = range[1];
+            pending.add(slide);
+            return true;
+        }
+
+        // copy the pending run, followed by a line break like a written slide
+        void flushCopies() throws IOException {
+            if (pending.isEmpty()) {
+                return;
+            }
+            long base = out.position();
+            out.transferFrom(source, pendingStart, pendingEnd);
+            for (Slide slide : pending) {
+                long[] range = previous.get(slide);
+                next.put(slide, base + range[0] - pendingStart, base + range[1] - pendingStart);
+            }
+            pending.clear();
+            out.write('\n');
+        }
+
+        void record(Slide slide, long start) throws IOException {
+            next.put(slide, start, out.position());
+        }
 
-                out.print("<item kind=");
-                if (itemToSave instanceof TextItem) {
-                    out.print("\"" + TEXT + "\" level=\"" + slideItem.getLevel() + "\""); // Use original decorator level
-                    if (isBold) out.print(" " + BOLD + "=\"true\"");
-                    if (isUnderlined) out.print(" " + UNDERLINE + "=\"true\"");
-                    out.print(">");
-                    out.print(((TextItem) itemToSave).getText()); // Get text from base item
+        // tell if the old file has only whitespace from start up to end
+        private boolean isWhitespace(long start, long end) throws IOException {
+            if (end < start || end - start > MAX_GAP) {
+                return false;
+            }
+            ByteBuffer gap = ByteBuffer.allocate((int) (end - start));
+            while (gap.hasRemaining()) {
+                if (source.read(gap, start + gap.position()) < 0) {
+                    return false;
                 }
-                else if (itemToSave instanceof BitmapItem) {
-                    out.print("\"" + IMAGE + "\" level=\"" + slideItem.getLevel() + "\""); // Use original decorator level
-                    out.print(">");
-                    out.print(((BitmapItem) itemToSave).getName()); // Get name from base item
+            }
+            for (int i = 0; i < gap.limit(); i++) {
+                byte b = gap.get(i);
+                if (b != ' ' && b != '\t' && b != '\r' && b != '\n') {
+                    return false;
                 }
-                else {
-                    System.out.println("Ignoring unknown item type during save: " + slideItem);
-                    continue; // Skip this item
+            }
+            return true;
+        }
+    }
+
+    // A buffered stream over a FileChannel that knows its position and can
+    // copy ranges of another file with transferTo. flush() does not write,
+    // so the writers above it can be flushed at every slide; drain() does.
+    private static final class ChannelOutput extends OutputStream {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        ChannelOutput(FileChannel channel, int size) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(size);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            buffer.put((byte) b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                if (!buffer.hasRemaining()) {
+                    drain();
+                }
+                int chunk = Math.min(length, buffer.remaining());
+                buffer.put(bytes, offset, chunk);
+                offset += chunk;
+                length -= chunk;
+            }
+        }
+
+        long position() throws IOException {
+            return channel.position() + buffer.position();
+        }
+
+        void transferFrom(FileChannel source, long start, long end) throws IOException {
+            drain();
+            for (long position = start; position < end; ) {
+                long transferred = source.transferTo(position, end - position, channel);
+                if (transferred <= 0) {
+                    throw new IOException("Slide range " + start + "-" + end + " not in the previous file");
                 }
-                out.println("</item>");
+                position += transferred;
+            }
+        }
+
+        void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
             }
-            out.println("</slide>");
+            buffer.clear();
         }
-        out.println("</presentation>");
-        out.close();
-        // --- End copied logic ---
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,101 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.font.FontRenderContext;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the render quality profiles and AdaptiveQualityController.
+ */
+class AdaptiveQualityControllerTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private SlideViewerComponent view;
+    private AdaptiveQualityController controller;
+
+    @BeforeEach
+    void setUp() {
+        view = new SlideViewerComponent(new Presentation("Quality"));
+        controller = new AdaptiveQualityController(view, 100);
+    }
+
+    @Test
+    @DisplayName("The profiles should switch anti-aliasing and image scaling")
+    void profilesShouldSetHints() {
+        Graphics2D g2d = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB).createGraphics();
+        RenderQuality.FAST.apply(g2d);
+        assertEquals(RenderingHints.VALUE_ANTIALIAS_OFF, g2d.getRenderingHint(RenderingHints.KEY_ANTIALIASING));
+        assertEquals(RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR,
+                g2d.getRenderingHint(RenderingHints.KEY_INTERPOLATION));
+        RenderQuality.HIGH.apply(g2d);
+        assertEquals(RenderingHints.VALUE_ANTIALIAS_ON, g2d.getRenderingHint(RenderingHints.KEY_ANTIALIASING));
+        assertEquals(RenderingHints.VALUE_TEXT_ANTIALIAS_ON, g2d.getRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING));
+        g2d.dispose();
+    }
+
+    @Test
+    @DisplayName("The profiles should lay text out the same, so the layout caches are shared")
+    void profilesShouldKeepFontRenderContext() {
+        Graphics2D g2d = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB).createGraphics();
+        RenderQuality.HIGH.apply(g2d);
+        FontRenderContext high = g2d.getFontRenderContext();
+        RenderQuality.FAST.apply(g2d);
+        assertEquals(high, g2d.getFontRenderContext());
+        g2d.dispose();
+    }
+
+    @Test
+    @DisplayName("A single input should keep full quality")
+    void singleInputShouldKeepQuality() {
+        controller.onInput(1000 * MILLIS);
+        assertFalse(controller.isBursting());
+        controller.onInput(2000 * MILLIS); // long after the first
+        assertEquals(RenderQuality.HIGH, view.getRenderQuality());
+    }
+
+    @Test
+    @DisplayName("Rapid input should switch to the fast profile until input is idle")
+    void burstShouldLowerQualityUntilIdle() {
+        controller.onInput(1000 * MILLIS);
+        controller.onInput(1030 * MILLIS);
+        assertTrue(controller.isBursting());
+        assertEquals(RenderQuality.FAST, view.getRenderQuality());
+        controller.settle();
+        assertFalse(controller.isBursting());
+        assertEquals(RenderQuality.HIGH, view.getRenderQuality());
+    }
+
+    @Test
+    @DisplayName("Resizing during a burst should stretch the slide instead of rendering it again")
+    void resizeDuringBurstShouldReuseLayer() {
+        try { Style.createStyles(); } catch (ExceptionInInitializerError e) { /* ignore */ }
+        Presentation presentation = new Presentation("Resize");
+        SlideViewerComponent resized = new SlideViewerComponent(presentation);
+        OverlayCompositingTest.CountingItem item = new OverlayCompositingTest.CountingItem();
+        Slide slide = new Slide();
+        slide.append(item);
+        presentation.addSlide(slide);
+        presentation.setSlideNumber(0);
+        resized.setSize(400, 300);
+        paint(resized, 400, 300);
+        resized.setRenderQuality(RenderQuality.FAST);
+        resized.setSize(420, 310);
+        paint(resized, 420, 310);
+        assertEquals(1, item.drawCount, "The old rendering is stretched");
+        resized.setRenderQuality(RenderQuality.HIGH);
+        paint(resized, 420, 310);
+        assertEquals(2, item.drawCount, "Rendered again at full quality");
+    }
+
+    private static void paint(SlideViewerComponent component, int width, int height) {
+        Graphics2D g2d = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB).createGraphics();
+        component.paintComponent(g2d);
+        g2d.dispose();
+    }
+}
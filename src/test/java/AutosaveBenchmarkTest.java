@@ -0,0 +1,70 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Time an autosave tick takes on the calling (EDT) thread for a deck of
+ * about 130 MB, and how long the background save takes.
+ * Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class AutosaveBenchmarkTest {
+
+    private static final int SLIDES = 20_000;
+    private static final int ITEMS_PER_SLIDE = 50;
+
+    @BeforeEach
+    void setUp() {
+        Style.createStyles();
+    }
+
+    @Test
+    void tickTimeOnLargeDeck(@TempDir Path tempDir) throws Exception {
+        Presentation presentation = createDeck();
+        AutosaveManager manager = new AutosaveManager(presentation, tempDir.resolve("autosave.xml"),
+                new XMLPresentationWriter(), 1000);
+
+        long start = System.nanoTime();
+        Future<?> save = manager.autosave(); // first snapshot copies every slide
+        long firstTickNanos = System.nanoTime() - start;
+        save.get(60, TimeUnit.SECONDS);
+        long firstSaveNanos = System.nanoTime() - start;
+
+        presentation.getSlide(SLIDES / 2).append(1, "One more point");
+        start = System.nanoTime();
+        save = manager.autosave(); // shares all other slides
+        long tickNanos = System.nanoTime() - start;
+        save.get(60, TimeUnit.SECONDS);
+        long saveNanos = System.nanoTime() - start;
+
+        System.out.printf("Autosave %.1f MB: first tick %.2f ms on the EDT (save %.0f ms), "
+                        + "after one change %.2f ms on the EDT (save %.0f ms)%n",
+                Files.size(manager.getFile()) / 1e6, firstTickNanos / 1e6, firstSaveNanos / 1e6,
+                tickNanos / 1e6, saveNanos / 1e6);
+        assertTrue(tickNanos < saveNanos);
+    }
+
+    private static Presentation createDeck() {
+        Presentation presentation = new Presentation("Large deck");
+        CompactSlideStore store = new CompactSlideStore();
+        for (int number = 0; number < SLIDES; number++) {
+            Slide slide = new Slide();
+            slide.setTitle("Slide " + number);
+            for (int item = 0; item < ITEMS_PER_SLIDE; item++) {
+                slide.append(1 + item % 3, "Item " + item + " of slide " + number
+                        + " with some text & a <tag> to escape, long enough to wrap the line");
+            }
+            presentation.addSlide(store.add(slide));
+        }
+        store.trim();
+        return presentation;
+    }
+}
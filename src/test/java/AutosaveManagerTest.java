@@ -0,0 +1,147 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the copy-on-write snapshots and the background saves of AutosaveManager.
+ * The timer is not started; the tests call autosave() like a tick would.
+ */
+class AutosaveManagerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Presentation presentation;
+    private Path file;
+
+    @BeforeEach
+    void setUp() {
+        try { Style.createStyles(); } catch (ExceptionInInitializerError e) { /* ignore */ }
+        presentation = new Presentation("Autosaved");
+        for (int number = 0; number < 3; number++) {
+            Slide slide = new Slide();
+            slide.setTitle("Slide " + number);
+            slide.append(1, "Item of slide " + number);
+            presentation.addSlide(slide);
+        }
+        file = tempDir.resolve("autosave.xml");
+    }
+
+    private AutosaveManager createManager(PresentationWriter writer) {
+        return new AutosaveManager(presentation, file, writer, 1000);
+    }
+
+    @Test
+    @DisplayName("Unchanged slides should share their snapshot, changed ones get a new one")
+    void snapshotsShouldBeCopyOnWrite() {
+        Presentation first = presentation.snapshot();
+        Presentation second = presentation.snapshot();
+        assertSame(first.getSlide(0), second.getSlide(0));
+
+        presentation.getSlide(1).append(2, "Added");
+        Presentation third = presentation.snapshot();
+
+        assertSame(first.getSlide(0), third.getSlide(0));
+        assertNotSame(first.getSlide(1), third.getSlide(1));
+        assertEquals(1, first.getSlide(1).getSize(), "An older snapshot does not see the change");
+        assertEquals(2, third.getSlide(1).getSize());
+        assertThrows(UnsupportedOperationException.class, () -> third.getSlide(0).append(1, "No"));
+        assertThrows(UnsupportedOperationException.class, () -> third.getSlide(0).setTitle("No"));
+    }
+
+    @Test
+    @DisplayName("Snapshots of compact slides should share the packed items")
+    void compactSnapshotShouldKeepContent() {
+        CompactSlideStore store = new CompactSlideStore();
+        Slide compact = store.add(presentation.getSlide(0));
+        compact.append(3, "Appended");
+
+        Slide snapshot = compact.snapshot();
+
+        assertTrue(snapshot.isSnapshot());
+        assertEquals("Slide 0", snapshot.getTitle());
+        assertEquals(2, snapshot.getSize());
+        assertEquals("Appended", ((TextItem) snapshot.getSlideItem(1)).getText());
+    }
+
+    @Test
+    @DisplayName("An autosave should write the snapshot, not later changes")
+    void autosaveShouldWriteSnapshot() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger savedSlides = new AtomicInteger();
+        AutosaveManager manager = createManager((snapshot, destination) -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            new XMLPresentationWriter().save(snapshot, destination);
+            savedSlides.set(snapshot.getSize());
+        });
+
+        Future<?> save = manager.autosave();
+        assertNotNull(save);
+        presentation.addSlide(new Slide()); // while the save is running
+        assertNull(manager.autosave(), "No second save while one is running");
+        release.countDown();
+        save.get(5, TimeUnit.SECONDS);
+
+        assertEquals(3, savedSlides.get());
+        Presentation recovered = new Presentation("Recovered");
+        new XMLPresentationReader().load(recovered, file.toString());
+        assertEquals("Item of slide 2", ((TextItem) recovered.getSlide(2).getSlideItem(0)).getText());
+    }
+
+    @Test
+    @DisplayName("Nothing should be written when nothing changed since the last autosave")
+    void unchangedPresentationShouldNotBeWrittenAgain() throws Exception {
+        AtomicInteger saves = new AtomicInteger();
+        AutosaveManager manager = createManager((snapshot, destination) -> {
+            saves.incrementAndGet();
+            new XMLPresentationWriter().save(snapshot, destination);
+        });
+
+        manager.autosave().get(5, TimeUnit.SECONDS);
+        assertNull(manager.autosave());
+
+        presentation.getSlide(0).setTitle("Changed");
+        manager.autosave().get(5, TimeUnit.SECONDS);
+        assertEquals(2, saves.get());
+    }
+
+    @Test
+    @DisplayName("A normal save should remove the autosave file")
+    void normalSaveShouldRemoveAutosave() throws Exception {
+        AutosaveManager manager = createManager(new XMLPresentationWriter());
+        manager.autosave().get(5, TimeUnit.SECONDS);
+        assertTrue(manager.hasRecovery());
+
+        new XMLPresentationWriter().save(presentation, tempDir.resolve("deck.xml").toString());
+        manager.autosave().get(5, TimeUnit.SECONDS);
+
+        assertFalse(Files.exists(file));
+        assertFalse(manager.hasRecovery());
+    }
+
+    @Test
+    @DisplayName("A left behind autosave file should be offered and can be discarded")
+    void recoveryFileCanBeDiscarded() throws Exception {
+        Files.write(file, new byte[] {'x'});
+        AutosaveManager manager = createManager(new XMLPresentationWriter());
+        assertTrue(manager.hasRecovery());
+
+        manager.discardRecovery();
+
+        assertFalse(manager.hasRecovery());
+    }
+}
@@ -0,0 +1,105 @@
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import javax.imageio.ImageIO;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BitmapItem.draw with the pixel formats ImageIO produces, against the same
+ * images after ImageNormalizer, drawn into an integer RGB back buffer at
+ * full and reduced scale. The items are loaded from files through a
+ * resolver, with normalization switched off for the decoded ones.
+ * Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class BitmapItemDrawBenchmarkTest {
+
+    private static final int WIDTH = 1024;
+    private static final int HEIGHT = 768;
+    private static final int DRAWS = 200;
+    private static final float[] SCALES = {1.0f, 0.75f};
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void drawDecodedAndNormalizedImages() throws IOException {
+        try { Style.createStyles(); } catch (ExceptionInInitializerError e) { /* ignore */ }
+        Style style = Style.getStyle(1);
+        BufferedImage screen = new BufferedImage(WIDTH + 200, HEIGHT + 200, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = screen.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        int[] types = {BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR, BufferedImage.TYPE_BYTE_INDEXED};
+        String[] formats = {"jpg", "png", "gif"};
+        String[] names = {"3BYTE_BGR (JPEG)", "4BYTE_ABGR (PNG alpha)", "BYTE_INDEXED (GIF)"};
+        for (int index = 0; index < types.length; index++) {
+            // two files with different content, so the shared ImageStore decodes each
+            write(types[index], formats[index], "decoded", 1);
+            write(types[index], formats[index], "normalized", 2);
+        }
+        SearchPathAssetResolver resolver = new SearchPathAssetResolver(List.of(tempDir)); // lists the files once
+        System.out.printf("BitmapItem.draw of %dx%d images, %d draws%n", WIDTH, HEIGHT, DRAWS);
+        for (int index = 0; index < types.length; index++) {
+            BitmapItem decoded;
+            System.setProperty(ImageNormalizer.ENABLED_PROPERTY, "false");
+            try {
+                decoded = new BitmapItem(1, fileName(types[index], formats[index], "decoded"), resolver);
+            } finally {
+                System.clearProperty(ImageNormalizer.ENABLED_PROPERTY);
+            }
+            BitmapItem normalized = new BitmapItem(1, fileName(types[index], formats[index], "normalized"), resolver);
+            assertEquals(types[index], decoded.getImage().getType(), "The codec's format");
+            assertNotEquals(types[index], normalized.getImage().getType());
+            for (float scale : SCALES) {
+                double before = time(decoded, g, scale, style);
+                double after = time(normalized, g, scale, style);
+                System.out.printf("  %-24s scale %.2f: %7.3f ms -> %7.3f ms per draw (%.1fx)%n",
+                        names[index], scale, before, after, before / after);
+            }
+        }
+        g.dispose();
+    }
+
+    // best average of 3 rounds, after a warm-up
+    private static double time(BitmapItem item, Graphics2D g, float scale, Style style) {
+        for (int draw = 0; draw < DRAWS / 4; draw++) {
+            item.draw(0, 0, scale, g, style, null);
+        }
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (int draw = 0; draw < DRAWS; draw++) {
+                item.draw(0, 0, scale, g, style, null);
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1e6 / DRAWS;
+    }
+
+    private static String fileName(int type, String format, String variant) {
+        return variant + "-" + type + "." + format;
+    }
+
+    // writes a generated image of the type in the format
+    private void write(int type, String format, String variant, long seed) throws IOException {
+        Random random = new Random(seed);
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, type);
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                int alpha = (type == BufferedImage.TYPE_4BYTE_ABGR) ? (x * 255 / WIDTH) << 24 : 0xff000000;
+                image.setRGB(x, y, alpha | ((x ^ y) & 0xff) << 16 | (y & 0xff) << 8 | random.nextInt(32));
+            }
+        }
+        assertTrue(ImageIO.write(image, format, tempDir.resolve(fileName(type, format, variant)).toFile()),
+                "A writer for " + format);
+    }
+}
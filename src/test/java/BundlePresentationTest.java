@@ -0,0 +1,150 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import javax.imageio.ImageIO;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests packaging a deck into a bundle and loading it back.
+ */
+class BundlePresentationTest {
+
+    @TempDir
+    Path tempDir;
+    private Path logo;
+    private Path photo;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        try { Style.createStyles(); } catch (ExceptionInInitializerError e) { /* ignore */ }
+        Path images = Files.createDirectories(tempDir.resolve("images-source"));
+        logo = writeImage(images.resolve("logo.png"), 20, 10);
+        photo = writeImage(images.resolve("photo.png"), 30, 15);
+    }
+
+    private static Path writeImage(Path file, int width, int height) throws IOException {
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", file.toFile());
+        return file;
+    }
+
+    private Presentation deck() {
+        Presentation presentation = new Presentation("Bundled");
+        Slide slide = new Slide();
+        slide.setTitle("Images");
+        slide.append(1, "Relative and absolute names");
+        slide.append(new BitmapItem(1, "logo.png", logo));
+        slide.append(new BitmapItem(2, photo.toString(), photo)); // absolute name
+        presentation.addSlide(slide);
+        Slide second = new Slide();
+        second.setTitle("The logo again");
+        second.append(new BitmapItem(1, "logo.png", logo));
+        presentation.addSlide(second);
+        return presentation;
+    }
+
+    @Test
+    @DisplayName("Images should be stored, the deck compressed, and each image only once")
+    void shouldStoreImages() throws IOException {
+        Path bundle = tempDir.resolve("deck.jpz");
+        new BundlePresentationWriter().save(deck(), bundle.toString());
+
+        try (ZipFile zip = new ZipFile(bundle.toFile())) {
+            assertEquals(3, zip.size(), "deck.xml, logo.png and photo.png");
+            assertEquals(ZipEntry.DEFLATED, zip.getEntry("deck.xml").getMethod());
+            assertEquals(ZipEntry.STORED, zip.getEntry("logo.png").getMethod());
+            assertEquals(ZipEntry.STORED, zip.getEntry("images/photo.png").getMethod());
+            assertEquals(Files.size(logo), zip.getEntry("logo.png").getCompressedSize());
+        }
+        assertFalse(Files.exists(tempDir.resolve("deck.jpz.tmp")));
+    }
+
+    @Test
+    @DisplayName("A bundle should load with its images, without extracting them")
+    void shouldLoadBundle() throws IOException {
+        Path bundle = tempDir.resolve("deck.jpz");
+        new BundlePresentationWriter().save(deck(), bundle.toString());
+        Files.delete(logo);
+        Files.delete(photo); // only the bundle is left
+
+        Presentation loaded = new Presentation("Loaded");
+        BundlePresentationReader.forFile(bundle.toString()).load(loaded, bundle.toString());
+
+        assertEquals("Bundled", loaded.getTitle());
+        assertEquals(2, loaded.getSize());
+        BitmapItem relative = (BitmapItem) loaded.getSlide(0).getSlideItem(1);
+        BitmapItem absolute = (BitmapItem) loaded.getSlide(0).getSlideItem(2);
+        assertEquals("logo.png", relative.getName());
+        assertEquals("images/photo.png", absolute.getName(), "The XML refers to the entry");
+        assertNotNull(relative.getSource(), "Image read from the bundle");
+        assertEquals("/logo.png", relative.getSource().toString());
+        assertNotNull(absolute.getSource());
+        assertFalse(loaded.isModified());
+        assertNull(loaded.getFileName(), "A bundle is not saved back as XML");
+        try (var files = Files.list(tempDir)) {
+            assertEquals(2, files.count(), "Only the bundle and the image directory");
+        }
+    }
+
+    @Test
+    @DisplayName("A loaded bundle should export again with its images")
+    void shouldExportLoadedBundle() throws IOException {
+        Path bundle = tempDir.resolve("deck.jpz");
+        new BundlePresentationWriter().save(deck(), bundle.toString());
+        Presentation loaded = new Presentation("Loaded");
+        new BundlePresentationReader().load(loaded, bundle.toString());
+
+        Path again = tempDir.resolve("again.jpz");
+        new BundlePresentationWriter().save(loaded, again.toString());
+
+        try (ZipFile zip = new ZipFile(again.toFile())) {
+            assertNotNull(zip.getEntry("logo.png"));
+            assertNotNull(zip.getEntry("images/photo.png"));
+        }
+    }
+
+    @Test
+    @DisplayName("A file without a deck entry is not a bundle")
+    void shouldRejectZipWithoutDeck() throws IOException {
+        Path bundle = tempDir.resolve("empty.jpz");
+        try (var zip = new java.util.zip.ZipOutputStream(Files.newOutputStream(bundle))) {
+            zip.putNextEntry(new ZipEntry("readme.txt"));
+            zip.closeEntry();
+        }
+
+        IOException ex = assertThrows(IOException.class,
+                () -> new BundlePresentationReader().load(new Presentation("x"), bundle.toString()));
+        assertTrue(ex.getMessage().contains("deck.xml"));
+    }
+
+    @Test
+    @DisplayName("Unsafe or clashing image names should get unique entries under images/")
+    void shouldNameEntries() {
+        Map<String, String> entries = BundlePresentationWriter.entryNames(new LinkedHashSet<>(List.of(
+                "slides/a.png", "../b.png", "/tmp/b.png", "C:\\pictures\\c.png", "deck.xml")));
+
+        assertEquals("slides/a.png", entries.get("slides/a.png"));
+        assertEquals("images/b.png", entries.get("../b.png"));
+        assertEquals("images/2-b.png", entries.get("/tmp/b.png"));
+        assertEquals("images/c.png", entries.get("C:\\pictures\\c.png"));
+        assertEquals("images/deck.xml", entries.get("deck.xml"));
+    }
+
+    @Test
+    @DisplayName("Readers should be chosen by extension")
+    void shouldChooseReader() {
+        assertTrue(BundlePresentationReader.forFile("talk.JPZ") instanceof BundlePresentationReader);
+        assertTrue(BundlePresentationReader.forFile("talk.xml") instanceof XMLPresentationReader);
+    }
+}
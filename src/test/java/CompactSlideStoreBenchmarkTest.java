@@ -0,0 +1,92 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Heap footprint per item of a 100k item deck, with and without CompactSlideStore.
+ * Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class CompactSlideStoreBenchmarkTest {
+
+    private static final int SLIDES = 10_000;
+    private static final int ITEMS_PER_SLIDE = 10;
+    private static final String[] LEAD_INS = {
+            "Key takeaway:", "Next steps", "Questions?", "Summary", "See appendix for details" };
+
+    @BeforeEach
+    void setUp() {
+        Style.createStyles();
+    }
+
+    @Test
+    void heapPerItem() {
+        long baseline = usedHeap();
+        List<Slide> plain = createDeck();
+        long plainBytes = usedHeap() - baseline;
+
+        CompactSlideStore store = new CompactSlideStore();
+        List<Slide> compact = compact(plain, store);
+        plain = null;
+        long compactBytes = usedHeap() - baseline;
+
+        int items = SLIDES * ITEMS_PER_SLIDE;
+        System.out.printf("Heap for %d items: plain %.1f bytes/item, compact %.1f bytes/item (%d pooled strings)%n",
+                items, (double) plainBytes / items, (double) compactBytes / items, store.getPoolSize());
+        assertEquals(items, store.getItemCount());
+        assertEquals(SLIDES, compact.size());
+        assertTrue(compactBytes < plainBytes);
+    }
+
+    // In its own method, so no loop variable keeps the plain deck reachable
+    private static List<Slide> compact(List<Slide> plain, CompactSlideStore store) {
+        List<Slide> compact = new ArrayList<>(SLIDES);
+        for (Slide slide : plain) {
+            compact.add(store.add(slide));
+        }
+        store.trim();
+        return compact;
+    }
+
+    // Slides as the XML reader builds them: every text is its own String
+    private static List<Slide> createDeck() {
+        List<Slide> slides = new ArrayList<>(SLIDES);
+        for (int number = 0; number < SLIDES; number++) {
+            Slide slide = new Slide();
+            slide.setTitle(new String("Quarterly review, part " + (number % 50)));
+            for (int item = 0; item < ITEMS_PER_SLIDE - 2; item++) {
+                String text = (item % 2 == 0) ? new String(LEAD_INS[item % LEAD_INS.length])
+                        : "Point " + item + " of slide " + number;
+                slide.append(1 + item % 3, text);
+            }
+            slide.append(new StyledTextItem(4, new String("Confidential - internal use only"), true, false));
+            slide.append(4, new String("(c) Example Corp"));
+            slides.add(slide);
+        }
+        return slides;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int round = 0; round < 5; round++) { // until a full collection stops freeing memory
+            System.gc();
+            long now = runtime.totalMemory() - runtime.freeMemory();
+            if (now >= used) {
+                return now;
+            }
+            used = now;
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return used;
+    }
+}
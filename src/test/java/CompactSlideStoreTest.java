@@ -0,0 +1,154 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that compact slides give the same content and drawing as the originals.
+ */
+class CompactSlideStoreTest {
+
+    private CompactSlideStore store;
+
+    @BeforeEach
+    void setUp() {
+        try { Style.createStyles(); } catch (ExceptionInInitializerError e) { /* ignore */ }
+        store = new CompactSlideStore();
+    }
+
+    private static Slide createSlide(String title) {
+        Slide slide = new Slide();
+        slide.setTitle(title);
+        slide.append(1, "Footer text");
+        slide.append(new StyledTextItem(2, "Styled", true, false));
+        TextItem runs = new TextItem(2, "Inline runs");
+        runs.addStyle(0, 6, TextItem.BOLD);
+        slide.append(runs);
+        slide.append(new BoldTextDecorator(new TextItem(3, "Decorated")));
+        return slide;
+    }
+
+    @Test
+    @DisplayName("Packed items should keep text, level and whole-item styling")
+    void packedItemsShouldKeepContent() {
+        Slide compact = store.add(createSlide("Title"));
+
+        assertEquals("Title", compact.getTitle());
+        assertEquals(4, compact.getSize());
+        TextItem plain = (TextItem) compact.getSlideItem(0);
+        assertEquals("Footer text", plain.getText());
+        assertEquals(1, plain.getLevel());
+        StyledTextItem styled = (StyledTextItem) compact.getSlideItem(1);
+        assertTrue(styled.isBold());
+        assertFalse(styled.isUnderlined());
+        assertEquals(2, styled.getLevel());
+    }
+
+    @Test
+    @DisplayName("Styling a packed item should keep it in the slide")
+    void styledPackedItemShouldBeKept() {
+        Slide compact = store.add(createSlide("Title"));
+        Slide snapshot = compact.snapshot();
+
+        compact.addStyle(0, 0, 6, TextItem.UNDERLINE);
+
+        assertEquals(4, compact.getSize());
+        TextItem styled = (TextItem) compact.getSlideItem(0);
+        assertEquals("Footer text", styled.getText());
+        assertEquals(TextItem.UNDERLINE, styled.getRunFlags(0));
+        assertEquals("Styled", ((TextItem) compact.getSlideItem(1)).getText());
+        assertFalse(((TextItem) snapshot.getSlideItem(0)).hasInlineStyles());
+        assertTrue(compact.isModified());
+    }
+
+    @Test
+    @DisplayName("Items that cannot be packed should be kept as they are")
+    void otherItemsShouldBeKept() {
+        Slide original = createSlide("Title");
+        Slide compact = store.add(original);
+
+        assertSame(original.getSlideItem(2), compact.getSlideItem(2), "Inline runs are kept");
+        assertSame(original.getSlideItem(3), compact.getSlideItem(3), "Decorators are kept");
+        assertEquals(2, store.getObjectCount());
+        assertEquals(4, store.getItemCount());
+    }
+
+    @Test
+    @DisplayName("Repeated strings should be stored once")
+    void repeatedStringsShouldBePooled() {
+        Slide first = store.add(createSlide("Same title"));
+        Slide second = store.add(createSlide("Same title"));
+
+        // "Same title", "Footer text", "Styled"
+        assertEquals(3, store.getPoolSize());
+        assertSame(first.getTitle(), second.getTitle());
+        assertSame(((TextItem) first.getSlideItem(0)).getText(), ((TextItem) second.getSlideItem(0)).getText());
+    }
+
+    @Test
+    @DisplayName("A compact slide should draw exactly like the original")
+    void compactSlideShouldDrawTheSame() {
+        Slide original = createSlide("Drawing");
+        Slide compact = store.add(original);
+
+        assertArrayEquals(render(original), render(compact));
+    }
+
+    @Test
+    @DisplayName("Items appended to a compact slide should follow the packed ones")
+    void appendShouldWorkAfterCompacting() {
+        Slide compact = store.add(createSlide("Title"));
+        store.trim();
+        int version = compact.getVersion();
+
+        TextItem added = new TextItem(1, "Added later");
+        compact.append(added);
+
+        assertEquals(5, compact.getSize());
+        assertSame(added, compact.getSlideItem(4));
+        assertEquals(5, compact.getSlideItems().size());
+        assertNotEquals(version, compact.getVersion());
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> compact.getSlideItem(5));
+    }
+
+    @Test
+    @DisplayName("The pool should still deduplicate after trim")
+    void addAfterTrimShouldStillPool() {
+        store.add(createSlide("Title"));
+        store.trim();
+        store.add(createSlide("Title"));
+
+        assertEquals(3, store.getPoolSize());
+    }
+
+    @Test
+    @DisplayName("Only large decks should be compacted")
+    void onlyLargeDecksShouldBeCompacted() {
+        Presentation small = new Presentation("small");
+        small.addSlide(createSlide("One"));
+        assertNull(CompactSlideStore.compactIfLarge(small));
+
+        Presentation large = new Presentation("large");
+        for (int number = 0; number < CompactSlideStore.THRESHOLD / 4; number++) {
+            large.addSlide(createSlide("Slide " + number));
+        }
+        CompactSlideStore compacted = CompactSlideStore.compactIfLarge(large);
+        assertNotNull(compacted);
+        assertTrue(large.getSlide(0) instanceof CompactSlideStore.CompactSlide);
+        assertEquals("Slide 7", large.getSlide(7).getTitle());
+        assertEquals(4, large.getSlide(7).getSize());
+    }
+
+    private static int[] render(Slide slide) {
+        BufferedImage image = new BufferedImage(Slide.WIDTH, Slide.HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        slide.draw(g2d, new Rectangle(0, 0, Slide.WIDTH, Slide.HEIGHT), null);
+        g2d.dispose();
+        return image.getRGB(0, 0, Slide.WIDTH, Slide.HEIGHT, null, 0, Slide.WIDTH);
+    }
+}
@@ -0,0 +1,170 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.imageio.ImageIO;
+import javax.swing.SwingUtilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the slide-level diff of DeckWatcher and the reload on file changes.
+ */
+class DeckWatcherTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path file;
+    private Presentation presentation;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        try { Style.createStyles(); } catch (ExceptionInInitializerError e) { /* ignore */ }
+        file = tempDir.resolve("deck.xml");
+        write("One", "Two", "Three");
+        presentation = new Presentation("Watched");
+        new XMLPresentationReader().load(presentation, file.toString());
+    }
+
+    // Writes a deck with one slide per title, each with an item and an image
+    private void write(String... titles) throws IOException {
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\"?>\n<presentation>\n<showtitle>Watched</showtitle>\n");
+        for (String title : titles) {
+            xml.append("<slide><title>").append(title).append("</title>")
+                    .append("<item kind=\"text\" level=\"1\">Text of ").append(title).append("</item>")
+                    .append("<item kind=\"image\" level=\"1\">JabberPoint.jpg</item></slide>\n");
+        }
+        xml.append("</presentation>\n");
+        Files.write(file, xml.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void reload() throws Exception {
+        new DeckWatcher(presentation, file).reload();
+        SwingUtilities.invokeAndWait(() -> { }); // the reload is applied on the EDT
+    }
+
+    @Test
+    @DisplayName("Unchanged slides should keep their objects, changed slides should be replaced")
+    void reloadShouldReplaceOnlyChangedSlides() throws Exception {
+        Slide one = presentation.getSlide(0);
+        Slide two = presentation.getSlide(1);
+        Slide three = presentation.getSlide(2);
+
+        write("One", "Two (edited)", "Three");
+        reload();
+
+        assertSame(one, presentation.getSlide(0));
+        assertNotSame(two, presentation.getSlide(1));
+        assertEquals("Two (edited)", presentation.getSlide(1).getTitle());
+        assertSame(three, presentation.getSlide(2));
+        assertFalse(presentation.isModified(), "The presentation is the same as the file");
+    }
+
+    @Test
+    @DisplayName("Unchanged items of a changed slide should be kept, e.g. images")
+    void reloadShouldKeepUnchangedItems() throws Exception {
+        SlideItem image = presentation.getSlide(1).getSlideItem(1);
+
+        write("One", "Two (edited)", "Three");
+        reload();
+
+        assertSame(image, presentation.getSlide(1).getSlideItem(1));
+    }
+
+    @Test
+    @DisplayName("A reload should read only the images that are new to the deck")
+    void reloadShouldReadOnlyNewImages() throws Exception {
+        ImageIO.write(new BufferedImage(16, 8, BufferedImage.TYPE_INT_RGB), "png",
+                tempDir.resolve("JabberPoint.jpg").toFile());
+        presentation = new Presentation("Watched");
+        new XMLPresentationReader().load(presentation, file.toString());
+        BitmapItem image = (BitmapItem) presentation.getSlide(1).getSlideItem(1);
+        BitmapItem imageOfThree = (BitmapItem) presentation.getSlide(2).getSlideItem(1);
+        assertNotNull(image.getSource());
+        BufferedImage added = new BufferedImage(12, 6, BufferedImage.TYPE_INT_RGB);
+        added.setRGB(0, 0, 0x123456); // content of its own, so the store has not seen it
+        Path addedFile = tempDir.resolve("added.png");
+        ImageIO.write(added, "png", addedFile.toFile());
+        long hashed = ImageStore.shared().getHashedBytes();
+
+        write("One", "Two (edited)", "Three");
+        String xml = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        Files.write(file, xml.replace("Text of Three</item>", "Text of Three</item>"
+                + "<item kind=\"image\" level=\"2\">added.png</item>").getBytes(StandardCharsets.UTF_8));
+        reload();
+
+        assertSame(image, presentation.getSlide(1).getSlideItem(1));
+        assertNotNull(((BitmapItem) presentation.getSlide(2).getSlideItem(1)).getSource());
+        assertSame(imageOfThree, presentation.getSlide(2).getSlideItem(2), "The edited slide keeps its image");
+        assertEquals(hashed + Files.size(addedFile), ImageStore.shared().getHashedBytes(),
+                "Only the new image was read");
+    }
+
+    @Test
+    @DisplayName("The current slide should stay on screen when slides are inserted before it")
+    void reloadShouldKeepPosition() throws Exception {
+        presentation.setSlideNumber(2);
+        Slide three = presentation.getSlide(2);
+
+        write("Zero", "One", "Two", "Three");
+        reload();
+
+        assertEquals(4, presentation.getSize());
+        assertEquals(3, presentation.getSlideNumber());
+        assertSame(three, presentation.getCurrentSlide());
+    }
+
+    @Test
+    @DisplayName("A file that cannot be parsed should leave the presentation alone")
+    void brokenFileShouldBeIgnored() throws Exception {
+        Slide one = presentation.getSlide(0);
+        Files.write(file, "<presentation><slide>".getBytes(StandardCharsets.UTF_8));
+
+        reload();
+
+        assertEquals(3, presentation.getSize());
+        assertSame(one, presentation.getSlide(0));
+    }
+
+    @Test
+    @DisplayName("A slide edited in the application meanwhile should not be replaced by the old one")
+    void slideChangedDuringReloadShouldNotBeKept() throws Exception {
+        Presentation before = presentation.snapshot();
+        write("One", "Two", "Three");
+        Presentation parsed = new Presentation("parsed");
+        new XMLPresentationReader().load(parsed, file.toString());
+
+        int[] reuse = DeckWatcher.diff(before, parsed);
+
+        assertArrayEquals(new int[] {0, 1, 2}, reuse);
+        presentation.getSlide(0).append(1, "Added in the application");
+        assertNotSame(before.getSlide(0), presentation.getSlide(0).snapshot());
+    }
+
+    @Test
+    @DisplayName("Watching should reload the presentation after the file is written")
+    void watcherShouldReloadOnChange() throws Exception {
+        DeckWatcher watcher = new DeckWatcher(presentation, file);
+        watcher.start();
+        try {
+            Thread.sleep(100);
+            write("One", "Two", "Three", "Four");
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (presentation.getSize() != 4 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+                SwingUtilities.invokeAndWait(() -> { });
+            }
+        } finally {
+            watcher.stop();
+        }
+        assertEquals(4, presentation.getSize());
+        assertEquals("Four", presentation.getSlide(3).getTitle());
+    }
+}
@@ -0,0 +1,88 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.ImageObserver;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DisplayList recording and replay.
+ */
+class DisplayListTest {
+
+    // An item without a primitive recording, to check the draw fallback
+    static class DummySlideItem extends SlideItem {
+        int drawCount = 0;
+        DummySlideItem(int level) { super(level); }
+        @Override public Rectangle getBoundingBox(Graphics g, ImageObserver observer, float scale, Style style) { return new Rectangle(0, 0, 10, 10); }
+        @Override public void draw(int x, int y, float scale, Graphics g, Style style, ImageObserver observer) { drawCount++; }
+    }
+
+    private Slide slide;
+
+    @BeforeEach
+    void setUp() {
+        try { Style.createStyles(); } catch (ExceptionInInitializerError e) { /* ignore */ }
+        slide = new Slide();
+        slide.setTitle("Display list");
+        slide.append(1, "First line");
+        slide.append(new StyledTextItem(2, "Bold and underlined", true, true));
+    }
+
+    @Test
+    @DisplayName("Recording should produce one operation per text line")
+    void recordShouldCaptureTextLines() {
+        assertEquals(3, slide.getDisplayList().getOperationCount(), "Title and two single-line items");
+    }
+
+    @Test
+    @DisplayName("The display list should be cached until the slide changes")
+    void displayListShouldBeCachedAndInvalidated() {
+        DisplayList first = slide.getDisplayList();
+        assertSame(first, slide.getDisplayList());
+
+        slide.append(1, "Another line");
+        assertNotSame(first, slide.getDisplayList(), "append invalidates the display list");
+        DisplayList afterAppend = slide.getDisplayList();
+        slide.setTitle("New title");
+        assertNotSame(afterAppend, slide.getDisplayList(), "setTitle invalidates the display list");
+    }
+
+    @Test
+    @DisplayName("Unknown items should be replayed through their draw method")
+    void unknownItemsShouldFallBackToDraw() {
+        DummySlideItem dummy = new DummySlideItem(1);
+        slide.append(dummy);
+        DisplayList list = slide.getDisplayList();
+        assertEquals(0, dummy.drawCount, "Recording does not draw");
+
+        list.toImage(120, 80, Color.WHITE);
+        assertEquals(1, dummy.drawCount, "Replay draws the item once");
+    }
+
+    @Test
+    @DisplayName("Replay should paint at any scale")
+    void replayShouldPaintAtAnyScale() {
+        for (int width : new int[] {60, 300, 1200, 2400}) {
+            BufferedImage image = slide.getDisplayList().toImage(width, width * 2 / 3, Color.WHITE);
+            assertEquals(width, image.getWidth());
+            assertTrue(hasNonWhitePixel(image), "Something was drawn at width " + width);
+        }
+    }
+
+    private static boolean hasNonWhitePixel(BufferedImage image) {
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                if ((image.getRGB(x, y) & 0xFFFFFF) != 0xFFFFFF) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
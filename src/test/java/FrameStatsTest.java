@@ -0,0 +1,87 @@
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests FrameStats and the frame rendering of FullScreenPresenter, which
+ * can run without a screen.
+ */
+class FrameStatsTest {
+
+    @Test
+    @DisplayName("Average and percentiles should be computed over the recorded frames")
+    void shouldComputeStatistics() {
+        FrameStats stats = new FrameStats("Test");
+        for (int millis = 1; millis <= 10; millis++) {
+            stats.recordFrame(millis * 1_000_000L);
+        }
+        assertEquals(10, stats.getFrameCount());
+        assertEquals(5.5, stats.getAverageMillis(), 0.001);
+        assertEquals(5.0, stats.getPercentileMillis(50), 0.001);
+        assertEquals(10.0, stats.getMaxMillis(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Only the most recent frames should be kept")
+    void shouldKeepRecentFrames() {
+        FrameStats stats = new FrameStats("Test", 4);
+        for (int i = 0; i < 10; i++) {
+            stats.recordFrame(i < 6 ? 100_000_000L : 1_000_000L);
+        }
+        assertEquals(10, stats.getFrameCount());
+        assertEquals(1.0, stats.getMaxMillis(), 0.001, "The slow frames are out of the window");
+    }
+
+    @Test
+    @DisplayName("Dropped frames and reset should be tracked")
+    void shouldTrackDroppedFramesAndReset() {
+        FrameStats stats = new FrameStats("Test");
+        stats.recordFrame(2_000_000L);
+        stats.recordDroppedFrame();
+        assertEquals(1, stats.getDroppedFrameCount());
+        assertTrue(stats.toString().contains("1 dropped"));
+        stats.reset();
+        assertEquals(0, stats.getFrameCount());
+        assertEquals(0, stats.getDroppedFrameCount());
+        assertEquals(0.0, stats.getAverageMillis());
+    }
+
+    @Test
+    @DisplayName("A capacity of zero should be rejected")
+    void shouldRejectEmptyCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new FrameStats("Test", 0));
+    }
+
+    @Test
+    @DisplayName("The full-screen presenter should render the current slide into a frame")
+    void presenterShouldRenderFrame() {
+        try { Style.createStyles(); } catch (ExceptionInInitializerError e) { /* ignore */ }
+        Presentation presentation = new Presentation("Full screen");
+        Slide slide = new Slide();
+        slide.setTitle("Title");
+        presentation.addSlide(slide);
+        presentation.setSlideNumber(0);
+        FullScreenPresenter presenter = new FullScreenPresenter(presentation, null);
+        presenter.update(); // on the EDT when running: takes the slide to show
+        presentation.clear(); // the frame does not read the presentation itself
+        BufferedImage frame = new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = frame.createGraphics();
+        try {
+            presenter.renderFrame(g2d, 400, 300);
+        } finally {
+            g2d.dispose();
+        }
+        assertFalse(presenter.isRunning());
+        boolean drawn = false;
+        for (int y = 0; y < 300 && !drawn; y++) {
+            for (int x = 0; x < 400 && !drawn; x++) {
+                drawn = (frame.getRGB(x, y) & 0xFFFFFF) != 0xFFFFFF;
+            }
+        }
+        assertTrue(drawn, "Something besides the background was drawn");
+    }
+}
@@ -0,0 +1,50 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for GlyphWarmup.
+ */
+class GlyphWarmupTest {
+
+    private Presentation presentation;
+
+    @BeforeEach
+    void setUp() {
+        try { Style.createStyles(); } catch (ExceptionInInitializerError e) { /* ignore */ }
+        presentation = new Presentation("Warm-up");
+        Slide slide = new Slide();
+        slide.setTitle("AB");
+        slide.append(1, "cd");
+        slide.append(new BoldTextDecorator(new TextItem(2, "ef")));
+        slide.append(new UnderlineTextDecorator(new BoldTextDecorator(new TextItem(9, "g"))));
+        presentation.addSlide(slide);
+    }
+
+    @Test
+    @DisplayName("Characters should be collected per level and bold variant")
+    void collectCharactersShouldGroupByStyle() {
+        Map<Integer, BitSet> characters = GlyphWarmup.collectCharacters(presentation);
+
+        assertTrue(characters.get(GlyphWarmup.styleKey(0, false)).get('A'), "Title uses level 0");
+        assertTrue(characters.get(GlyphWarmup.styleKey(1, false)).get('c'));
+        assertTrue(characters.get(GlyphWarmup.styleKey(2, true)).get('e'), "Bold decorator gives bold key");
+        assertNull(characters.get(GlyphWarmup.styleKey(2, false)), "No plain level 2 text on the slide");
+        int lastLevel = Style.getStyleCount() - 1;
+        assertTrue(characters.get(GlyphWarmup.styleKey(lastLevel, true)).get('g'),
+                "Levels beyond the last style share the last style");
+    }
+
+    @Test
+    @DisplayName("warmUp should draw every collected glyph")
+    void warmUpShouldDrawGlyphs() {
+        Map<Integer, BitSet> characters = GlyphWarmup.collectCharacters(presentation);
+        int glyphs = GlyphWarmup.warmUp(characters, 1.0f);
+        assertTrue(glyphs >= 7, "At least the deck's own characters are drawn");
+    }
+}
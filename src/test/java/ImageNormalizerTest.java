@@ -0,0 +1,85 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import javax.imageio.ImageIO;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the conversion of decoded images to fast pixel formats (headless:
+ * TYPE_INT_RGB for opaque images, TYPE_INT_ARGB_PRE with alpha).
+ */
+class ImageNormalizerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        try { Style.createStyles(); } catch (ExceptionInInitializerError e) { /* ignore */ }
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty(ImageNormalizer.ENABLED_PROPERTY);
+    }
+
+    @Test
+    @DisplayName("An opaque codec format should become integer RGB with the same pixels")
+    void shouldConvertOpaqueImages() {
+        BufferedImage bgr = new BufferedImage(4, 3, BufferedImage.TYPE_3BYTE_BGR);
+        bgr.setRGB(1, 2, 0x123456);
+
+        BufferedImage normalized = ImageNormalizer.normalize(bgr);
+
+        assertEquals(BufferedImage.TYPE_INT_RGB, normalized.getType());
+        assertEquals(0xff123456, normalized.getRGB(1, 2));
+        assertEquals(4, normalized.getWidth());
+        assertEquals(3, normalized.getHeight());
+    }
+
+    @Test
+    @DisplayName("An image with alpha should become premultiplied ARGB and keep its alpha")
+    void shouldPremultiplyAlpha() {
+        BufferedImage argb = new BufferedImage(2, 2, BufferedImage.TYPE_INT_ARGB);
+        argb.setRGB(0, 0, 0x80ff0000);
+
+        BufferedImage normalized = ImageNormalizer.normalize(argb);
+
+        assertEquals(BufferedImage.TYPE_INT_ARGB_PRE, normalized.getType());
+        int pixel = normalized.getRGB(0, 0);
+        assertEquals(0x80, pixel >>> 24);
+        assertTrue(((pixel >> 16) & 0xff) >= 0xfe, "Red survives the premultiplication");
+        assertEquals(0, normalized.getRGB(1, 1) >>> 24, "Transparent stays transparent");
+    }
+
+    @Test
+    @DisplayName("Images in the fast format, and all images when switched off, should be kept")
+    void shouldKeepFastImages() {
+        BufferedImage rgb = new BufferedImage(2, 2, BufferedImage.TYPE_INT_RGB);
+        assertSame(rgb, ImageNormalizer.normalize(rgb));
+
+        System.setProperty(ImageNormalizer.ENABLED_PROPERTY, "false");
+        BufferedImage gray = new BufferedImage(2, 2, BufferedImage.TYPE_BYTE_GRAY);
+        assertSame(gray, ImageNormalizer.normalize(gray));
+    }
+
+    @Test
+    @DisplayName("A loaded JPEG should be drawn from a normalized image")
+    void shouldNormalizeLoadedImages() throws IOException {
+        BufferedImage photo = new BufferedImage(32, 16, BufferedImage.TYPE_3BYTE_BGR);
+        photo.setRGB(3, 3, 0xabcdef); // content of its own in the shared ImageStore
+        ImageIO.write(photo, "jpg", tempDir.resolve("photo.jpg").toFile());
+
+        BitmapItem item = new BitmapItem(1, "photo.jpg", new SearchPathAssetResolver(List.of(tempDir)));
+
+        assertEquals(BufferedImage.TYPE_INT_RGB, item.getImage().getType());
+    }
+}
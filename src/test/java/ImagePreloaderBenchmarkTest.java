@@ -0,0 +1,92 @@
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import javax.imageio.ImageIO;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load time of an image-heavy deck: images read one by one while parsing,
+ * against decoding on 1, 2, ... DEFAULT_THREADS preloader workers.
+ * Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class ImagePreloaderBenchmarkTest {
+
+    private static final int IMAGES = 48;
+    private static final int WIDTH = 1024;
+    private static final int HEIGHT = 768;
+    private static final int ROUNDS = 3;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void loadImageHeavyDeck() throws IOException {
+        Path deck = generateDeck();
+        System.out.printf("Deck with %d images of %dx%d, %d cores%n", IMAGES, WIDTH, HEIGHT,
+                Runtime.getRuntime().availableProcessors());
+
+        double sequential = time(() -> load(deck, new BitmapItemFactory(SearchPathAssetResolver.forDeck(deck))));
+        System.out.printf("  sequential:    %7.1f ms%n", sequential);
+        for (int threads = 1; threads <= Math.max(2, ImagePreloader.DEFAULT_THREADS); threads *= 2) {
+            ImagePreloader preloader = new ImagePreloader(threads, ImagePreloader.DEFAULT_BUDGET_BYTES);
+            try {
+                double parallel = time(() -> load(deck,
+                        new BitmapItemFactory(SearchPathAssetResolver.forDeck(deck), preloader)));
+                System.out.printf("  %2d workers:    %7.1f ms (%.2fx)%n", threads, parallel, sequential / parallel);
+            } finally {
+                preloader.shutdown();
+            }
+        }
+    }
+
+    private interface Load {
+        void run() throws IOException;
+    }
+
+    // best of ROUNDS, after a warm-up
+    private static double time(Load load) throws IOException {
+        load.run();
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            load.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1e6;
+    }
+
+    private static void load(Path deck, BitmapItemFactory images) throws IOException {
+        Presentation presentation = new Presentation("Images");
+        new XMLPresentationReader(images).load(presentation, deck.toString());
+        assertEquals(IMAGES, presentation.getSize());
+        assertNotNull(((BitmapItem) presentation.getSlide(IMAGES - 1).getSlideItem(0)).getSource());
+    }
+
+    private Path generateDeck() throws IOException {
+        Random random = new Random(42);
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\"?>\n<presentation><showtitle>Images</showtitle>\n");
+        for (int number = 0; number < IMAGES; number++) {
+            BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+            for (int y = 0; y < HEIGHT; y += 4) { // some texture, so decoding is real work
+                for (int x = 0; x < WIDTH; x++) {
+                    image.setRGB(x, y, random.nextInt());
+                }
+            }
+            String name = "photo" + number + ".png";
+            ImageIO.write(image, "png", tempDir.resolve(name).toFile());
+            xml.append("<slide><title>Photo ").append(number).append("</title><item kind=\"image\" level=\"1\">")
+                    .append(name).append("</item></slide>\n");
+        }
+        return Files.write(tempDir.resolve("deck.xml"),
+                xml.append("</presentation>\n").toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,110 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import javax.imageio.ImageIO;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests background decoding with a byte budget, and deck loads that use it.
+ */
+class ImagePreloaderTest {
+
+    @TempDir
+    Path tempDir;
+    private ImagePreloader preloader;
+
+    @BeforeEach
+    void setUp() {
+        try { Style.createStyles(); } catch (ExceptionInInitializerError e) { /* ignore */ }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (preloader != null) {
+            preloader.shutdown();
+        }
+    }
+
+    private Path writeImage(String name, int width, int height) throws IOException {
+        Path file = tempDir.resolve(name);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, name.hashCode()); // distinct content, or the ImageStore shares them
+        ImageIO.write(image, "png", file.toFile());
+        return file;
+    }
+
+    @Test
+    @DisplayName("Images larger than the budget should be decoded one at a time, and the budget returned")
+    void shouldDecodeWithinBudget() throws Exception {
+        preloader = new ImagePreloader(4, 64 << 10); // 64 KiB, each image needs 320 KiB
+        List<CompletableFuture<BufferedImage>> images = new ArrayList<>();
+        for (int number = 0; number < 8; number++) {
+            images.add(preloader.load(writeImage("big" + number + ".png", 200, 200)));
+        }
+        for (CompletableFuture<BufferedImage> image : images) {
+            assertEquals(200, image.get().getWidth());
+        }
+        assertEquals(64 << 10, preloader.getAvailableBytes());
+    }
+
+    @Test
+    @DisplayName("A file that is not an image should fail its future")
+    void shouldFailForNonImage() throws IOException {
+        preloader = new ImagePreloader(1, ImagePreloader.DEFAULT_BUDGET_BYTES);
+        Path text = Files.write(tempDir.resolve("notes.png"), "not an image".getBytes(StandardCharsets.UTF_8));
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> preloader.load(text).get());
+        assertTrue(ex.getCause() instanceof IOException);
+    }
+
+    @Test
+    @DisplayName("An item should have its image once awaitImage returns")
+    void shouldCompleteItem() throws IOException {
+        preloader = new ImagePreloader(2, ImagePreloader.DEFAULT_BUDGET_BYTES);
+        Path file = writeImage("logo.png", 30, 20);
+        BitmapItem item = new BitmapItem(1, "logo.png", new SearchPathAssetResolver(List.of(tempDir)), preloader);
+
+        item.awaitImage();
+
+        assertFalse(item.isLoading());
+        assertEquals(file, item.getSource());
+    }
+
+    @Test
+    @DisplayName("A deck load should return with all images decoded")
+    void shouldLoadDeckWithAllImages() throws IOException {
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\"?>\n<presentation><showtitle>Images</showtitle>\n");
+        for (int number = 0; number < 12; number++) {
+            writeImage("image" + number + ".png", 40 + number, 30);
+            xml.append("<slide><title>Slide ").append(number).append("</title>")
+                    .append("<item kind=\"image\" level=\"1\">image").append(number).append(".png</item>")
+                    .append("<item kind=\"image\" level=\"1\">missing.png</item></slide>\n");
+        }
+        Path deck = Files.write(tempDir.resolve("deck.xml"),
+                xml.append("</presentation>\n").toString().getBytes(StandardCharsets.UTF_8));
+
+        Presentation presentation = new Presentation("Images");
+        new XMLPresentationReader().load(presentation, deck.toString());
+
+        for (int number = 0; number < presentation.getSize(); number++) {
+            BitmapItem image = (BitmapItem) presentation.getSlide(number).getSlideItem(0);
+            BitmapItem missing = (BitmapItem) presentation.getSlide(number).getSlideItem(1);
+            assertFalse(image.isLoading());
+            assertEquals(tempDir.resolve("image" + number + ".png"), image.getSource());
+            assertNull(missing.getSource());
+        }
+    }
+}
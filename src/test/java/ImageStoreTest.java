@@ -0,0 +1,130 @@
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.ImageIO;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests content-hash sharing of decoded images and its statistics.
+ */
+class ImageStoreTest {
+
+    @TempDir
+    Path tempDir;
+    private final ImageStore store = new ImageStore();
+    private final AtomicInteger decodes = new AtomicInteger();
+
+    private BufferedImage decode(Path file) throws IOException {
+        decodes.incrementAndGet();
+        return ImageIO.read(file.toFile());
+    }
+
+    private Path writeImage(String name, int rgb) throws IOException {
+        BufferedImage image = new BufferedImage(16, 8, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, rgb);
+        Path file = tempDir.resolve(name);
+        ImageIO.write(image, "png", file.toFile());
+        return file;
+    }
+
+    @Test
+    @DisplayName("The same bytes under different names should be decoded once and shared")
+    void shouldShareEqualContent() throws IOException {
+        Path logo = writeImage("logo.png", 0xff0000);
+        Path copy = Files.copy(logo, tempDir.resolve("company-logo.png"));
+        Path other = writeImage("other.png", 0x00ff00);
+
+        BufferedImage first = store.load(logo, this::decode);
+        BufferedImage second = store.load(copy, this::decode);
+        BufferedImage third = store.load(other, this::decode);
+
+        assertSame(first, second);
+        assertNotSame(first, third);
+        assertEquals(2, decodes.get());
+        assertEquals(3, store.getRequestCount());
+        assertEquals(2, store.getDecodeCount());
+        assertEquals(1, store.getHitCount());
+        assertEquals(16 * 8 * 4, store.getSharedBytes());
+        assertEquals(Files.size(logo) * 2 + Files.size(other), store.getHashedBytes());
+        assertEquals(2, store.getImageCount());
+    }
+
+    @Test
+    @DisplayName("Concurrent requests for new content should decode it once")
+    void shouldDecodeOnceConcurrently() throws Exception {
+        Path logo = writeImage("logo.png", 0x0000ff);
+        List<Path> copies = new ArrayList<>();
+        for (int number = 0; number < 8; number++) {
+            copies.add(Files.copy(logo, tempDir.resolve("copy" + number + ".png")));
+        }
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ImageStore.Decoder slow = file -> {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS); // keep the others waiting for this decode
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return decode(file);
+        };
+        ExecutorService threads = Executors.newFixedThreadPool(copies.size());
+        try {
+            List<Future<BufferedImage>> images = new ArrayList<>();
+            for (Path copy : copies) {
+                images.add(threads.submit(() -> store.load(copy, slow)));
+            }
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            release.countDown();
+            BufferedImage image = images.get(0).get();
+            for (Future<BufferedImage> other : images) {
+                assertSame(image, other.get());
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+        assertEquals(1, decodes.get());
+        assertEquals(copies.size() - 1, store.getHitCount());
+    }
+
+    @Test
+    @DisplayName("A failed decode should not be stored, a later request tries again")
+    void shouldNotStoreFailures() throws IOException {
+        Path broken = Files.write(tempDir.resolve("broken.png"), "not an image".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IOException.class, () -> store.load(broken, this::decode));
+        assertThrows(IOException.class, () -> store.load(broken, this::decode));
+
+        assertEquals(2, decodes.get());
+        assertEquals(0, store.getImageCount());
+    }
+
+    @Test
+    @DisplayName("Items in different decks should share the pixels of equal images")
+    void shouldShareAcrossItems() throws IOException {
+        Path logo = writeImage("logo.png", 0x123456);
+        Files.copy(logo, tempDir.resolve("template-logo.png"));
+        SearchPathAssetResolver resolver = new SearchPathAssetResolver(List.of(tempDir));
+
+        BitmapItem first = new BitmapItem(1, "logo.png", resolver);
+        BitmapItem second = new BitmapItem(1, "template-logo.png", new SearchPathAssetResolver(List.of(tempDir)));
+
+        assertNotNull(first.getImage());
+        assertSame(first.getImage(), second.getImage());
+    }
+}
@@ -26,12 +26,12 @@ class MenuControllerTest {
         // Check File menu
         Menu fileMenu = menuBar.getMenu(0);
         assertEquals("File", fileMenu.getLabel());
-        assertEquals(5, fileMenu.getItemCount()); // Open, New, Save, separator, Exit
+        assertEquals(7, fileMenu.getItemCount()); // Open, New, Save, Export Bundle, Watch File, separator, Exit
         
         // Check View menu
         Menu viewMenu = menuBar.getMenu(1);
         assertEquals("View", viewMenu.getLabel());
-        assertEquals(3, viewMenu.getItemCount()); // Next, Previous, Go to
+        assertEquals(6, viewMenu.getItemCount()); // Next, Previous, Go to, Find, Overview, Presenter View
         
         // Check Help menu
         Menu helpMenu = menuBar.getHelpMenu();
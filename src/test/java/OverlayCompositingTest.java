@@ -0,0 +1,126 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.ImageObserver;
+import javax.swing.SwingUtilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that SlideViewerComponent keeps the slide in a cached layer and
+ * paints overlays on top without rendering the slide again.
+ */
+class OverlayCompositingTest {
+
+    // Item that counts how often the slide content is rendered
+    static class CountingItem extends SlideItem {
+        int drawCount = 0;
+        CountingItem() { super(1); }
+        @Override public Rectangle getBoundingBox(Graphics g, ImageObserver observer, float scale, Style style) { return new Rectangle(0, 0, 100, 50); }
+        @Override public void draw(int x, int y, float scale, Graphics g, Style style, ImageObserver observer) { drawCount++; }
+    }
+
+    // Overlay that counts its paints
+    static class CountingOverlay implements Overlay {
+        int paintCount = 0;
+        @Override public void paint(Graphics2D g2d, SlideViewerComponent view) { paintCount++; }
+        @Override public Rectangle getBounds(SlideViewerComponent view) { return new Rectangle(0, 0, 10, 10); }
+    }
+
+    private Presentation presentation;
+    private SlideViewerComponent view;
+    private CountingItem item;
+    private Slide slide;
+
+    @BeforeEach
+    void setUp() {
+        try { Style.createStyles(); } catch (ExceptionInInitializerError e) { /* ignore */ }
+        presentation = new Presentation("Overlays");
+        view = new SlideViewerComponent(presentation);
+        view.setSize(400, 300);
+        slide = new Slide();
+        slide.setTitle("Layers");
+        item = new CountingItem();
+        slide.append(item);
+        presentation.addSlide(slide);
+        presentation.setSlideNumber(0);
+    }
+
+    private void paint() {
+        BufferedImage target = new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = target.createGraphics();
+        try {
+            view.paintComponent(g2d);
+        } finally {
+            g2d.dispose();
+        }
+    }
+
+    @Test
+    @DisplayName("Repainting the same slide should reuse the cached slide layer")
+    void repaintShouldReuseSlideLayer() {
+        CountingOverlay overlay = new CountingOverlay();
+        view.addOverlay(overlay);
+        paint();
+        paint();
+        paint();
+        assertEquals(1, item.drawCount, "The slide is rendered once");
+        assertEquals(3, overlay.paintCount, "Overlays are painted on every repaint");
+    }
+
+    @Test
+    @DisplayName("Changing the slide should render the slide layer again")
+    void changedSlideShouldRenderAgain() {
+        paint();
+        slide.append(new TextItem(2, "Added"));
+        paint();
+        assertEquals(2, item.drawCount);
+    }
+
+    @Test
+    @DisplayName("Resizing should render the slide layer again")
+    void resizeShouldRenderAgain() throws Exception {
+        // On the EDT, so the resize events are only handled afterwards (see ResizeDebouncerTest)
+        SwingUtilities.invokeAndWait(() -> {
+            paint();
+            view.setSize(500, 300);
+            paint();
+        });
+        assertEquals(2, item.drawCount);
+    }
+
+    @Test
+    @DisplayName("Removed overlays should no longer be painted")
+    void removedOverlayShouldNotPaint() {
+        CountingOverlay overlay = new CountingOverlay();
+        view.addOverlay(overlay);
+        paint();
+        view.removeOverlay(overlay);
+        paint();
+        assertEquals(1, overlay.paintCount);
+    }
+
+    @Test
+    @DisplayName("The laser pointer should only cover the area around the pointer")
+    void laserPointerBoundsShouldFollowPointer() {
+        LaserPointerOverlay pointer = new LaserPointerOverlay();
+        assertTrue(pointer.getBounds(view).isEmpty(), "No pointer before the mouse moves");
+        pointer.moveTo(new java.awt.Point(100, 80));
+        Rectangle bounds = pointer.getBounds(view);
+        assertTrue(bounds.contains(100, 80));
+        assertTrue(bounds.width < 40 && bounds.height < 40);
+    }
+
+    @Test
+    @DisplayName("The clock should show the elapsed time as h:mm:ss")
+    void clockShouldFormatElapsedTime() {
+        ClockOverlay clock = new ClockOverlay();
+        clock.reset();
+        assertEquals("0:00:00", clock.getElapsedText());
+    }
+}
@@ -3,6 +3,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 
@@ -263,4 +264,35 @@ class PresentationTest {
         presentation.setSlideNumber(1);
         assertTrue(presentation.isLastSlide(), "Should be last slide with two slides at index 1");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Changes to the presentation or a slide should make it modified until saved")
+    void testModifiedTracking() {
+        presentation.addSlide(slide1);
+        assertTrue(presentation.isModified(), "Adding a slide is a change");
+        presentation.markSaved();
+        assertFalse(presentation.isModified());
+        assertFalse(slide1.isModified(), "markSaved also marks the slides");
+
+        slide1.append(1, "Typo fixed");
+        assertTrue(slide1.isModified());
+        assertTrue(presentation.isModified(), "A modified slide makes the presentation modified");
+        presentation.markSaved();
+
+        presentation.setTitle("Renamed");
+        assertTrue(presentation.isModified());
+        assertFalse(slide1.isModified());
+    }
+
+    @Test
+    @DisplayName("Replacing all slides should start a new generation, adding slides should not")
+    void testGeneration() {
+        int generation = presentation.getGeneration();
+        presentation.addSlide(slide1);
+        assertEquals(generation, presentation.getGeneration());
+        presentation.setSlides(List.of(slide2), 0);
+        assertEquals(generation + 1, presentation.getGeneration());
+        presentation.clear();
+        assertEquals(generation + 2, presentation.getGeneration());
+    }
+}
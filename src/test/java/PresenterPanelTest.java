@@ -0,0 +1,83 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the presenter view follows the presentation and that its
+ * previews draw from the shared display lists.
+ */
+class PresenterPanelTest {
+
+    private Presentation presentation;
+    private Slide[] slides;
+
+    @BeforeEach
+    void setUp() {
+        try { Style.createStyles(); } catch (ExceptionInInitializerError e) { /* ignore */ }
+        presentation = new Presentation("Presenter");
+        slides = new Slide[3];
+        for (int i = 0; i < slides.length; i++) {
+            slides[i] = new Slide();
+            slides[i].setTitle("Slide " + i);
+            presentation.addSlide(slides[i]);
+        }
+        presentation.setSlideNumber(0);
+    }
+
+    @Test
+    @DisplayName("The panel should show the current and the next slide")
+    void shouldFollowPresentation() {
+        PresenterPanel panel = new PresenterPanel(presentation);
+        assertSame(slides[0], panel.getCurrentPreview().getSlide());
+        assertSame(slides[1], panel.getNextPreview().getSlide());
+        assertEquals("Slide 1 of 3", panel.getCounterText());
+
+        presentation.nextSlide();
+        presentation.nextSlide();
+        assertSame(slides[2], panel.getCurrentPreview().getSlide());
+        assertNull(panel.getNextPreview().getSlide(), "No next slide at the end");
+        assertEquals("Slide 3 of 3", panel.getCounterText());
+
+        panel.stop();
+        presentation.prevSlide();
+        assertSame(slides[2], panel.getCurrentPreview().getSlide(), "No longer observing after stop");
+    }
+
+    @Test
+    @DisplayName("A preview should replay the shared display list once per slide version")
+    void previewShouldCacheDrawing() {
+        OverlayCompositingTest.CountingItem item = new OverlayCompositingTest.CountingItem();
+        slides[0].append(item);
+        SlidePreview preview = new SlidePreview();
+        preview.setSize(300, 200);
+        preview.setSlide(slides[0]);
+        paint(preview);
+        paint(preview);
+        assertEquals(1, item.drawCount, "Drawn once, then copied from the cached image");
+        DisplayList shared = slides[0].getDisplayList();
+        paint(preview);
+        assertSame(shared, slides[0].getDisplayList(), "The display list is recorded once per slide");
+
+        slides[0].append(1, "Changed");
+        paint(preview);
+        assertEquals(2, item.drawCount);
+    }
+
+    @Test
+    @DisplayName("Elapsed time should be formatted as h:mm:ss")
+    void shouldFormatElapsedTime() {
+        assertEquals("0:00:00", ClockOverlay.formatElapsed(999));
+        assertEquals("1:01:05", ClockOverlay.formatElapsed((3600 + 65) * 1000L));
+    }
+
+    private static void paint(SlidePreview preview) {
+        Graphics2D g2d = new BufferedImage(preview.getWidth(), preview.getHeight(), BufferedImage.TYPE_INT_RGB).createGraphics();
+        preview.paintComponent(g2d);
+        g2d.dispose();
+    }
+}
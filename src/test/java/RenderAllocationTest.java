@@ -0,0 +1,123 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.font.TextLayout;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests that repainting a slide that has been laid out allocates (almost) nothing.
+ * Java2D itself allocates a little per drawn line of text (font info for the
+ * glyph pipeline); that cost is measured first and not counted against the slide.
+ */
+class RenderAllocationTest {
+
+    private static final int WARMUP = 200;
+    private static final int REPAINTS = 500;
+    private static final int SLACK = 64; // bytes per repaint, for JIT and measuring noise
+
+    private Slide slide;
+    private Graphics2D graphics;
+    private final Rectangle area = new Rectangle(0, 0, Slide.WIDTH, Slide.HEIGHT);
+
+    @BeforeEach
+    void setUp() {
+        try { Style.createStyles(); } catch (ExceptionInInitializerError e) { /* ignore */ }
+        slide = new Slide();
+        slide.setTitle("Allocation free");
+        slide.append(1, "A line of text that is long enough to be wrapped over more than one line of the slide when it is drawn");
+        slide.append(new BoldTextDecorator(new TextItem(2, "Bold text")));
+        slide.append(new UnderlineTextDecorator(new TextItem(3, "Underlined text")));
+        graphics = new BufferedImage(Slide.WIDTH, Slide.HEIGHT, BufferedImage.TYPE_INT_RGB).createGraphics();
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "Allocation counting not supported");
+        com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(sunBean.isThreadAllocatedMemorySupported(), "Allocation counting not supported");
+        sunBean.setThreadAllocatedMemoryEnabled(true);
+        return sunBean;
+    }
+
+    @Test
+    @DisplayName("A steady-state repaint of a slide should allocate close to nothing")
+    void steadyStateRepaintShouldNotAllocate() {
+        com.sun.management.ThreadMXBean bean = threadBean();
+        TextLayout[] lines = javaTextLines();
+        long perLine = measure(bean, () -> {
+            lines[0].draw(graphics, 10, 40);
+            lines[1].draw(graphics, 10, 80);
+        }) / 2;
+        long perRepaint = measure(bean, () -> slide.draw(graphics, area, null));
+        long budget = countLines() * perLine + SLACK;
+        System.out.println("Bytes allocated per repaint: " + perRepaint + ", Java2D text needs " + (budget - SLACK));
+        assertTrue(perRepaint <= budget, "Allocated " + perRepaint + " bytes per repaint, budget " + budget);
+    }
+
+    // Lines in two fonts drawn by Java2D directly, to measure what the glyph pipeline
+    // allocates when it switches fonts between lines, as it does between slide items
+    private TextLayout[] javaTextLines() {
+        return new TextLayout[] {
+            new TextLayout("Java2D", Style.getStyle(1).getFont(1.0f), graphics.getFontRenderContext()),
+            new TextLayout("Java2D", Style.getStyle(2).getFont(1.0f), graphics.getFontRenderContext())
+        };
+    }
+
+    // The average number of bytes the task allocates, after warming it up
+    private static long measure(com.sun.management.ThreadMXBean bean, Runnable task) {
+        long thread = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP; i++) {
+            task.run();
+        }
+        long before = bean.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < REPAINTS; i++) {
+            task.run();
+        }
+        return (bean.getThreadAllocatedBytes(thread) - before) / REPAINTS;
+    }
+
+    private int countLines() {
+        float scale = Slide.getScale(area);
+        int lines = slide.getTitleItem().getLineCount(graphics, Style.getStyle(0), scale);
+        for (int number = 0; number < slide.getSize(); number++) {
+            SlideItem item = slide.getSlideItem(number);
+            if (item instanceof SlideItemDecorator) {
+                item = ((SlideItemDecorator) item).getCompiledItem();
+            }
+            lines += ((TextItem) item).getLineCount(graphics, Style.getStyle(item.getLevel()), scale);
+        }
+        return lines;
+    }
+
+    @Test
+    @DisplayName("The title item should be created once per title")
+    void titleItemShouldBeReused() {
+        TextItem title = slide.getTitleItem();
+        slide.draw(graphics, area, null);
+        assertSame(title, slide.getTitleItem());
+        assertEquals("Allocation free", title.getText());
+        slide.setTitle("Other");
+        assertEquals("Other", slide.getTitleItem().getText());
+    }
+
+    @Test
+    @DisplayName("Bounding boxes through the render context should match the allocating ones")
+    void contextBoundsShouldMatch() {
+        TextItem item = new TextItem(1, "Some text");
+        Style style = Style.getStyle(1);
+        RenderContext context = RenderContext.get().begin(graphics, null, 0.5f);
+        try {
+            Rectangle result = item.getBoundingBox(context, style, new Rectangle());
+            assertEquals(item.getBoundingBox(graphics, null, 0.5f, style), result);
+        } finally {
+            context.end();
+        }
+    }
+}
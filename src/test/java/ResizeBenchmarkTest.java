@@ -0,0 +1,82 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import javax.swing.SwingUtilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Frame times while dragging the window edge over a text-heavy slide.
+ * Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class ResizeBenchmarkTest {
+
+    private static final int ITEMS = 25;
+    private static final int STEPS = 120;
+
+    private Presentation presentation;
+
+    @BeforeEach
+    void setUp() {
+        Style.createStyles();
+        presentation = new Presentation("Resize");
+        Slide slide = new Slide();
+        slide.setTitle("A slide with a lot of text");
+        for (int item = 0; item < ITEMS; item++) {
+            slide.append(1 + item % 3, "Item " + item + ": a long line of text that has to be broken into "
+                    + "several lines whenever the scale of the slide changes, which is what makes resizing slow");
+        }
+        presentation.addSlide(slide);
+        presentation.setSlideNumber(0);
+    }
+
+    @Test
+    void dragResize() throws Exception {
+        // Every step laid out at its own scale, as without debouncing
+        Slide slide = presentation.getCurrentSlide();
+        BufferedImage image = new BufferedImage(1400, 1100, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        slide.draw(g2d, new Rectangle(0, 50, 800, 550), null);
+        long start = System.nanoTime();
+        for (int step = 0; step < STEPS; step++) {
+            slide.draw(g2d, new Rectangle(0, 50, 800 + 5 * step, 550 + 4 * step), null);
+        }
+        long naiveNanos = System.nanoTime() - start;
+        g2d.dispose();
+
+        long[] debounced = new long[2];
+        SwingUtilities.invokeAndWait(() -> {
+            SlideViewerComponent view = new SlideViewerComponent(presentation);
+            view.setSize(800, 600);
+            view.getResizeDebouncer().onResize();
+            paint(view);
+            long dragStart = System.nanoTime();
+            for (int step = 0; step < STEPS; step++) {
+                view.setSize(800 + 5 * step, 600 + 4 * step);
+                view.getResizeDebouncer().onResize();
+                paint(view);
+            }
+            debounced[0] = System.nanoTime() - dragStart;
+            long settleStart = System.nanoTime();
+            view.getResizeDebouncer().settle();
+            paint(view);
+            debounced[1] = System.nanoTime() - settleStart;
+        });
+
+        System.out.printf("Resize %d steps, %d items: relayout every step %.2f ms/frame, "
+                        + "debounced %.2f ms/frame + %.2f ms relayout when settled%n",
+                STEPS, ITEMS, naiveNanos / 1e6 / STEPS, debounced[0] / 1e6 / STEPS, debounced[1] / 1e6);
+        assertTrue(debounced[0] < naiveNanos, "Stretching the last frame is cheaper than relayout");
+    }
+
+    private static void paint(SlideViewerComponent view) {
+        Graphics2D g2d = new BufferedImage(view.getWidth(), view.getHeight(), BufferedImage.TYPE_INT_RGB).createGraphics();
+        view.paintComponent(g2d);
+        g2d.dispose();
+    }
+}
@@ -0,0 +1,95 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.ImageObserver;
+import javax.swing.SwingUtilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests scale quantization and the debounced relayout of ResizeDebouncer.
+ */
+class ResizeDebouncerTest {
+
+    // Item that counts how often it is measured (laid out) and drawn
+    static class CountingItem extends SlideItem {
+        int measureCount = 0;
+        int drawCount = 0;
+        CountingItem() { super(1); }
+        @Override public Rectangle getBoundingBox(Graphics g, ImageObserver observer, float scale, Style style) { measureCount++; return new Rectangle(0, 0, 100, 50); }
+        @Override public void draw(int x, int y, float scale, Graphics g, Style style, ImageObserver observer) { drawCount++; }
+    }
+
+    private SlideViewerComponent view;
+    private CountingItem item;
+
+    @BeforeEach
+    void setUp() {
+        try { Style.createStyles(); } catch (ExceptionInInitializerError e) { /* ignore */ }
+        Presentation presentation = new Presentation("Resize");
+        view = new SlideViewerComponent(presentation);
+        item = new CountingItem();
+        Slide slide = new Slide();
+        slide.append(item);
+        presentation.addSlide(slide);
+        presentation.setSlideNumber(0);
+    }
+
+    private void paint() {
+        Graphics2D g2d = new BufferedImage(view.getWidth(), view.getHeight(), BufferedImage.TYPE_INT_RGB).createGraphics();
+        view.paintComponent(g2d);
+        g2d.dispose();
+    }
+
+    @Test
+    @DisplayName("Scales should be rounded down to their bucket")
+    void shouldQuantizeScale() {
+        assertEquals(0.8125f, ResizeDebouncer.quantize(0.82f));
+        assertEquals(1.0f, ResizeDebouncer.quantize(1.0f));
+        assertEquals(1.0f / ResizeDebouncer.SCALE_BUCKETS, ResizeDebouncer.quantize(0.001f));
+        assertEquals(ResizeDebouncer.quantize(new Rectangle(0, 50, 1000, 650)),
+                ResizeDebouncer.quantize(new Rectangle(0, 50, 1005, 653)), "Same bucket, same area");
+    }
+
+    @Test
+    @DisplayName("Resizing within a bucket should not lay the slide out again")
+    void resizeWithinBucketShouldReuseLayout() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            view.setSize(1000, 700);
+            view.getResizeDebouncer().onResize();
+            paint();
+            int measured = item.measureCount;
+            view.setSize(1005, 703);
+            view.getResizeDebouncer().onResize();
+            assertFalse(view.getResizeDebouncer().isResizing());
+            paint();
+            assertEquals(measured, item.measureCount);
+        });
+    }
+
+    @Test
+    @DisplayName("Resizing into other buckets should stretch the last frame and lay out once when settled")
+    void dragShouldRelayoutOnceWhenSettled() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            view.setSize(800, 600);
+            view.getResizeDebouncer().onResize();
+            paint();
+            assertEquals(1, item.drawCount);
+            for (int step = 1; step <= 10; step++) {
+                view.setSize(800 + 40 * step, 600 + 30 * step);
+                view.getResizeDebouncer().onResize();
+                paint();
+            }
+            assertTrue(view.getResizeDebouncer().isResizing());
+            assertEquals(1, item.drawCount, "The drag only stretches the last frame");
+            view.getResizeDebouncer().settle();
+            paint();
+            assertEquals(2, item.drawCount, "One relayout after the drag");
+        });
+    }
+}
@@ -0,0 +1,80 @@
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Index build time and query latency on a large generated deck.
+ * Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class SearchIndexBenchmarkTest {
+
+    private static final int SLIDES = 2_000;
+    private static final int ITEMS_PER_SLIDE = 10;
+    private static final int WORDS_PER_ITEM = 12;
+    private static final int QUERY_ROUNDS = 1_000;
+    private static final String[] VOCABULARY = buildVocabulary(5_000);
+
+    @Test
+    void indexLargeDeck() {
+        Presentation presentation = generateDeck();
+        SearchIndex index = new SearchIndex();
+        long start = System.nanoTime();
+        index.sync(presentation);
+        assertTrue(index.awaitIdle(60_000));
+        long buildNanos = System.nanoTime() - start;
+        assertEquals(SLIDES, index.getIndexedSlideCount());
+
+        String phrase = "\"" + presentation.getSlide(SLIDES / 2).getTitle() + "\"";
+        String[] queries = {VOCABULARY[42], VOCABULARY[7].substring(0, 3) + "*", phrase, VOCABULARY[1] + " " + VOCABULARY[2]};
+        System.out.printf("Index %d slides (%d words, %d terms): %.1f ms%n", SLIDES,
+                SLIDES * (ITEMS_PER_SLIDE * WORDS_PER_ITEM + 3), index.getTermCount(), buildNanos / 1e6);
+        for (String query : queries) {
+            int[] results = index.search(query); // warm-up
+            long queryStart = System.nanoTime();
+            for (int round = 0; round < QUERY_ROUNDS; round++) {
+                index.search(query);
+            }
+            System.out.printf("  query %-30s %5d slides, %.3f ms/query%n", query, results.length,
+                    (System.nanoTime() - queryStart) / 1e6 / QUERY_ROUNDS);
+        }
+        assertTrue(index.search(phrase).length >= 1);
+    }
+
+    private static Presentation generateDeck() {
+        Random random = new Random(42);
+        Presentation presentation = new Presentation("Large deck");
+        for (int number = 0; number < SLIDES; number++) {
+            Slide slide = new Slide();
+            slide.setTitle("Slide " + number + " " + VOCABULARY[random.nextInt(VOCABULARY.length)]);
+            for (int item = 0; item < ITEMS_PER_SLIDE; item++) {
+                StringBuilder text = new StringBuilder();
+                for (int word = 0; word < WORDS_PER_ITEM; word++) {
+                    // Skewed towards the first words, like natural text
+                    int rank = (int) Math.min(VOCABULARY.length - 1, Math.abs(random.nextGaussian()) * 800);
+                    text.append(VOCABULARY[rank]).append(' ');
+                }
+                slide.append(1 + item % 3, text.toString());
+            }
+            presentation.addSlide(slide);
+        }
+        return presentation;
+    }
+
+    private static String[] buildVocabulary(int size) {
+        Random random = new Random(7);
+        String[] words = new String[size];
+        for (int i = 0; i < size; i++) {
+            StringBuilder word = new StringBuilder();
+            int length = 3 + random.nextInt(7);
+            for (int c = 0; c < length; c++) {
+                word.append((char) ('a' + random.nextInt(26)));
+            }
+            words[i] = word.toString();
+        }
+        return words;
+    }
+}
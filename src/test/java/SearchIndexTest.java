@@ -0,0 +1,107 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the queries and the incremental building of SearchIndex.
+ */
+class SearchIndexTest {
+
+    private Presentation presentation;
+    private SearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        presentation = new Presentation("Search");
+        addSlide("Introduction", "Welcome to JabberPoint", "A simple slide show");
+        addSlide("Design Patterns", "The Observer pattern", "The Decorator pattern wraps items");
+        addSlide("Observers", "Views observe the presentation");
+        index = new SearchIndex();
+        sync();
+    }
+
+    private void addSlide(String title, String... lines) {
+        Slide slide = new Slide();
+        slide.setTitle(title);
+        for (String line : lines) {
+            slide.append(1, line);
+        }
+        presentation.addSlide(slide);
+    }
+
+    private void sync() {
+        index.sync(presentation);
+        assertTrue(index.awaitIdle(10_000), "Indexing finished");
+    }
+
+    private int[] search(String query) {
+        return index.search(query);
+    }
+
+    @Test
+    @DisplayName("Words should match case-insensitively in titles and items")
+    void shouldFindWords() {
+        assertArrayEquals(new int[] {1}, search("observer"));
+        assertArrayEquals(new int[] {0}, search("JABBERPOINT"));
+        assertArrayEquals(new int[] {1}, search("design"));
+        assertArrayEquals(new int[0], search("missing"));
+        assertArrayEquals(new int[0], search(""));
+    }
+
+    @Test
+    @DisplayName("All words of a query should occur on the slide")
+    void shouldCombineWords() {
+        assertArrayEquals(new int[] {1}, search("pattern wraps"));
+        assertArrayEquals(new int[0], search("pattern welcome"));
+    }
+
+    @Test
+    @DisplayName("A word ending in * should match by prefix")
+    void shouldMatchPrefix() {
+        assertArrayEquals(new int[] {1, 2}, search("observ*"));
+        assertArrayEquals(new int[] {2}, search("pres*"));
+        assertArrayEquals(new int[] {0}, search("s* w*")); // simple, welcome
+    }
+
+    @Test
+    @DisplayName("Quoted words should match as a phrase within one title or item")
+    void shouldMatchPhrase() {
+        assertArrayEquals(new int[] {1}, search("\"the observer pattern\""));
+        assertArrayEquals(new int[0], search("\"pattern the\""), "Words in the wrong order");
+        assertArrayEquals(new int[0], search("\"pattern the decorator\""), "Phrases don't span items");
+        assertArrayEquals(new int[] {0}, search("\"slide show\" welcome"));
+    }
+
+    @Test
+    @DisplayName("Sync should index added slides and rebuild after a change")
+    void shouldSyncIncrementally() {
+        assertEquals(3, index.getIndexedSlideCount());
+        addSlide("Appendix", "More observer examples");
+        sync();
+        assertEquals(4, index.getIndexedSlideCount());
+        assertArrayEquals(new int[] {1, 3}, search("observer"));
+
+        presentation.getSlide(3).append(1, "A note on decorators");
+        sync();
+        assertArrayEquals(new int[] {1, 3}, search("decorator*"), "An edited slide is indexed again");
+
+        presentation.clear();
+        addSlide("Other deck", "Nothing about patterns");
+        sync();
+        assertArrayEquals(new int[0], search("observer"));
+        assertArrayEquals(new int[] {0}, search("patterns"));
+    }
+
+    @Test
+    @DisplayName("Text should be split into lower case words")
+    void shouldTokenize() {
+        assertEquals(List.of("drag", "and", "drop", "v2"), SearchIndex.tokenize("Drag-and-drop, v2!"));
+        assertEquals(Arrays.asList("\"two words", "single", "pre*"),
+                SearchIndex.parse("\"two words\" Single pre*"));
+    }
+}
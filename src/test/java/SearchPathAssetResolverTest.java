@@ -0,0 +1,154 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import javax.imageio.ImageIO;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the search path, listing cache and negative cache of SearchPathAssetResolver.
+ */
+class SearchPathAssetResolverTest {
+
+    @TempDir
+    Path tempDir;
+    private Path first;
+    private Path second;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        try { Style.createStyles(); } catch (ExceptionInInitializerError e) { /* ignore */ }
+        first = Files.createDirectories(tempDir.resolve("first"));
+        second = Files.createDirectories(tempDir.resolve("second"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty(SearchPathAssetResolver.SEARCH_PATH_PROPERTY);
+    }
+
+    private static Path touch(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        return Files.write(file, new byte[] {1});
+    }
+
+    @Test
+    @DisplayName("The first directory with the file should win")
+    void shouldSearchInOrder() throws IOException {
+        touch(first.resolve("a.png"));
+        touch(second.resolve("a.png"));
+        touch(second.resolve("b.png"));
+        touch(second.resolve("sub/c.png"));
+        SearchPathAssetResolver resolver = new SearchPathAssetResolver(List.of(first, second));
+
+        assertEquals(first.resolve("a.png"), resolver.resolve("a.png"));
+        assertEquals(second.resolve("b.png"), resolver.resolve("b.png"));
+        assertEquals(second.resolve("sub/c.png"), resolver.resolve("sub/c.png"));
+        assertNull(resolver.resolve("none.png"));
+    }
+
+    @Test
+    @DisplayName("Each directory should be listed once for a whole deck of images")
+    void shouldListDirectoriesOnce() throws IOException {
+        List<String> names = new java.util.ArrayList<>();
+        for (int number = 0; number < 100; number++) {
+            touch(second.resolve("image" + number + ".png"));
+            names.add("image" + number + ".png");
+        }
+        names.add("missing.png");
+        SearchPathAssetResolver resolver = new SearchPathAssetResolver(List.of(first, second));
+
+        Map<String, Path> files = resolver.resolveAll(names);
+
+        assertEquals(100, files.size());
+        assertEquals(2, resolver.getListingCount());
+    }
+
+    @Test
+    @DisplayName("A missing name should be remembered as missing")
+    void shouldCacheMisses() throws IOException {
+        SearchPathAssetResolver resolver = new SearchPathAssetResolver(List.of(first, second));
+        assertNull(resolver.resolve("late.png"));
+        int listings = resolver.getListingCount();
+
+        touch(first.resolve("late.png")); // the cache is not refreshed
+        assertNull(resolver.resolve("late.png"));
+        assertEquals(listings, resolver.getListingCount());
+
+        assertNotNull(new SearchPathAssetResolver(List.of(first)).resolve("late.png"), "A new resolver sees it");
+    }
+
+    @Test
+    @DisplayName("A name in another case should match only on a case-insensitive file store")
+    void shouldIgnoreCaseOnCaseInsensitiveStores() throws IOException {
+        Path logo = touch(first.resolve("Logo.PNG"));
+        SearchPathAssetResolver insensitive = new SearchPathAssetResolver(List.of(first)) {
+            @Override
+            boolean isCaseInsensitive(Path directory, java.util.Set<String> names) {
+                return true;
+            }
+        };
+        assertEquals(logo, insensitive.resolve("logo.png"));
+        assertEquals(1, insensitive.getListingCount());
+
+        SearchPathAssetResolver resolver = new SearchPathAssetResolver(List.of(first));
+        boolean storeIgnoresCase = Files.exists(first.resolve("LOGO.png"));
+        assertEquals(storeIgnoresCase, resolver.resolve("LOGO.png") != null);
+        assertEquals(logo, resolver.resolve("Logo.PNG"));
+    }
+
+    @Test
+    @DisplayName("An absolute name should be used as it is")
+    void shouldResolveAbsoluteNames() throws IOException {
+        Path file = touch(tempDir.resolve("elsewhere/logo.png"));
+        SearchPathAssetResolver resolver = new SearchPathAssetResolver(List.of(first));
+
+        assertEquals(file, resolver.resolve(file.toString()));
+    }
+
+    @Test
+    @DisplayName("The search path should be relative to the deck and configurable")
+    void shouldSearchRelativeToDeck() throws IOException {
+        Path deck = tempDir.resolve("talk/deck.xml");
+        touch(deck.resolveSibling("pictures/photo.png"));
+        touch(deck.resolveSibling("resources/logo.png"));
+
+        SearchPathAssetResolver resolver = SearchPathAssetResolver.forDeck(deck);
+        assertEquals(deck.resolveSibling("resources/logo.png"), resolver.resolve("logo.png"));
+        assertNull(resolver.resolve("photo.png"));
+
+        System.setProperty(SearchPathAssetResolver.SEARCH_PATH_PROPERTY, "." + File.pathSeparator + "pictures");
+        resolver = SearchPathAssetResolver.forDeck(deck);
+        assertEquals(deck.resolveSibling("pictures/photo.png"), resolver.resolve("photo.png"));
+        assertNull(resolver.resolve("logo.png"));
+    }
+
+    @Test
+    @DisplayName("A deck should find the images next to it")
+    void shouldLoadImagesNextToDeck() throws IOException {
+        Path deck = tempDir.resolve("talk/deck.xml");
+        Files.createDirectories(deck.getParent());
+        ImageIO.write(new BufferedImage(8, 4, BufferedImage.TYPE_INT_RGB), "png",
+                deck.resolveSibling("chart.png").toFile());
+        Files.write(deck, ("<?xml version=\"1.0\"?>\n<presentation><showtitle>Talk</showtitle>\n"
+                + "<slide><title>Chart</title><item kind=\"image\" level=\"1\">chart.png</item></slide>\n"
+                + "</presentation>\n").getBytes(StandardCharsets.UTF_8));
+
+        Presentation presentation = new Presentation("Talk");
+        new XMLPresentationReader().load(presentation, deck.toString());
+
+        BitmapItem chart = (BitmapItem) presentation.getSlide(0).getSlideItem(0);
+        assertEquals(deck.resolveSibling("chart.png"), chart.getSource());
+    }
+}
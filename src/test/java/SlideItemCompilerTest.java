@@ -0,0 +1,77 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SlideItemCompiler and the StyledTextItem it produces.
+ */
+class SlideItemCompilerTest {
+
+    private Graphics2D graphics;
+
+    @BeforeEach
+    void setUp() {
+        try { Style.createStyles(); } catch (ExceptionInInitializerError e) { /* ignore */ }
+        graphics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+    }
+
+    @Test
+    @DisplayName("Undecorated items should be returned unchanged")
+    void undecoratedItemsShouldBeUnchanged() {
+        TextItem text = new TextItem(1, "plain");
+        BitmapItem bitmap = new BitmapItem(1, "nonexistent_for_test.jpg");
+        assertSame(text, SlideItemCompiler.compile(text));
+        assertSame(bitmap, SlideItemCompiler.compile(bitmap));
+    }
+
+    @Test
+    @DisplayName("A stacked chain should become one StyledTextItem with all attributes")
+    void stackedChainShouldBeFlattened() {
+        SlideItem chain = new UnderlineTextDecorator(new BoldTextDecorator(new TextItem(3, "Stacked")));
+        SlideItem compiled = SlideItemCompiler.compile(chain);
+
+        assertTrue(compiled instanceof StyledTextItem);
+        StyledTextItem styled = (StyledTextItem) compiled;
+        assertTrue(styled.isBold());
+        assertTrue(styled.isUnderlined());
+        assertEquals(3, styled.getLevel());
+        assertEquals("Stacked", styled.getText());
+    }
+
+    @Test
+    @DisplayName("Decorated non-text items should not be flattened")
+    void decoratedBitmapShouldNotBeFlattened() {
+        SlideItem chain = new BoldTextDecorator(new BitmapItem(1, "nonexistent_for_test.jpg"));
+        assertSame(chain, SlideItemCompiler.compile(chain));
+    }
+
+    @Test
+    @DisplayName("Bold bounding box should be measured with the bold font")
+    void boldBoundingBoxShouldUseBoldFont() {
+        String text = "Measure me with the bold font please";
+        Style style = Style.getStyle(1);
+        Rectangle plain = new TextItem(1, text).getBoundingBox(graphics, null, 1.0f, style);
+        Rectangle bold = new BoldTextDecorator(new TextItem(1, text)).getBoundingBox(graphics, null, 1.0f, style);
+
+        assertTrue(bold.width > plain.width, "Bold text is wider than plain text");
+    }
+
+    @Test
+    @DisplayName("The layout should be cached between calls with the same scale")
+    void boundingBoxShouldBeStableAcrossCalls() {
+        StyledTextItem item = new StyledTextItem(2, "Cached", true, true);
+        Style style = Style.getStyle(2);
+        Rectangle first = item.getBoundingBox(graphics, null, 1.0f, style);
+        first.width = -1; // Callers get a copy, the cache must not be affected
+        Rectangle second = item.getBoundingBox(graphics, null, 1.0f, style);
+
+        assertTrue(second.width > 0);
+        assertEquals(item.getBoundingBox(graphics, null, 1.0f, style), second);
+    }
+}
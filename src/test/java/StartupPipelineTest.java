@@ -0,0 +1,67 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the background parts of StartupPipeline.
+ * The window stages need a display and are covered by JabberPointTest.
+ */
+class StartupPipelineTest {
+
+    @BeforeEach
+    void setUp() {
+        try { Style.createStyles(); } catch (ExceptionInInitializerError e) { /* ignore */ }
+    }
+
+    @Test
+    @DisplayName("loadDeck without a source should load the demo presentation")
+    void loadDeckWithoutSourceShouldLoadDemo() {
+        StartupPipeline pipeline = new StartupPipeline(System.nanoTime(), null);
+        Presentation loaded = pipeline.loadDeck();
+        assertEquals("Demo Presentation with Decorators", loaded.getTitle());
+        assertEquals(4, loaded.getSize(), "Demo deck has four slides");
+    }
+
+    @Test
+    @DisplayName("loadDeck should index the deck, so installing it needs no new indexing")
+    void loadDeckShouldIndexDeck() {
+        StartupPipeline pipeline = new StartupPipeline(System.nanoTime(), null);
+        Presentation loaded = pipeline.loadDeck();
+        SearchIndex index = pipeline.getSearchIndex();
+        assertTrue(index.awaitIdle(10_000));
+        assertEquals(loaded.getSize(), index.getIndexedSlideCount());
+        int terms = index.getTermCount();
+
+        Presentation shown = new Presentation("Shown"); // as install() puts the slides in
+        List<Slide> slides = new ArrayList<>();
+        for (int number = 0; number < loaded.getSize(); number++) {
+            slides.add(loaded.getSlide(number));
+        }
+        shown.setSlides(slides, 0);
+        index.sync(shown);
+        assertTrue(index.awaitIdle(10_000));
+        assertEquals(loaded.getSize(), index.getIndexedSlideCount());
+        assertEquals(terms, index.getTermCount());
+        assertTrue(index.search("decorator*").length > 0);
+    }
+
+    @Test
+    @DisplayName("loadDeck with a missing file should fail with UncheckedIOException")
+    void loadDeckWithMissingFileShouldFail() {
+        StartupPipeline pipeline = new StartupPipeline(System.nanoTime(), "does_not_exist.xml");
+        assertThrows(UncheckedIOException.class, pipeline::loadDeck);
+    }
+
+    @Test
+    @DisplayName("Time to first slide should be unknown before anything is painted")
+    void timeToFirstSlideShouldBeUnknownInitially() {
+        StartupPipeline pipeline = new StartupPipeline(System.nanoTime(), null);
+        assertEquals(-1, pipeline.getTimeToFirstSlideMillis());
+    }
+}
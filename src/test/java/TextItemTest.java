@@ -98,4 +98,50 @@ class TextItemTest {
         assertEquals(expectedFont, iterator.getAttribute(expectedFontAttribute),
                      "Font attribute in AttributedString should match scaled style font");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("addStyle should store run-length encoded inline runs")
+    void addStyleShouldCreateRuns() {
+        TextItem item = new TextItem(1, "one bold word");
+        assertFalse(item.hasInlineStyles(), "New items have no inline styles");
+        assertEquals(1, item.getRunCount(), "Unstyled text is a single run");
+
+        item.addStyle(4, 8, TextItem.BOLD);
+        assertTrue(item.hasInlineStyles());
+        assertEquals(3, item.getRunCount(), "plain, bold, plain");
+        assertEquals(4, item.getRunStart(1));
+        assertEquals(8, item.getRunLimit(1));
+        assertEquals(TextItem.BOLD, item.getRunFlags(1));
+        assertEquals(0, item.getRunFlags(2));
+        assertEquals(13, item.getRunLimit(2), "Last run ends at the end of the text");
+    }
+
+    @Test
+    @DisplayName("Overlapping and adjacent styles should merge into minimal runs")
+    void addStyleShouldMergeRuns() {
+        TextItem item = new TextItem(1, "abcdef");
+        item.addStyle(0, 3, TextItem.BOLD);
+        item.addStyle(3, 6, TextItem.BOLD);
+        assertEquals(1, item.getRunCount(), "Adjacent equal runs are merged");
+
+        item.addStyle(2, 4, TextItem.UNDERLINE);
+        assertEquals(3, item.getRunCount());
+        assertEquals(TextItem.BOLD | TextItem.UNDERLINE, item.getRunFlags(1));
+    }
+
+    @Test
+    @DisplayName("getAttributedString should apply bold and underline to the run only")
+    void attributedStringShouldFollowRuns() {
+        TextItem item = new TextItem(1, "one bold word");
+        item.addStyle(4, 8, TextItem.BOLD | TextItem.UNDERLINE);
+        java.text.AttributedCharacterIterator iterator =
+                item.getAttributedString(Style.getStyle(1), 1.0f).getIterator();
+
+        iterator.setIndex(0);
+        assertFalse(((java.awt.Font) iterator.getAttribute(java.awt.font.TextAttribute.FONT)).isBold());
+        assertNull(iterator.getAttribute(java.awt.font.TextAttribute.UNDERLINE));
+        iterator.setIndex(5);
+        assertTrue(((java.awt.Font) iterator.getAttribute(java.awt.font.TextAttribute.FONT)).isBold());
+        assertEquals(java.awt.font.TextAttribute.UNDERLINE_ON, iterator.getAttribute(java.awt.font.TextAttribute.UNDERLINE));
+    }
+}
@@ -0,0 +1,106 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Parse and render benchmarks for inline text runs.
+ * Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class TextRunsBenchmarkTest {
+
+    private static final int SLIDES = 500;
+    private static final int ITEMS_PER_SLIDE = 20;
+    private static final int RENDER_ROUNDS = 200;
+
+    @BeforeEach
+    void setUp() {
+        Style.createStyles();
+    }
+
+    @Test
+    void parseDeckWithInlineRuns(@TempDir Path tempDir) throws IOException {
+        File plain = writeDeck(tempDir.resolve("plain.xml").toFile(), false);
+        File styled = writeDeck(tempDir.resolve("styled.xml").toFile(), true);
+
+        // Warm up the parser once for each file
+        new XMLPresentationReader().load(new Presentation("warm-up"), plain.getAbsolutePath());
+        new XMLPresentationReader().load(new Presentation("warm-up"), styled.getAbsolutePath());
+
+        long plainNanos = timeLoad(plain);
+        long styledNanos = timeLoad(styled);
+        System.out.printf("Parse %d items: plain %.1f ms, with inline runs %.1f ms%n",
+                SLIDES * ITEMS_PER_SLIDE, plainNanos / 1e6, styledNanos / 1e6);
+    }
+
+    @Test
+    void renderItemWithInlineRuns() {
+        BufferedImage image = new BufferedImage(Slide.WIDTH, Slide.HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        Style style = Style.getStyle(1);
+
+        TextItem cached = createStyledItem();
+        cached.draw(0, 0, 1.0f, g2d, style, null);
+        long start = System.nanoTime();
+        for (int round = 0; round < RENDER_ROUNDS; round++) {
+            cached.draw(0, 0, 1.0f, g2d, style, null);
+        }
+        long cachedNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int round = 0; round < RENDER_ROUNDS; round++) {
+            createStyledItem().draw(0, 0, 1.0f, g2d, style, null); // layout built every time
+        }
+        long uncachedNanos = System.nanoTime() - start;
+        g2d.dispose();
+
+        System.out.printf("Render item with %d runs: cached layout %.1f us/draw, new layout %.1f us/draw%n",
+                cached.getRunCount(), cachedNanos / 1e3 / RENDER_ROUNDS, uncachedNanos / 1e3 / RENDER_ROUNDS);
+        assertTrue(cached.getRunCount() > 1);
+    }
+
+    private static TextItem createStyledItem() {
+        TextItem item = new TextItem(1, "One highlighted word and one underlined phrase in this line");
+        item.addStyle(4, 15, TextItem.BOLD);
+        item.addStyle(28, 46, TextItem.UNDERLINE);
+        return item;
+    }
+
+    private static long timeLoad(File file) throws IOException {
+        Presentation presentation = new Presentation("bench");
+        long start = System.nanoTime();
+        new XMLPresentationReader().load(presentation, file.getAbsolutePath());
+        long elapsed = System.nanoTime() - start;
+        assertEquals(SLIDES, presentation.getSize());
+        return elapsed;
+    }
+
+    private static File writeDeck(File file, boolean inlineRuns) throws IOException {
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write("<?xml version=\"1.0\"?>\n<presentation>\n<showtitle>Bench</showtitle>\n");
+            for (int slide = 0; slide < SLIDES; slide++) {
+                writer.write("<slide>\n<title>Slide " + slide + "</title>\n");
+                for (int item = 0; item < ITEMS_PER_SLIDE; item++) {
+                    writer.write("<item kind=\"text\" level=\"2\">");
+                    writer.write(inlineRuns
+                            ? "One <b>highlighted</b> word and <u>one underlined phrase</u> here"
+                            : "One highlighted word and one underlined phrase here");
+                    writer.write("</item>\n");
+                }
+                writer.write("</slide>\n");
+            }
+            writer.write("</presentation>\n");
+        }
+        return file;
+    }
+}
@@ -0,0 +1,93 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the background rendering and LRU behaviour of ThumbnailCache.
+ */
+class ThumbnailCacheTest {
+
+    @BeforeEach
+    void setUp() {
+        try { Style.createStyles(); } catch (ExceptionInInitializerError e) { /* ignore */ }
+    }
+
+    private static Slide slide(String title) {
+        Slide slide = new Slide();
+        slide.setTitle(title);
+        slide.append(1, "Text of " + title);
+        return slide;
+    }
+
+    // Requests the thumbnail and waits until it has been rendered
+    private static BufferedImage render(ThumbnailCache cache, Slide slide) throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(1);
+        cache.request(slide, ready::countDown);
+        assertTrue(ready.await(10, TimeUnit.SECONDS), "Thumbnail rendered");
+        return cache.get(slide);
+    }
+
+    @Test
+    @DisplayName("Thumbnails should be rendered in the background at the thumbnail size")
+    void shouldRenderThumbnail() throws InterruptedException {
+        ThumbnailCache cache = new ThumbnailCache(10, 120);
+        Slide slide = slide("One");
+        assertNull(cache.get(slide), "Nothing cached before the request");
+        BufferedImage image = render(cache, slide);
+        assertNotNull(image);
+        assertEquals(120, image.getWidth());
+        assertEquals(120 * Slide.HEIGHT / Slide.WIDTH, image.getHeight());
+        assertEquals(0, cache.getPendingCount());
+    }
+
+    @Test
+    @DisplayName("The least recently used thumbnail should be evicted")
+    void shouldEvictLeastRecentlyUsed() throws InterruptedException {
+        ThumbnailCache cache = new ThumbnailCache(2, 40);
+        Slide first = slide("First");
+        Slide second = slide("Second");
+        Slide third = slide("Third");
+        render(cache, first);
+        render(cache, second);
+        assertNotNull(cache.get(first)); // first is now more recently used than second
+        render(cache, third);
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(first));
+        assertNull(cache.get(second), "Least recently used");
+        assertNotNull(cache.get(third));
+    }
+
+    @Test
+    @DisplayName("A changed slide should not use its old thumbnail")
+    void changedSlideShouldBeStale() throws InterruptedException {
+        ThumbnailCache cache = new ThumbnailCache(10, 40);
+        Slide slide = slide("Changing");
+        render(cache, slide);
+        slide.append(2, "More text");
+        assertNull(cache.get(slide));
+        assertNotNull(render(cache, slide));
+    }
+
+    @Test
+    @DisplayName("Unwanted requests should be dropped and clear should empty the cache")
+    void shouldRetainWantedRequestsAndClear() throws InterruptedException {
+        ThumbnailCache cache = new ThumbnailCache(500, 40);
+        render(cache, slide("Cached"));
+        for (int i = 0; i < 400; i++) {
+            cache.request(slide("Slide " + i), null);
+        }
+        cache.retainPending(Collections.emptySet());
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        assertTrue(cache.getPendingCount() <= threads, "Only renders already running are left");
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getPendingCount());
+    }
+}
@@ -0,0 +1,152 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.ImageObserver;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the compositing and timing of TransitionEngine.
+ */
+class TransitionEngineTest {
+
+    private static final int WIDTH = 100;
+    private static final int HEIGHT = 50;
+
+    private BufferedImage red;
+    private BufferedImage blue;
+
+    @BeforeEach
+    void setUp() {
+        red = filled(Color.RED);
+        blue = filled(Color.BLUE);
+    }
+
+    private static BufferedImage filled(Color color) {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setColor(color);
+        g2d.fillRect(0, 0, WIDTH, HEIGHT);
+        g2d.dispose();
+        return image;
+    }
+
+    private BufferedImage frame(TransitionEngine.Type type, float progress, int direction) {
+        BufferedImage target = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = target.createGraphics();
+        TransitionEngine.composite(g2d, type, red, blue, progress, direction, WIDTH, HEIGHT);
+        g2d.dispose();
+        return target;
+    }
+
+    @Test
+    @DisplayName("A fade should go from the old to the new slide")
+    void fadeShouldBlend() {
+        assertEquals(Color.RED.getRGB(), frame(TransitionEngine.Type.FADE, 0f, 1).getRGB(50, 25));
+        assertEquals(Color.BLUE.getRGB(), frame(TransitionEngine.Type.FADE, 1f, 1).getRGB(50, 25));
+        Color half = new Color(frame(TransitionEngine.Type.FADE, 0.5f, 1).getRGB(50, 25));
+        assertTrue(half.getRed() > 100 && half.getBlue() > 100, "Halfway both slides show");
+    }
+
+    @Test
+    @DisplayName("Moving forward the new slide should come in from the right")
+    void slideForwardShouldEnterFromRight() {
+        BufferedImage halfway = frame(TransitionEngine.Type.SLIDE, 0.5f, 1);
+        assertEquals(Color.RED.getRGB(), halfway.getRGB(10, 25));
+        assertEquals(Color.BLUE.getRGB(), halfway.getRGB(90, 25));
+    }
+
+    @Test
+    @DisplayName("Moving backward the new slide should come in from the left")
+    void pushBackwardShouldEnterFromLeft() {
+        BufferedImage halfway = frame(TransitionEngine.Type.PUSH, 0.5f, -1);
+        assertEquals(Color.BLUE.getRGB(), halfway.getRGB(10, 25));
+        assertEquals(Color.RED.getRGB(), halfway.getRGB(90, 25));
+    }
+
+    @Test
+    @DisplayName("Transitions should only start when switched on")
+    void shouldStartOnlyWhenEnabled() {
+        try { Style.createStyles(); } catch (ExceptionInInitializerError e) { /* ignore */ }
+        SlideViewerComponent view = new SlideViewerComponent(new Presentation("Transitions"));
+        view.setSize(WIDTH, HEIGHT);
+        TransitionEngine engine = view.getTransitions();
+        assertFalse(engine.start(new Slide(), new Slide(), 1), "Off by default");
+
+        engine.setType(TransitionEngine.Type.FADE);
+        engine.setDurationMillis(100);
+        assertTrue(engine.start(new Slide(), new Slide(), 1));
+        assertTrue(engine.isActive());
+        BufferedImage target = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = target.createGraphics();
+        assertTrue(engine.paint(g2d, WIDTH, HEIGHT));
+        g2d.dispose();
+        engine.finish();
+        assertFalse(engine.isActive());
+    }
+
+    @Test
+    @DisplayName("Late frames should be counted as dropped and the transition should end on time")
+    void lateFramesShouldBeDropped() {
+        SlideViewerComponent view = new SlideViewerComponent(new Presentation("Transitions"));
+        view.setSize(WIDTH, HEIGHT);
+        TransitionEngine engine = view.getTransitions();
+        engine.setType(TransitionEngine.Type.PUSH);
+        engine.setDurationMillis(10_000);
+        assertTrue(engine.start(new Slide(), new Slide(), 1));
+        long now = System.nanoTime();
+        engine.tick(now);
+        engine.tick(now + 16_000_000L);
+        engine.tick(now + 116_000_000L); // five frames late
+        assertTrue(engine.getFrameStats().getFrameCount() >= 2);
+        assertTrue(engine.getFrameStats().getDroppedFrameCount() >= 5);
+        engine.tick(now + 20_000_000_000L);
+        assertFalse(engine.isActive(), "Finished once the duration has passed");
+    }
+
+    @Test
+    @DisplayName("The outgoing slide should be copied from the layer, and each report should cover one transition")
+    void shouldReuseSlideLayer() {
+        try { Style.createStyles(); } catch (ExceptionInInitializerError e) { /* ignore */ }
+        int[] draws = new int[1];
+        Slide shown = new Slide() {
+            @Override
+            public void draw(Graphics g, Rectangle area, ImageObserver view) {
+                draws[0]++;
+                super.draw(g, area, view);
+            }
+        };
+        shown.setTitle("Shown");
+        Presentation presentation = new Presentation("Transitions");
+        presentation.addSlide(shown);
+        presentation.setSlideNumber(0);
+        SlideViewerComponent view = new SlideViewerComponent(presentation);
+        view.setSize(WIDTH, HEIGHT);
+        BufferedImage screen = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = screen.createGraphics();
+        view.paint(g2d); // renders the slide layer
+        g2d.dispose();
+        assertEquals(1, draws[0]);
+
+        TransitionEngine engine = view.getTransitions();
+        engine.setType(TransitionEngine.Type.FADE);
+        engine.setDurationMillis(10_000);
+        assertTrue(engine.start(shown, new Slide(), 1));
+        assertEquals(1, draws[0], "Copied from the layer, not drawn again");
+        long now = System.nanoTime();
+        engine.tick(now);
+        engine.tick(now + 16_000_000L);
+        engine.finish();
+        assertTrue(engine.getFrameStats().getFrameCount() > 0);
+
+        assertTrue(engine.start(shown, new Slide(), 1));
+        assertEquals(0, engine.getFrameStats().getFrameCount(), "A new transition starts a new report");
+        engine.finish();
+    }
+}
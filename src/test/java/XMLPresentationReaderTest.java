@@ -62,4 +62,37 @@ class XMLPresentationReaderTest {
         assertThrows(IOException.class, () -> 
             reader.load(presentation, xmlFile.getAbsolutePath()));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void inlineRunsShouldRoundTripThroughWriter(@TempDir Path tempDir) throws IOException {
+        File xmlFile = tempDir.resolve("runs.xml").toFile();
+        try (FileWriter writer = new FileWriter(xmlFile)) {
+            writer.write("<?xml version=\"1.0\"?>\n" +
+                    "<presentation>\n" +
+                    "<showtitle>Runs</showtitle>\n" +
+                    "<slide>\n" +
+                    "<title>Inline</title>\n" +
+                    "<item kind=\"text\" level=\"1\">One <b>bold</b> and <u>under <b>both</b></u> &lt;x&gt;</item>\n" +
+                    "</slide>\n" +
+                    "</presentation>");
+        }
+        reader.load(presentation, xmlFile.getAbsolutePath());
+        TextItem item = (TextItem) presentation.getSlide(0).getSlideItem(0);
+        assertEquals("One bold and under both <x>", item.getText());
+        assertEquals(TextItem.BOLD, item.getRunFlags(1));
+        assertEquals("bold", item.getText().substring(item.getRunStart(1), item.getRunLimit(1)));
+
+        File saved = tempDir.resolve("saved.xml").toFile();
+        new XMLPresentationWriter().save(presentation, saved.getAbsolutePath());
+        Presentation reloaded = new Presentation("Reloaded");
+        reader.load(reloaded, saved.getAbsolutePath());
+        TextItem reloadedItem = (TextItem) reloaded.getSlide(0).getSlideItem(0);
+
+        assertEquals(item.getText(), reloadedItem.getText());
+        assertEquals(item.getRunCount(), reloadedItem.getRunCount());
+        for (int run = 0; run < item.getRunCount(); run++) {
+            assertEquals(item.getRunStart(run), reloadedItem.getRunStart(run));
+            assertEquals(item.getRunFlags(run), reloadedItem.getRunFlags(run));
+        }
+    }
+}
@@ -0,0 +1,115 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Saves a deck of about 100 MB and compares the throughput with writing
+ * the same number of bytes straight to a FileChannel, and with an
+ * incremental save after changing one slide.
+ * Run with: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class XMLPresentationWriterBenchmarkTest {
+
+    private static final int SLIDES = 20_000;
+    private static final int ITEMS_PER_SLIDE = 50;
+
+    @BeforeEach
+    void setUp() {
+        Style.createStyles();
+    }
+
+    @Test
+    void saveLargeDeck(@TempDir Path tempDir) throws IOException {
+        Presentation presentation = createDeck();
+        Path file = tempDir.resolve("large.xml");
+        new XMLPresentationWriter().save(presentation, file.toString()); // warm-up
+
+        long heapBefore = usedHeap();
+        long start = System.nanoTime();
+        new XMLPresentationWriter().save(presentation, file.toString());
+        long saveNanos = System.nanoTime() - start;
+        long heapAfter = usedHeap();
+        long bytes = Files.size(file);
+
+        long rawNanos = timeRawWrite(tempDir.resolve("raw.bin"), bytes);
+        System.out.printf("Save %.1f MB: %.0f ms (%.0f MB/s), raw FileChannel write %.0f ms (%.0f MB/s), "
+                        + "retained heap %+.1f MB%n",
+                bytes / 1e6, saveNanos / 1e6, bytes / 1e6 / (saveNanos / 1e9),
+                rawNanos / 1e6, bytes / 1e6 / (rawNanos / 1e9), (heapAfter - heapBefore) / 1e6);
+        assertTrue(bytes > 50_000_000);
+    }
+
+    @Test
+    void saveLargeDeckAfterOneChange(@TempDir Path tempDir) throws IOException {
+        Presentation presentation = createDeck();
+        Path file = tempDir.resolve("large.xml");
+        XMLPresentationWriter writer = new XMLPresentationWriter();
+        writer.save(presentation, file.toString()); // warm-up, records the slide ranges
+        for (int number = 0; number < SLIDES; number += 2) {
+            presentation.getSlide(number).setTitle("Changed " + number); // warm up the mixed path too
+        }
+        writer.save(presentation, file.toString());
+
+        presentation.setSaveIndex(null);
+        long start = System.nanoTime();
+        writer.save(presentation, file.toString()); // full save
+        long fullNanos = System.nanoTime() - start;
+
+        presentation.getSlide(SLIDES / 2).setTitle("Typo fixed");
+        start = System.nanoTime();
+        writer.save(presentation, file.toString());
+        long incrementalNanos = System.nanoTime() - start;
+
+        System.out.printf("Save %.1f MB: full %.0f ms, after changing one slide %.0f ms%n",
+                Files.size(file) / 1e6, fullNanos / 1e6, incrementalNanos / 1e6);
+        assertFalse(presentation.isModified());
+    }
+
+    // A compact deck, so the deck itself does not dominate the heap
+    private static Presentation createDeck() {
+        Presentation presentation = new Presentation("Large deck");
+        CompactSlideStore store = new CompactSlideStore();
+        for (int number = 0; number < SLIDES; number++) {
+            Slide slide = new Slide();
+            slide.setTitle("Slide " + number);
+            for (int item = 0; item < ITEMS_PER_SLIDE; item++) {
+                slide.append(1 + item % 3, "Item " + item + " of slide " + number
+                        + " with some text & a <tag> to escape, long enough to wrap the line");
+            }
+            presentation.addSlide(store.add(slide));
+        }
+        store.trim();
+        return presentation;
+    }
+
+    private static long timeRawWrite(Path file, long bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            for (long written = 0; written < bytes; ) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), bytes - written));
+                written += channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,196 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests escaping and the atomic replace of XMLPresentationWriter.
+ */
+class XMLPresentationWriterTest {
+
+    private final XMLPresentationWriter writer = new XMLPresentationWriter();
+    private Presentation presentation;
+
+    @BeforeEach
+    void setUp() {
+        try { Style.createStyles(); } catch (ExceptionInInitializerError e) { /* ignore */ }
+        presentation = new Presentation("Q&A <draft>");
+        Slide slide = new Slide();
+        slide.setTitle("Less < more & \"quotes\"");
+        slide.append(1, "if (a < b && c > d)");
+        slide.append(new StyledTextItem(2, "Bold & underlined", true, true));
+        presentation.addSlide(slide);
+    }
+
+    @Test
+    @DisplayName("Markup characters in text should survive a save and load")
+    void shouldEscapeText(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("escaped.xml");
+        writer.save(presentation, file.toString());
+
+        Presentation reloaded = new Presentation("Reloaded");
+        new XMLPresentationReader().load(reloaded, file.toString());
+
+        assertEquals("Q&A <draft>", reloaded.getTitle());
+        Slide slide = reloaded.getSlide(0);
+        assertEquals("Less < more & \"quotes\"", slide.getTitle());
+        assertEquals("if (a < b && c > d)", ((TextItem) slide.getSlideItem(0)).getText());
+        StyledTextItem styled = (StyledTextItem) slide.getSlideItem(1);
+        assertTrue(styled.isBold() && styled.isUnderlined());
+        assertEquals(2, styled.getLevel());
+    }
+
+    @Test
+    @DisplayName("A save should replace an existing file and leave no temporary file")
+    void shouldReplaceExistingFile(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("deck.xml");
+        Files.write(file, "old content".getBytes(StandardCharsets.UTF_8));
+
+        writer.save(presentation, file.toString());
+
+        assertTrue(new String(Files.readAllBytes(file), StandardCharsets.UTF_8).contains("<presentation>"));
+        try (var files = Files.list(tempDir)) {
+            assertEquals(1, files.count(), "Only the deck itself");
+        }
+    }
+
+    @Test
+    @DisplayName("A failing save should leave the previous file intact")
+    void failedSaveShouldKeepOldFile(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("deck.xml");
+        writer.save(presentation, file.toString());
+        byte[] before = Files.readAllBytes(file);
+
+        presentation.addSlide(new Slide() {
+            @Override
+            public SlideItem getSlideItem(int number) {
+                throw new IllegalStateException("broken slide");
+            }
+
+            @Override
+            public int getSize() {
+                return 1;
+            }
+        });
+
+        assertThrows(IllegalStateException.class, () -> writer.save(presentation, file.toString()));
+        assertArrayEquals(before, Files.readAllBytes(file));
+        try (var files = Files.list(tempDir)) {
+            assertEquals(1, files.count(), "The temporary file is removed");
+        }
+    }
+
+    @Test
+    @DisplayName("An incremental save should copy unmodified slides from the old file")
+    void incrementalSaveShouldCopyUnmodifiedSlides(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("deck.xml");
+        String kept = "<slide>\n  <title>Kept as written</title>\n"
+                + "  <item kind=\"text\" level=\"1\">Indented  by hand</item>\n</slide>";
+        Files.write(file, ("<?xml version=\"1.0\"?>\n<presentation>\n<showtitle>Deck</showtitle>\n"
+                + kept + "\n<slide>\n  <title>Changed</title>\n</slide>\n</presentation>\n")
+                .getBytes(StandardCharsets.UTF_8));
+        Presentation loaded = new Presentation("Loaded");
+        new XMLPresentationReader().load(loaded, file.toString());
+        assertFalse(loaded.isModified());
+
+        loaded.getSlide(1).append(1, "Typo fixed");
+        writer.save(loaded, file.toString());
+        String saved = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+
+        assertTrue(saved.contains(kept), "The unmodified slide is copied byte for byte");
+        assertTrue(saved.contains("Typo fixed"));
+        assertFalse(loaded.isModified());
+
+        // The new file can be saved incrementally again, and still loads
+        loaded.getSlide(0).setTitle("Now changed too");
+        writer.save(loaded, file.toString());
+        Presentation reloaded = new Presentation("Reloaded");
+        new XMLPresentationReader().load(reloaded, file.toString());
+        assertEquals("Now changed too", reloaded.getSlide(0).getTitle());
+        assertEquals("Typo fixed", ((TextItem) reloaded.getSlide(1).getSlideItem(0)).getText());
+    }
+
+    @Test
+    @DisplayName("A deck in another encoding than UTF-8 should be written completely")
+    void otherEncodingShouldBeWrittenCompletely(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("deck.xml");
+        Files.write(file, ("<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>\n<presentation>\n"
+                + "<showtitle>Deck</showtitle>\n<slide>\n  <title>Caf\u00e9</title>\n</slide>\n"
+                + "<slide>\n  <title>Other</title>\n</slide>\n</presentation>\n")
+                .getBytes(StandardCharsets.ISO_8859_1));
+        Presentation loaded = new Presentation("Loaded");
+        new XMLPresentationReader().load(loaded, file.toString());
+        assertNull(loaded.getSaveIndex(), "The bytes cannot be copied into a UTF-8 file");
+
+        loaded.getSlide(1).append(1, "Edited");
+        writer.save(loaded, file.toString());
+
+        Presentation reloaded = new Presentation("Reloaded");
+        new XMLPresentationReader().load(reloaded, file.toString());
+        assertEquals("Caf\u00e9", reloaded.getSlide(0).getTitle());
+        assertNotNull(reloaded.getSaveIndex(), "Saved as UTF-8, so the next save is incremental");
+    }
+
+    @Test
+    @DisplayName("The encoding should be read from the XML declaration")
+    void shouldRecognizeUtf8() {
+        assertTrue(SaveIndex.isUtf8("<presentation/>".getBytes(StandardCharsets.US_ASCII)));
+        assertTrue(SaveIndex.isUtf8("<?xml version=\"1.0\"?><p/>".getBytes(StandardCharsets.US_ASCII)));
+        assertTrue(SaveIndex.isUtf8("\ufeff<?xml version='1.0' encoding='utf-8'?><p/>".getBytes(StandardCharsets.UTF_8)));
+        assertTrue(SaveIndex.isUtf8("<?xml version=\"1.0\" encoding=\"US-ASCII\"?><p/>"
+                .getBytes(StandardCharsets.US_ASCII)));
+        assertFalse(SaveIndex.isUtf8("<?xml version=\"1.0\" encoding=\"windows-1252\"?><p/>"
+                .getBytes(StandardCharsets.US_ASCII)));
+        assertFalse(SaveIndex.isUtf8("<?xml version=\"1.0\"?><p/>".getBytes(StandardCharsets.UTF_16)));
+    }
+
+    @Test
+    @DisplayName("Inline styling added after loading should survive an incremental save")
+    void incrementalSaveShouldKeepAddedStyle(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("deck.xml");
+        Files.write(file, ("<?xml version=\"1.0\"?>\n<presentation>\n<showtitle>Deck</showtitle>\n"
+                + "<slide>\n  <title>Styled</title>\n  <item kind=\"text\" level=\"1\">Make this bold</item>\n"
+                + "</slide>\n</presentation>\n").getBytes(StandardCharsets.UTF_8));
+        Presentation loaded = new Presentation("Loaded");
+        new XMLPresentationReader().load(loaded, file.toString());
+        Slide slide = loaded.getSlide(0);
+        int version = slide.getVersion();
+        Slide snapshot = slide.snapshot();
+
+        slide.addStyle(0, 10, 14, TextItem.BOLD);
+        assertTrue(slide.isModified());
+        assertNotEquals(version, slide.getVersion());
+        assertFalse(((TextItem) snapshot.getSlideItem(0)).hasInlineStyles(), "The snapshot keeps the old item");
+        writer.save(loaded, file.toString());
+
+        Presentation reloaded = new Presentation("Reloaded");
+        new XMLPresentationReader().load(reloaded, file.toString());
+        TextItem item = (TextItem) reloaded.getSlide(0).getSlideItem(0);
+        assertEquals("Make this bold", item.getText());
+        assertEquals(2, item.getRunCount());
+        assertEquals(10, item.getRunStart(1));
+        assertEquals(TextItem.BOLD, item.getRunFlags(1));
+    }
+
+    @Test
+    @DisplayName("A file changed by someone else should be written completely")
+    void changedFileShouldBeWrittenCompletely(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("deck.xml");
+        writer.save(presentation, file.toString());
+        Files.write(file, "<presentation><showtitle>Other</showtitle></presentation>".getBytes(StandardCharsets.UTF_8));
+
+        writer.save(presentation, file.toString());
+
+        Presentation reloaded = new Presentation("Reloaded");
+        new XMLPresentationReader().load(reloaded, file.toString());
+        assertEquals(1, reloaded.getSize());
+        assertEquals("if (a < b && c > d)", ((TextItem) reloaded.getSlide(0).getSlideItem(0)).getText());
+    }
+}